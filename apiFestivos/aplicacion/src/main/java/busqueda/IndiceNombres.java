@@ -0,0 +1,288 @@
+package festivos.api.aplicacion.busqueda;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+import festivos.api.dominio.DTOs.SugerenciaDto;
+
+/**
+ * Índice en memoria de nombres para búsqueda por subcadena y autocompletado,
+ * sin distinguir mayúsculas ni tildes ({@code "mexico"} encuentra
+ * {@code "MÉXICO"}).
+ *
+ * La subcadena se resuelve intersecando las listas de trigramas de la consulta
+ * y confirmando cada candidato; el autocompletado, con un árbol ordenado de
+ * los nombres desde el inicio de cada palabra. Se carga desde la base de datos
+ * en la primera consulta y después se mantiene con cada escritura.
+ *
+ * Las consultas devuelven {@code null} cuando el índice no se pudo cargar; el
+ * llamador filtra entonces los nombres con {@link #filtrar}, que aplica la
+ * misma normalización. Las coincidencias se leen de la base en lotes de
+ * {@link #LOTE_IDS} con {@link #leerPorLotes}, por muchas que sean.
+ */
+public class IndiceNombres {
+
+    private static final Pattern MARCAS = Pattern.compile("\\p{M}+");
+    private static final Pattern ESPACIOS = Pattern.compile("\\s+");
+    private static final char SEPARADOR = '\u0000';
+
+    /** Ids por consulta al leer las coincidencias de la base. */
+    public static final int LOTE_IDS = 1000;
+    public static final int MAXIMO_SUGERENCIAS = 50;
+
+    private final Supplier<List<SugerenciaDto>> cargador;
+
+    private final ReadWriteLock bloqueo = new ReentrantReadWriteLock();
+    private final Map<Integer, Entrada> entradas = new HashMap<>();
+    private final Map<Long, Set<Integer>> trigramas = new HashMap<>();
+    private final NavigableMap<String, Integer> palabras = new TreeMap<>();
+    private volatile boolean cargado;
+
+    public IndiceNombres(Supplier<List<SugerenciaDto>> cargador) {
+        this.cargador = cargador;
+    }
+
+    public static String normalizar(String texto) {
+        String sinTildes = MARCAS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("");
+        return ESPACIOS.matcher(sinTildes.toLowerCase(Locale.ROOT).trim()).replaceAll(" ");
+    }
+
+    public boolean estaCargado() {
+        return cargado;
+    }
+
+    /**
+     * Carga el índice si aún no lo está. La lectura se hace con el bloqueo
+     * tomado: una escritura que llegue mientras tanto espera y se aplica
+     * después, así no se pierde. Devuelve {@code false} si la carga falla.
+     */
+    private boolean cargar() {
+        if (cargado)
+            return true;
+        bloqueo.writeLock().lock();
+        try {
+            if (!cargado) {
+                for (var nombre : cargador.get())
+                    agregar(nombre.getId(), nombre.getNombre());
+                cargado = true;
+            }
+            return true;
+        } catch (RuntimeException e) {
+            entradas.clear();
+            trigramas.clear();
+            palabras.clear();
+            return false;
+        } finally {
+            bloqueo.writeLock().unlock();
+        }
+    }
+
+    /** Agrega o reemplaza el nombre de un id. Sin efecto si el índice no está cargado. */
+    public void actualizar(int id, String nombre) {
+        bloqueo.writeLock().lock();
+        try {
+            if (!cargado)
+                return;
+            quitarEntrada(id);
+            if (nombre != null)
+                agregar(id, nombre);
+        } finally {
+            bloqueo.writeLock().unlock();
+        }
+    }
+
+    public void quitar(int id) {
+        bloqueo.writeLock().lock();
+        try {
+            quitarEntrada(id);
+        } finally {
+            bloqueo.writeLock().unlock();
+        }
+    }
+
+    /** Descarta el contenido; la siguiente consulta vuelve a cargarlo. Para cambios masivos. */
+    public void reiniciar() {
+        bloqueo.writeLock().lock();
+        try {
+            entradas.clear();
+            trigramas.clear();
+            palabras.clear();
+            cargado = false;
+        } finally {
+            bloqueo.writeLock().unlock();
+        }
+    }
+
+    public int tamaño() {
+        bloqueo.readLock().lock();
+        try {
+            return entradas.size();
+        } finally {
+            bloqueo.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ids cuyo nombre contiene el texto, en orden de nombre e id. Con menos de
+     * tres letras se recorre todo.
+     */
+    public List<Integer> buscar(String texto) {
+        if (!cargar())
+            return null;
+        String consulta = normalizar(texto);
+        bloqueo.readLock().lock();
+        try {
+            if (consulta.length() < 3)
+                return ordenar(recorrer(consulta));
+
+            Set<Integer> menor = null;
+            List<Set<Integer>> listas = new ArrayList<>();
+            for (long trigrama : trigramas(consulta)) {
+                var ids = trigramas.get(trigrama);
+                if (ids == null)
+                    return List.of();
+                listas.add(ids);
+                if (menor == null || ids.size() < menor.size())
+                    menor = ids;
+            }
+            List<Integer> resultado = new ArrayList<>();
+            candidatos: for (int id : menor) {
+                for (var ids : listas)
+                    if (ids != menor && !ids.contains(id))
+                        continue candidatos;
+                if (entradas.get(id).normalizado.contains(consulta))
+                    resultado.add(id);
+            }
+            return ordenar(resultado);
+        } finally {
+            bloqueo.readLock().unlock();
+        }
+    }
+
+    /** Hasta {@code limite} nombres con alguna palabra que empieza por el prefijo. */
+    public List<SugerenciaDto> autocompletar(String prefijo, int limite) {
+        if (!cargar())
+            return null;
+        String desde = normalizar(prefijo);
+        bloqueo.readLock().lock();
+        try {
+            Set<Integer> ids = new LinkedHashSet<>();
+            for (var id : palabras.subMap(desde, true, desde + Character.MAX_VALUE, false).values()) {
+                ids.add(id);
+                if (ids.size() == limite)
+                    break;
+            }
+            List<SugerenciaDto> sugerencias = new ArrayList<>(ids.size());
+            for (int id : ids)
+                sugerencias.add(new SugerenciaDto(id, entradas.get(id).nombre));
+            return sugerencias;
+        } finally {
+            bloqueo.readLock().unlock();
+        }
+    }
+
+    /** Lo mismo que {@link #buscar} sobre una lista de nombres, sin índice. */
+    public static List<Integer> filtrar(List<SugerenciaDto> nombres, String texto) {
+        String consulta = normalizar(texto);
+        List<SugerenciaDto> coincidencias = new ArrayList<>();
+        for (var nombre : nombres)
+            if (normalizar(nombre.getNombre()).contains(consulta))
+                coincidencias.add(nombre);
+        coincidencias.sort(Comparator.comparing(SugerenciaDto::getNombre).thenComparingInt(SugerenciaDto::getId));
+        List<Integer> ids = new ArrayList<>(coincidencias.size());
+        for (var nombre : coincidencias)
+            ids.add(nombre.getId());
+        return ids;
+    }
+
+    /**
+     * Lee las filas de los ids con {@code lector}, {@link #LOTE_IDS} a la vez,
+     * y las concatena en el orden de los lotes.
+     */
+    public static <T> List<T> leerPorLotes(List<Integer> ids, Function<List<Integer>, List<T>> lector) {
+        if (ids.size() <= LOTE_IDS)
+            return ids.isEmpty() ? List.of() : lector.apply(ids);
+        List<T> filas = new ArrayList<>(ids.size());
+        for (int i = 0; i < ids.size(); i += LOTE_IDS)
+            filas.addAll(lector.apply(ids.subList(i, Math.min(ids.size(), i + LOTE_IDS))));
+        return filas;
+    }
+
+    // Mismo orden que las consultas por ids (nombre, id), para que los lotes se puedan concatenar
+    private List<Integer> ordenar(List<Integer> ids) {
+        ids.sort(Comparator.<Integer, String>comparing(id -> entradas.get(id).nombre).thenComparing(Comparator.naturalOrder()));
+        return ids;
+    }
+
+    private List<Integer> recorrer(String consulta) {
+        List<Integer> resultado = new ArrayList<>();
+        for (var entrada : entradas.entrySet())
+            if (entrada.getValue().normalizado.contains(consulta))
+                resultado.add(entrada.getKey());
+        return resultado;
+    }
+
+    private void agregar(int id, String nombre) {
+        var entrada = new Entrada(nombre, normalizar(nombre));
+        entradas.put(id, entrada);
+        for (long trigrama : trigramas(entrada.normalizado))
+            trigramas.computeIfAbsent(trigrama, t -> new HashSet<>()).add(id);
+        for (String llave : llavesPalabras(id, entrada.normalizado))
+            palabras.put(llave, id);
+    }
+
+    private void quitarEntrada(int id) {
+        var entrada = entradas.remove(id);
+        if (entrada == null)
+            return;
+        for (long trigrama : trigramas(entrada.normalizado)) {
+            var ids = trigramas.get(trigrama);
+            ids.remove(id);
+            if (ids.isEmpty())
+                trigramas.remove(trigrama);
+        }
+        for (String llave : llavesPalabras(id, entrada.normalizado))
+            palabras.remove(llave);
+    }
+
+    private static Set<Long> trigramas(String texto) {
+        Set<Long> resultado = new HashSet<>();
+        for (int i = 0; i + 3 <= texto.length(); i++)
+            resultado.add(((long) texto.charAt(i) << 32) | ((long) texto.charAt(i + 1) << 16) | texto.charAt(i + 2));
+        return resultado;
+    }
+
+    /** El nombre desde el inicio de cada palabra, con el id para que la llave sea única. */
+    private static List<String> llavesPalabras(int id, String normalizado) {
+        List<String> llaves = new ArrayList<>();
+        for (int i = 0; i < normalizado.length(); i++)
+            if (i == 0 || normalizado.charAt(i - 1) == ' ')
+                llaves.add(normalizado.substring(i) + SEPARADOR + id);
+        return llaves;
+    }
+
+    private static final class Entrada {
+        private final String nombre;
+        private final String normalizado;
+
+        private Entrada(String nombre, String normalizado) {
+            this.nombre = nombre;
+            this.normalizado = normalizado;
+        }
+    }
+}
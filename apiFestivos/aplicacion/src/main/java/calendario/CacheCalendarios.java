@@ -0,0 +1,419 @@
+package festivos.api.aplicacion.calendario;
+
+import java.time.Clock;
+import java.time.Year;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntFunction;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Cache acotada de calendarios por (país, año).
+ *
+ * Las lecturas no bloquean. Cuando se supera la capacidad se desaloja la
+ * entrada usada hace más tiempo, excepto las del año actual y sus adyacentes,
+ * que quedan fijas. Las escrituras de festivos invalidan solo el país afectado.
+ *
+ * El orden de uso es una cola doblemente enlazada de las entradas, protegida
+ * por un bloqueo que solo toman las inserciones e invalidaciones. Un acierto
+ * solo marca su entrada; al llegar al final de la cola, una entrada marcada
+ * (o fija) vuelve al frente en lugar de desalojarse. Así desalojar cuesta
+ * O(1) amortizado y no recorre los años de todos los países.
+ *
+ * Cada país guarda sus años en un arreglo indexado por {@code año - AÑO_MIN},
+ * así un acierto no crea objetos (ni siquiera la llave del año).
+ *
+ * Los recorridos de rangos largos usan {@link #consultar}: leen lo que haya
+ * en cache pero solo guardan los años cercanos al actual, para que una sola
+ * petición de cientos de años no desaloje los calendarios de los demás.
+ *
+ * Para la aritmética de días hábiles guarda, por país y máscara de fin de
+ * semana, los hábiles acumulados año por año en todo el rango de la cache
+ * (ver {@link #habilesAcumulados}); un rango de décadas se resuelve con dos
+ * lecturas de ese arreglo.
+ *
+ * El tiempo de cada cálculo se publica en {@code festivos.calendario.calculo}
+ * con la etiqueta {@code pais}; ver {@link #etiquetaPais(int)}.
+ */
+@Component
+public class CacheCalendarios implements MeterBinder {
+
+    @FunctionalInterface
+    public interface Calculador {
+        CalendarioAnual calcular(int idPais, int año);
+    }
+
+    private static final String NOMBRE = "calendarios";
+    private static final String PAIS_DESCONOCIDO = "otro";
+
+    /** Años que se guardan en cache; fuera de este rango se calcula siempre. */
+    public static final int AÑO_MIN = 1583;
+    public static final int AÑO_MAX = 4099;
+    /** Años a cada lado del actual que {@link #consultar} sí guarda. */
+    public static final int VENTANA_CALIENTE = 10;
+
+    private final Map<Integer, CalendariosPais> paises = new ConcurrentHashMap<>();
+    private final int capacidad;
+    private final Clock reloj;
+    private final Object bloqueoDesalojo = new Object();
+    // Protegidos por bloqueoDesalojo; cabeza es la usada más recientemente
+    private Entrada cabeza;
+    private Entrada cola;
+    private volatile int tamaño;
+
+    private final LongAdder aciertos = new LongAdder();
+    private final LongAdder fallos = new LongAdder();
+    private final LongAdder desalojos = new LongAdder();
+    private final LongAdder invalidaciones = new LongAdder();
+    private volatile MeterRegistry registro;
+    // Países sin reglas: los acumulados solo dependen de la máscara
+    private final AtomicReferenceArray<int[]> acumuladosSinFestivos = new AtomicReferenceArray<>(128);
+
+    @Autowired
+    public CacheCalendarios(@Value("${festivos.calendario.cache.capacidad:512}") int capacidad) {
+        this(capacidad, Clock.systemDefaultZone());
+    }
+
+    public CacheCalendarios(int capacidad, Clock reloj) {
+        if (capacidad < 1)
+            throw new IllegalArgumentException("La capacidad de la cache debe ser positiva");
+        this.capacidad = capacidad;
+        this.reloj = reloj;
+    }
+
+    public CalendarioAnual obtener(int idPais, int año, Calculador calculador) {
+        if (año < AÑO_MIN || año > AÑO_MAX) {
+            fallos.increment();
+            return calcular(idPais, año, calculador);
+        }
+
+        var calendarios = calendariosDe(idPais);
+        int i = año - AÑO_MIN;
+        var entrada = calendarios.años.get(i);
+        if (entrada != null) {
+            entrada.marcarUso();
+            aciertos.increment();
+            return entrada.calendario;
+        }
+
+        fallos.increment();
+        var calendario = calcular(idPais, año, calculador);
+        var nueva = new Entrada(calendarios, i, calendario);
+        // Si el país se invalidó mientras se calculaba, el objeto capturado ya no
+        // está publicado y el resultado (posiblemente obsoleto) se descarta solo.
+        if (!calendarios.años.compareAndSet(i, null, nueva)) {
+            var ganadora = calendarios.años.get(i);
+            return ganadora != null ? ganadora.calendario : calendario;
+        }
+        encolar(nueva);
+        return calendario;
+    }
+
+    /**
+     * Como {@link #obtener}, pero un año que no está en cache y queda fuera de
+     * la ventana caliente se calcula sin guardarse.
+     */
+    public CalendarioAnual consultar(int idPais, int año, Calculador calculador) {
+        if (esCaliente(año))
+            return obtener(idPais, año, calculador);
+        var calendarios = año < AÑO_MIN || año > AÑO_MAX ? null : paises.get(idPais);
+        var entrada = calendarios != null ? calendarios.años.get(año - AÑO_MIN) : null;
+        if (entrada != null) {
+            entrada.marcarUso();
+            aciertos.increment();
+            return entrada.calendario;
+        }
+        fallos.increment();
+        return calcular(idPais, año, calculador);
+    }
+
+    private CalendarioAnual calcular(int idPais, int año, Calculador calculador) {
+        var registro = this.registro;
+        if (registro == null)
+            return calculador.calcular(idPais, año);
+        long inicio = System.nanoTime();
+        var calendario = calculador.calcular(idPais, año);
+        Timer.builder("festivos.calendario.calculo")
+                .tags("pais", etiquetaPais(idPais))
+                .description("Cálculo de los festivos de un año")
+                .publishPercentileHistogram()
+                .register(registro)
+                .record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+        return calendario;
+    }
+
+    /**
+     * Valor acotado para la etiqueta {@code pais} de las métricas: el id si el
+     * país tiene reglas compiladas en cache, {@code "otro"} en cualquier otro
+     * caso. Así un cliente que recorre ids inexistentes no crea series nuevas.
+     */
+    public String etiquetaPais(int idPais) {
+        var calendarios = paises.get(idPais);
+        var programa = calendarios != null ? calendarios.programa : null;
+        return programa != null && programa.cantidad() > 0 ? Integer.toString(idPais) : PAIS_DESCONOCIDO;
+    }
+
+    /**
+     * Reglas compiladas del país. Se compilan una vez y se descartan junto con
+     * sus calendarios cuando el país se invalida. Un país sin reglas no queda
+     * en cache (ni su programa ni sus años): cualquier cliente puede pedir ids
+     * inventados y cada uno ocuparía un arreglo de años para siempre.
+     */
+    public ProgramaCalendario programa(int idPais, IntFunction<ProgramaCalendario> compilador) {
+        var calendarios = calendariosDe(idPais);
+        var programa = calendarios.programa;
+        if (programa != null)
+            return programa;
+        // Los hilos que piden el mismo país a la vez esperan una sola compilación
+        synchronized (calendarios) {
+            programa = calendarios.programa;
+            if (programa == null) {
+                programa = compilador.apply(idPais);
+                calendarios.programa = programa;
+                if (programa.cantidad() == 0)
+                    soltar(idPais, calendarios);
+            }
+            return programa;
+        }
+    }
+
+    /**
+     * {@code acumulados[k]} es la cantidad de días hábiles de los años
+     * {@code AÑO_MIN} a {@code AÑO_MIN + k - 1}; {@code acumulados[0] == 0}.
+     * Se calcula una vez por país y máscara, para todos los años del rango de
+     * la cache sin guardar sus calendarios, y se descarta con el país.
+     */
+    public int[] habilesAcumulados(int idPais, int finesDeSemana, IntFunction<ProgramaCalendario> compilador) {
+        var programa = programa(idPais, compilador);
+        var calendarios = paises.get(idPais);
+        AtomicReferenceArray<int[]> guardados;
+        if (programa.cantidad() == 0)
+            guardados = acumuladosSinFestivos;
+        else if (calendarios != null && calendarios.programa == programa)
+            guardados = calendarios.acumulados;
+        else
+            return acumular(programa, finesDeSemana); // invalidado mientras tanto: no se guarda
+        var acumulados = guardados.get(finesDeSemana);
+        if (acumulados == null) {
+            acumulados = acumular(programa, finesDeSemana);
+            if (!guardados.compareAndSet(finesDeSemana, null, acumulados))
+                acumulados = guardados.get(finesDeSemana);
+        }
+        return acumulados;
+    }
+
+    private static int[] acumular(ProgramaCalendario programa, int finesDeSemana) {
+        int[] acumulados = new int[AÑO_MAX - AÑO_MIN + 2];
+        for (int año = AÑO_MIN; año <= AÑO_MAX; año++)
+            acumulados[año - AÑO_MIN + 1] = acumulados[año - AÑO_MIN] + programa.evaluar(año).contarHabiles(finesDeSemana);
+        return acumulados;
+    }
+
+    private CalendariosPais calendariosDe(int idPais) {
+        var calendarios = paises.get(idPais);
+        if (calendarios == null)
+            calendarios = paises.computeIfAbsent(idPais, k -> new CalendariosPais());
+        return calendarios;
+    }
+
+    private void soltar(int idPais, CalendariosPais calendarios) {
+        if (paises.remove(idPais, calendarios)) {
+            synchronized (bloqueoDesalojo) {
+                descartar(calendarios);
+            }
+        }
+    }
+
+    public void invalidar(int idPais) {
+        var calendarios = paises.remove(idPais);
+        if (calendarios == null)
+            return;
+        invalidaciones.increment();
+        synchronized (bloqueoDesalojo) {
+            descartar(calendarios);
+        }
+    }
+
+    public void invalidarTodo() {
+        synchronized (bloqueoDesalojo) {
+            for (var calendarios : paises.values())
+                calendarios.descartado = true;
+            paises.clear();
+            cabeza = cola = null;
+            tamaño = 0;
+        }
+        invalidaciones.increment();
+    }
+
+    // Con el bloqueo tomado
+    private void descartar(CalendariosPais calendarios) {
+        calendarios.descartado = true;
+        for (int i = 0; i < calendarios.años.length(); i++) {
+            var entrada = calendarios.años.get(i);
+            if (entrada != null && entrada.enCola) {
+                desenlazar(entrada);
+                tamaño--;
+            }
+        }
+    }
+
+    public int tamaño() {
+        return tamaño;
+    }
+
+    public int cantidadPaises() {
+        return paises.size();
+    }
+
+    public boolean esFijo(int año) {
+        int actual = Year.now(reloj).getValue();
+        return año >= actual - 1 && año <= actual + 1;
+    }
+
+    public boolean esCaliente(int año) {
+        int actual = Year.now(reloj).getValue();
+        return año >= actual - VENTANA_CALIENTE && año <= actual + VENTANA_CALIENTE;
+    }
+
+    private void encolar(Entrada entrada) {
+        synchronized (bloqueoDesalojo) {
+            // El país se invalidó después de publicar la entrada: ya nadie la ve
+            if (entrada.pais.descartado)
+                return;
+            enlazarAlFrente(entrada);
+            tamaño++;
+            if (tamaño > capacidad)
+                desalojarExcedentes();
+        }
+    }
+
+    // Con el bloqueo tomado. La primera vuelta a la cola borra las marcas; si
+    // tras la segunda no hubo víctima, solo quedan años fijos.
+    private void desalojarExcedentes() {
+        int revisables = 2 * tamaño;
+        while (tamaño > capacidad && revisables-- > 0) {
+            var candidata = cola;
+            desenlazar(candidata);
+            if (candidata.usada || esFijo(AÑO_MIN + candidata.indice)) {
+                candidata.usada = false;
+                enlazarAlFrente(candidata);
+                continue;
+            }
+            candidata.pais.años.compareAndSet(candidata.indice, candidata, null);
+            tamaño--;
+            desalojos.increment();
+            revisables = 2 * tamaño;
+        }
+    }
+
+    private void enlazarAlFrente(Entrada entrada) {
+        entrada.anterior = null;
+        entrada.siguiente = cabeza;
+        if (cabeza != null)
+            cabeza.anterior = entrada;
+        cabeza = entrada;
+        if (cola == null)
+            cola = entrada;
+        entrada.enCola = true;
+    }
+
+    private void desenlazar(Entrada entrada) {
+        if (entrada.anterior != null)
+            entrada.anterior.siguiente = entrada.siguiente;
+        else
+            cabeza = entrada.siguiente;
+        if (entrada.siguiente != null)
+            entrada.siguiente.anterior = entrada.anterior;
+        else
+            cola = entrada.anterior;
+        entrada.anterior = entrada.siguiente = null;
+        entrada.enCola = false;
+    }
+
+    public long getAciertos() {
+        return aciertos.sum();
+    }
+
+    public long getFallos() {
+        return fallos.sum();
+    }
+
+    public long getDesalojos() {
+        return desalojos.sum();
+    }
+
+    public long getInvalidaciones() {
+        return invalidaciones.sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        this.registro = registry;
+        FunctionCounter.builder("cache.gets", aciertos, LongAdder::sum)
+                .tags("cache", NOMBRE, "result", "hit")
+                .description("Calendarios servidos desde la cache")
+                .register(registry);
+        FunctionCounter.builder("cache.gets", fallos, LongAdder::sum)
+                .tags("cache", NOMBRE, "result", "miss")
+                .description("Calendarios calculados por no estar en la cache")
+                .register(registry);
+        FunctionCounter.builder("cache.evictions", desalojos, LongAdder::sum)
+                .tags("cache", NOMBRE)
+                .description("Calendarios desalojados por capacidad")
+                .register(registry);
+        FunctionCounter.builder("cache.invalidations", invalidaciones, LongAdder::sum)
+                .tags("cache", NOMBRE)
+                .description("Invalidaciones por escrituras de festivos")
+                .register(registry);
+        Gauge.builder("cache.size", this, CacheCalendarios::tamaño)
+                .tags("cache", NOMBRE)
+                .register(registry);
+        Gauge.builder("cache.max.size", this, c -> c.capacidad)
+                .tags("cache", NOMBRE)
+                .register(registry);
+    }
+
+    private static final class CalendariosPais {
+        private final AtomicReferenceArray<Entrada> años = new AtomicReferenceArray<>(AÑO_MAX - AÑO_MIN + 1);
+        private volatile ProgramaCalendario programa;
+        private final AtomicReferenceArray<int[]> acumulados = new AtomicReferenceArray<>(128);
+        // Protegido por bloqueoDesalojo
+        private boolean descartado;
+    }
+
+    private static final class Entrada {
+        private final CalendariosPais pais;
+        private final int indice;
+        private final CalendarioAnual calendario;
+        private volatile boolean usada;
+        // Protegidos por bloqueoDesalojo
+        private Entrada anterior;
+        private Entrada siguiente;
+        private boolean enCola;
+
+        private Entrada(CalendariosPais pais, int indice, CalendarioAnual calendario) {
+            this.pais = pais;
+            this.indice = indice;
+            this.calendario = calendario;
+        }
+
+        private void marcarUso() {
+            // Leer antes de escribir: los aciertos repetidos no ensucian la línea de cache
+            if (!usada)
+                usada = true;
+        }
+    }
+
+}
@@ -0,0 +1,168 @@
+package festivos.api.aplicacion.calendario;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import festivos.api.aplicacion.servicios.ServicioFechas;
+import festivos.api.dominio.DTOs.FestivoDto;
+
+/**
+ * Festivos ya calculados de un país para un año. Inmutable, se comparte entre
+ * peticiones a través de {@link CacheCalendarios}.
+ *
+ * Además de la lista para {@code listar}, guarda un conjunto de 366 bits
+ * indexado por día del año, de modo que {@link #esFestivo(int)} es una sola
+ * prueba de bit sin asignar memoria.
+ *
+ * Las fechas se guardan como días época en un {@code int[]}; la lista de
+ * {@link FestivoDto} solo se arma, una vez, cuando se pide para responder.
+ *
+ * Las sumas prefijas de días hábiles se calculan la primera vez que se piden
+ * para una máscara de fin de semana (ver {@link DiasHabiles}) y se reutilizan.
+ */
+public final class CalendarioAnual {
+
+    private final int idPais;
+    private final int año;
+    private final int[] ids;
+    private final String[] nombres;
+    private final int[] diasEpoca;
+    private final long[] dias = new long[6];
+    private final int diasDelAño;
+    private final int diaSemanaInicio;
+    private final AtomicReferenceArray<int[]> prefijosHabiles = new AtomicReferenceArray<>(128);
+    private volatile List<FestivoDto> festivos;
+
+    /**
+     * Toma posesión de los arreglos: {@code nombres[i]}, con id {@code ids[i]},
+     * es el festivo que cae en el día época {@code diasEpoca[i]}. No deben
+     * modificarse después.
+     */
+    public CalendarioAnual(int idPais, int año, int[] ids, String[] nombres, int[] diasEpoca) {
+        if (nombres.length != diasEpoca.length || ids.length != diasEpoca.length)
+            throw new IllegalArgumentException("Cada festivo necesita id, nombre y fecha");
+        this.idPais = idPais;
+        this.año = año;
+        this.ids = ids;
+        this.nombres = nombres;
+        this.diasEpoca = diasEpoca;
+        this.diasDelAño = ServicioFechas.esBisiesto(año) ? 366 : 365;
+        int inicio = ServicioFechas.diaEpoca(año, 1, 1);
+        this.diaSemanaInicio = ServicioFechas.diaSemana(inicio) - 1;
+        for (int diaEpoca : diasEpoca) {
+            int diaDelAño = diaEpoca - inicio + 1;
+            // Un traslado puede caer en el año siguiente; ese día no es festivo de este año
+            if (diaDelAño >= 1 && diaDelAño <= diasDelAño)
+                marcar(diaDelAño);
+        }
+    }
+
+    // Sin festivos de origen: pruebas
+    public CalendarioAnual(int idPais, int año, List<FestivoDto> festivos) {
+        this(idPais, año, new int[festivos.size()], nombresDe(festivos), diasEpocaDe(festivos));
+    }
+
+    private static String[] nombresDe(List<FestivoDto> festivos) {
+        String[] nombres = new String[festivos.size()];
+        for (int i = 0; i < nombres.length; i++)
+            nombres[i] = festivos.get(i).getPais();
+        return nombres;
+    }
+
+    private static int[] diasEpocaDe(List<FestivoDto> festivos) {
+        int[] dias = new int[festivos.size()];
+        for (int i = 0; i < dias.length; i++)
+            dias[i] = (int) festivos.get(i).getFecha().toEpochDay();
+        return dias;
+    }
+
+    private void marcar(int diaDelAño) {
+        dias[diaDelAño >>> 6] |= 1L << diaDelAño;
+    }
+
+    public boolean esFestivo(int diaDelAño) {
+        return (dias[diaDelAño >>> 6] & (1L << diaDelAño)) != 0;
+    }
+
+    public boolean esHabil(int diaDelAño, int finesDeSemana) {
+        int diaSemana = (diaSemanaInicio + diaDelAño - 1) % 7;
+        return (finesDeSemana & (1 << diaSemana)) == 0 && !esFestivo(diaDelAño);
+    }
+
+    /**
+     * {@code prefijo[d]} es la cantidad de días hábiles entre el 1 de enero y
+     * el día {@code d} del año, ambos incluidos; {@code prefijo[0] == 0}.
+     */
+    public int[] prefijoHabiles(int finesDeSemana) {
+        var prefijo = prefijosHabiles.get(finesDeSemana);
+        if (prefijo == null) {
+            prefijo = new int[diasDelAño + 1];
+            for (int d = 1; d <= diasDelAño; d++)
+                prefijo[d] = prefijo[d - 1] + (esHabil(d, finesDeSemana) ? 1 : 0);
+            prefijosHabiles.compareAndSet(finesDeSemana, null, prefijo);
+        }
+        return prefijo;
+    }
+
+    /** Sin prefijo ya calculado se cuenta sin guardarlo: así se acumulan años enteros sin asignar memoria. */
+    public int contarHabiles(int finesDeSemana) {
+        var prefijo = prefijosHabiles.get(finesDeSemana);
+        if (prefijo != null)
+            return prefijo[diasDelAño];
+        int total = 0;
+        for (int d = 1; d <= diasDelAño; d++)
+            if (esHabil(d, finesDeSemana))
+                total++;
+        return total;
+    }
+
+    public int getDiasDelAño() {
+        return diasDelAño;
+    }
+
+    public int contarFestivos() {
+        int total = 0;
+        for (long palabra : dias)
+            total += Long.bitCount(palabra);
+        return total;
+    }
+
+    public int getIdPais() {
+        return idPais;
+    }
+
+    public int getAño() {
+        return año;
+    }
+
+    public int cantidad() {
+        return diasEpoca.length;
+    }
+
+    public int getIdFestivo(int i) {
+        return ids[i];
+    }
+
+    public String getNombre(int i) {
+        return nombres[i];
+    }
+
+    public int getDiaEpoca(int i) {
+        return diasEpoca[i];
+    }
+
+    public List<FestivoDto> getFestivos() {
+        var lista = festivos;
+        if (lista == null) {
+            var nuevos = new ArrayList<FestivoDto>(diasEpoca.length);
+            for (int i = 0; i < diasEpoca.length; i++)
+                nuevos.add(new FestivoDto(nombres[i], LocalDate.ofEpochDay(diasEpoca[i])));
+            festivos = lista = Collections.unmodifiableList(nuevos);
+        }
+        return lista;
+    }
+
+}
@@ -0,0 +1,186 @@
+package festivos.api.aplicacion.calendario;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.IntFunction;
+
+/**
+ * Aritmética de días hábiles sobre las sumas prefijas de {@link CalendarioAnual}.
+ *
+ * Cada año se resuelve con una resta o una búsqueda binaria sobre su prefijo.
+ * Los años intermedios se resuelven con los hábiles acumulados por año de
+ * {@link CacheCalendarios#habilesAcumulados}: una resta para contar y una
+ * búsqueda binaria para agregar. Sin acumulados (o fuera de
+ * {@link CacheCalendarios#AÑO_MIN}..{@link CacheCalendarios#AÑO_MAX}) se
+ * recorren año por año.
+ * Los fines de semana se expresan como máscara: bit 0 lunes ... bit 6 domingo.
+ *
+ * Ninguna consulta recorre más de {@link #MAXIMO_AÑOS} años, el mismo tope
+ * que los rangos de listar: cada año es un calendario que pasa por la cache.
+ */
+public final class DiasHabiles {
+
+    public static final int MAXIMO_AÑOS = 500;
+
+    public static final int SABADO_DOMINGO = mascara(List.of(DayOfWeek.SATURDAY, DayOfWeek.SUNDAY));
+
+    private DiasHabiles() {
+    }
+
+    public static int mascara(Collection<DayOfWeek> finesDeSemana) {
+        int mascara = 0;
+        for (var dia : finesDeSemana)
+            mascara |= 1 << (dia.getValue() - 1);
+        if (mascara == 0x7F)
+            throw new IllegalArgumentException("Al menos un día de la semana debe ser hábil");
+        return mascara;
+    }
+
+    /** Días hábiles entre {@code desde} y {@code hasta}, ambos incluidos. */
+    public static int contar(IntFunction<CalendarioAnual> calendarios, LocalDate desde, LocalDate hasta,
+            int finesDeSemana) {
+        return contar(calendarios, null, desde, hasta, finesDeSemana);
+    }
+
+    /** Como {@link #contar(IntFunction, LocalDate, LocalDate, int)}, con los acumulados por año. */
+    public static int contar(IntFunction<CalendarioAnual> calendarios, int[] acumulados, LocalDate desde,
+            LocalDate hasta, int finesDeSemana) {
+        if (hasta.isBefore(desde))
+            throw new IllegalArgumentException("La fecha final es anterior a la inicial");
+        int añoDesde = desde.getYear();
+        int añoHasta = hasta.getYear();
+        if (añoHasta - añoDesde >= MAXIMO_AÑOS)
+            throw new IllegalArgumentException("El rango no puede superar " + MAXIMO_AÑOS + " años");
+        var prefijoDesde = calendarios.apply(añoDesde).prefijoHabiles(finesDeSemana);
+        if (añoDesde == añoHasta)
+            return prefijoDesde[hasta.getDayOfYear()] - prefijoDesde[desde.getDayOfYear() - 1];
+
+        int total = prefijoDesde[prefijoDesde.length - 1] - prefijoDesde[desde.getDayOfYear() - 1];
+        if (acumulados != null && añoDesde + 1 >= CacheCalendarios.AÑO_MIN && añoHasta - 1 <= CacheCalendarios.AÑO_MAX) {
+            total += acumulados[añoHasta - CacheCalendarios.AÑO_MIN] - acumulados[añoDesde + 1 - CacheCalendarios.AÑO_MIN];
+        } else {
+            for (int año = añoDesde + 1; año < añoHasta; año++)
+                total += calendarios.apply(año).contarHabiles(finesDeSemana);
+        }
+        total += calendarios.apply(añoHasta).prefijoHabiles(finesDeSemana)[hasta.getDayOfYear()];
+        return total;
+    }
+
+    /**
+     * Fecha que está {@code dias} días hábiles después de {@code fecha} (antes si
+     * es negativo). La fecha de partida no cuenta; con cero se devuelve tal cual.
+     */
+    public static LocalDate agregar(IntFunction<CalendarioAnual> calendarios, LocalDate fecha, int dias,
+            int finesDeSemana) {
+        return agregar(calendarios, null, fecha, dias, finesDeSemana);
+    }
+
+    /** Como {@link #agregar(IntFunction, LocalDate, int, int)}, con los acumulados por año. */
+    public static LocalDate agregar(IntFunction<CalendarioAnual> calendarios, int[] acumulados, LocalDate fecha,
+            int dias, int finesDeSemana) {
+        if (dias == 0)
+            return fecha;
+        int año = fecha.getYear();
+        // Hay como mucho 366 hábiles por año; con festivos en todos los hábiles, ninguno
+        int ultimoAño = dias > 0 ? año + MAXIMO_AÑOS - 1 : año - MAXIMO_AÑOS + 1;
+        if (Math.abs((long) dias) > 366L * MAXIMO_AÑOS)
+            throw excedeRango();
+        var calendario = calendarios.apply(año);
+        var prefijo = calendario.prefijoHabiles(finesDeSemana);
+
+        // objetivo: posición (desde 1) del día hábil buscado dentro del año actual
+        long objetivo;
+        if (dias > 0) {
+            objetivo = (long) prefijo[fecha.getDayOfYear()] + dias;
+            // Salta directo al año donde se completa: el primero cuyo acumulado alcanza lo que falta
+            int base = año + 1 - CacheCalendarios.AÑO_MIN;
+            if (objetivo > prefijo[prefijo.length - 1] && acumulados != null && base >= 0 && base < acumulados.length - 1) {
+                long buscado = acumulados[base] + objetivo - prefijo[prefijo.length - 1];
+                if (buscado <= acumulados[acumulados.length - 1]) {
+                    int k = primerIndiceConAcumulado(acumulados, base + 1, buscado);
+                    if (CacheCalendarios.AÑO_MIN + k - 1 > ultimoAño)
+                        throw excedeRango();
+                    año = CacheCalendarios.AÑO_MIN + k - 1;
+                    objetivo = buscado - acumulados[k - 1];
+                    prefijo = calendarios.apply(año).prefijoHabiles(finesDeSemana);
+                }
+            }
+            while (objetivo > prefijo[prefijo.length - 1]) {
+                if (año == ultimoAño)
+                    throw excedeRango();
+                objetivo -= prefijo[prefijo.length - 1];
+                prefijo = calendarios.apply(++año).prefijoHabiles(finesDeSemana);
+            }
+        } else {
+            objetivo = (long) prefijo[fecha.getDayOfYear() - 1] + dias + 1;
+            // Salta directo al último año anterior cuyo acumulado deja lo que falta
+            int base = año - CacheCalendarios.AÑO_MIN;
+            if (objetivo <= 0 && acumulados != null && base >= 1 && base < acumulados.length) {
+                long tope = acumulados[base] + objetivo - 1;
+                if (tope >= 0) {
+                    int j = ultimoIndiceConAcumulado(acumulados, base - 1, tope);
+                    if (CacheCalendarios.AÑO_MIN + j < ultimoAño)
+                        throw excedeRango();
+                    año = CacheCalendarios.AÑO_MIN + j;
+                    objetivo = tope - acumulados[j] + 1;
+                    prefijo = calendarios.apply(año).prefijoHabiles(finesDeSemana);
+                }
+            }
+            while (objetivo <= 0) {
+                if (año == ultimoAño)
+                    throw excedeRango();
+                prefijo = calendarios.apply(--año).prefijoHabiles(finesDeSemana);
+                objetivo += prefijo[prefijo.length - 1];
+            }
+        }
+        return LocalDate.ofYearDay(año, primerDiaConPrefijo(prefijo, (int) objetivo));
+    }
+
+    private static IllegalArgumentException excedeRango() {
+        return new IllegalArgumentException("El resultado está a más de " + MAXIMO_AÑOS + " años de la fecha");
+    }
+
+    /** Menor {@code k >= desde} con {@code acumulados[k] >= buscado}; existe porque el último lo cumple. */
+    private static int primerIndiceConAcumulado(int[] acumulados, int desde, long buscado) {
+        int bajo = desde;
+        int alto = acumulados.length - 1;
+        while (bajo < alto) {
+            int medio = (bajo + alto) >>> 1;
+            if (acumulados[medio] >= buscado)
+                alto = medio;
+            else
+                bajo = medio + 1;
+        }
+        return bajo;
+    }
+
+    /** Mayor {@code j <= hasta} con {@code acumulados[j] <= tope}; existe porque {@code acumulados[0] == 0}. */
+    private static int ultimoIndiceConAcumulado(int[] acumulados, int hasta, long tope) {
+        int bajo = 0;
+        int alto = hasta;
+        while (bajo < alto) {
+            int medio = (bajo + alto + 1) >>> 1;
+            if (acumulados[medio] <= tope)
+                bajo = medio;
+            else
+                alto = medio - 1;
+        }
+        return bajo;
+    }
+
+    private static int primerDiaConPrefijo(int[] prefijo, int objetivo) {
+        int bajo = 1;
+        int alto = prefijo.length - 1;
+        while (bajo < alto) {
+            int medio = (bajo + alto) >>> 1;
+            if (prefijo[medio] >= objetivo)
+                alto = medio;
+            else
+                bajo = medio + 1;
+        }
+        return bajo;
+    }
+
+}
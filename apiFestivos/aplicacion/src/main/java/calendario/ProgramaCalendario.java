@@ -0,0 +1,139 @@
+package festivos.api.aplicacion.calendario;
+
+import java.util.Arrays;
+import java.util.List;
+
+import festivos.api.aplicacion.servicios.ServicioFechas;
+import festivos.api.dominio.DTOs.ReglaFestivoDto;
+
+/**
+ * Reglas de un país compiladas a arreglos de primitivos. Se compila una vez
+ * por país y se evalúa para cualquier año con un solo recorrido.
+ *
+ * Las reglas cuyo tipo no está en el registro se omiten al compilar.
+ */
+public final class ProgramaCalendario {
+
+    private static final int PASCUA_MAS_TEMPRANA = 80;
+
+    private final int idPais;
+    private final int[] ids;
+    private final String[] nombres;
+    private final boolean[] desdePascua;
+    private final int[] meses;
+    private final int[] dias;
+    private final int[] diasPascua;
+    // siete desplazamientos por regla, lunes a domingo
+    private final int[] traslados;
+    private final boolean usaPascua;
+    private final boolean caeEnAñoAnterior;
+
+    private ProgramaCalendario(int idPais, int[] ids, String[] nombres, boolean[] desdePascua, int[] meses, int[] dias,
+            int[] diasPascua, int[] traslados) {
+        this.idPais = idPais;
+        this.ids = ids;
+        this.nombres = nombres;
+        this.desdePascua = desdePascua;
+        this.meses = meses;
+        this.dias = dias;
+        this.diasPascua = diasPascua;
+        this.traslados = traslados;
+        boolean pascua = false;
+        for (boolean p : desdePascua)
+            pascua |= p;
+        this.usaPascua = pascua;
+        boolean anterior = false;
+        for (int i = 0; i < nombres.length; i++) {
+            int minimo = 0;
+            for (int d = 0; d < 7; d++)
+                minimo = Math.min(minimo, traslados[i * 7 + d]);
+            // Días desde el 1 de enero en el caso más temprano: Pascua el 22 de marzo
+            // de un año común; una fecha fija fuera de enero, como mínimo el 1 de febrero
+            int desdeEnero = desdePascua[i] ? PASCUA_MAS_TEMPRANA + diasPascua[i]
+                    : meses[i] == 1 ? dias[i] - 1 : 31;
+            anterior |= desdeEnero + minimo < 0;
+        }
+        this.caeEnAñoAnterior = anterior;
+    }
+
+    public static ProgramaCalendario compilar(int idPais, List<ReglaFestivoDto> reglas, RegistroTiposRegla registro) {
+        int n = reglas.size();
+        int[] ids = new int[n];
+        String[] nombres = new String[n];
+        boolean[] desdePascua = new boolean[n];
+        int[] meses = new int[n];
+        int[] dias = new int[n];
+        int[] diasPascua = new int[n];
+        int[] traslados = new int[n * 7];
+        int cantidad = 0;
+        for (var regla : reglas) {
+            var tipo = registro.obtener(regla.getIdTipo());
+            if (tipo == null)
+                continue;
+            ids[cantidad] = regla.getId();
+            nombres[cantidad] = regla.getNombre();
+            desdePascua[cantidad] = tipo.getBase() == TipoRegla.Base.PASCUA;
+            meses[cantidad] = regla.getMes();
+            dias[cantidad] = regla.getDia();
+            diasPascua[cantidad] = regla.getDiasPascua();
+            for (int d = 0; d < 7; d++)
+                traslados[cantidad * 7 + d] = tipo.desplazamiento(d + 1);
+            cantidad++;
+        }
+        return new ProgramaCalendario(idPais, Arrays.copyOf(ids, cantidad), Arrays.copyOf(nombres, cantidad), Arrays.copyOf(desdePascua, cantidad),
+                Arrays.copyOf(meses, cantidad), Arrays.copyOf(dias, cantidad), Arrays.copyOf(diasPascua, cantidad),
+                Arrays.copyOf(traslados, cantidad * 7));
+    }
+
+    public CalendarioAnual evaluar(int año) {
+        int pascua = usaPascua ? ServicioFechas.getPascuaDiaEpoca(año) : 0;
+        int[] fechas = new int[nombres.length];
+        int[] reglas = null;
+        int cantidad = 0;
+        for (int i = 0; i < nombres.length; i++) {
+            // El 29 de febrero no existe en los años no bisiestos: ese año no hay festivo
+            if (!desdePascua[i] && dias[i] > ServicioFechas.diasDelMes(año, meses[i])) {
+                if (reglas == null) {
+                    reglas = new int[nombres.length];
+                    for (int j = 0; j < i; j++)
+                        reglas[j] = j;
+                }
+                continue;
+            }
+            int base = desdePascua[i]
+                    ? pascua + diasPascua[i]
+                    : ServicioFechas.diaEpoca(año, meses[i], dias[i]);
+            if (reglas != null)
+                reglas[cantidad] = i;
+            fechas[cantidad++] = base + traslados[i * 7 + ServicioFechas.diaSemana(base) - 1];
+        }
+        if (reglas == null)
+            // ids y nombres no cambian entre años y CalendarioAnual no los modifica
+            return new CalendarioAnual(idPais, año, ids, nombres, fechas);
+        int[] idsPresentes = new int[cantidad];
+        String[] presentes = new String[cantidad];
+        for (int j = 0; j < cantidad; j++) {
+            idsPresentes[j] = ids[reglas[j]];
+            presentes[j] = nombres[reglas[j]];
+        }
+        return new CalendarioAnual(idPais, año, idsPresentes, presentes, Arrays.copyOf(fechas, cantidad));
+    }
+
+    public int getIdPais() {
+        return idPais;
+    }
+
+    public int cantidad() {
+        return nombres.length;
+    }
+
+    /**
+     * Si algún festivo puede caer antes del 1 de enero del año de su regla:
+     * un traslado hacia atrás desde principios de enero o una regla de Pascua
+     * con muchos días negativos.
+     */
+    public boolean caeEnAñoAnterior() {
+        return caeEnAñoAnterior;
+    }
+
+}
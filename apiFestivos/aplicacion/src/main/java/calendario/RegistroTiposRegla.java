@@ -0,0 +1,43 @@
+package festivos.api.aplicacion.calendario;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Relación entre el id de cada {@code Tipo} y su {@link TipoRegla}.
+ *
+ * Trae los tipos sembrados en {@code bd/DML - Festivos.sql}; un tipo nuevo se
+ * agrega declarando un bean {@link TipoRegla} o llamando a {@link #registrar}.
+ */
+@Component
+public class RegistroTiposRegla {
+
+    private final Map<Integer, TipoRegla> tipos = new ConcurrentHashMap<>();
+
+    public RegistroTiposRegla() {
+        registrar(TipoRegla.fijo(1));
+        registrar(TipoRegla.puenteLunes(2)); // Ley 51 de 1983
+        registrar(TipoRegla.pascua(3));
+        registrar(TipoRegla.pascuaPuenteLunes(4));
+        registrar(TipoRegla.puenteLunesViernes(5));
+    }
+
+    @Autowired
+    public RegistroTiposRegla(ObjectProvider<TipoRegla> adicionales) {
+        this();
+        adicionales.orderedStream().forEach(this::registrar);
+    }
+
+    public void registrar(TipoRegla tipo) {
+        tipos.put(tipo.getIdTipo(), tipo);
+    }
+
+    public TipoRegla obtener(int idTipo) {
+        return tipos.get(idTipo);
+    }
+
+}
@@ -0,0 +1,68 @@
+package festivos.api.aplicacion.calendario;
+
+/**
+ * Estrategia de cálculo de un {@code Tipo} de festivo.
+ *
+ * Toda regla parte de una fecha base (día y mes fijos, o días desde Pascua) y
+ * luego se traslada según el día de la semana en que cae. El traslado es una
+ * tabla de siete desplazamientos (lunes a domingo), así evaluar una regla no
+ * necesita ramas por tipo.
+ */
+public final class TipoRegla {
+
+    public enum Base {
+        FECHA, PASCUA
+    }
+
+    private static final int[] SIN_TRASLADO = { 0, 0, 0, 0, 0, 0, 0 };
+    private static final int[] SIGUIENTE_LUNES = { 0, 6, 5, 4, 3, 2, 1 };
+    // Ecuador: martes al lunes anterior; miércoles y jueves al viernes;
+    // sábado al viernes anterior; domingo al lunes siguiente
+    private static final int[] PUENTE_LUNES_VIERNES = { 0, -1, 2, 1, 0, -1, 1 };
+
+    private final int idTipo;
+    private final Base base;
+    private final int[] desplazamientos;
+
+    public TipoRegla(int idTipo, Base base, int[] desplazamientos) {
+        if (desplazamientos.length != 7)
+            throw new IllegalArgumentException("El traslado necesita un desplazamiento por día de la semana");
+        this.idTipo = idTipo;
+        this.base = base;
+        this.desplazamientos = desplazamientos.clone();
+    }
+
+    public static TipoRegla fijo(int idTipo) {
+        return new TipoRegla(idTipo, Base.FECHA, SIN_TRASLADO);
+    }
+
+    public static TipoRegla puenteLunes(int idTipo) {
+        return new TipoRegla(idTipo, Base.FECHA, SIGUIENTE_LUNES);
+    }
+
+    public static TipoRegla pascua(int idTipo) {
+        return new TipoRegla(idTipo, Base.PASCUA, SIN_TRASLADO);
+    }
+
+    public static TipoRegla pascuaPuenteLunes(int idTipo) {
+        return new TipoRegla(idTipo, Base.PASCUA, SIGUIENTE_LUNES);
+    }
+
+    public static TipoRegla puenteLunesViernes(int idTipo) {
+        return new TipoRegla(idTipo, Base.FECHA, PUENTE_LUNES_VIERNES);
+    }
+
+    public int getIdTipo() {
+        return idTipo;
+    }
+
+    public Base getBase() {
+        return base;
+    }
+
+    /** Desplazamiento en días para una fecha base que cae en {@code diaSemana} (1 lunes ... 7 domingo). */
+    public int desplazamiento(int diaSemana) {
+        return desplazamientos[diaSemana - 1];
+    }
+
+}
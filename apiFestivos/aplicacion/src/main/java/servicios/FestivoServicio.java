@@ -1,105 +1,429 @@
 package festivos.api.aplicacion.servicios;
 
+import java.time.DateTimeException;
 import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.temporal.TemporalAdjusters;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+import java.util.function.ObjIntConsumer;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
-import org.springframework.data.domain.Sort;
+import org.springframework.transaction.annotation.Transactional;
 
+import io.micrometer.core.annotation.Timed;
+
+import festivos.api.aplicacion.calendario.*;
 import festivos.api.aplicacion.servicios.ServicioFechas;
+import festivos.api.aplicacion.busqueda.IndiceNombres;
 import festivos.api.core.servicios.*;
 import festivos.api.dominio.entidades.*;
 import festivos.api.dominio.DTOs.*;
+import festivos.api.infraestructura.invalidacion.*;
 import festivos.api.infraestructura.repositorios.*;
 
 @Service
+@Timed(value = "festivos.servicio", histogram = true)
 public class FestivoServicio implements IFestivoServicio {
 
+    private static final int MAXIMO_AÑOS_RANGO = DiasHabiles.MAXIMO_AÑOS;
+    private static final int UMBRAL_RANGO_PARALELO = 8;
+    private static final int AÑOS_POR_BLOQUE = 32;
+
     private IFestivoRepositorio repositorio;
+    private CacheCalendarios cache;
+    private RegistroTiposRegla tiposRegla;
+    private CacheCalendarios.Calculador calculador;
+    private IndiceNombres indice;
+    private ICanalInvalidaciones canal;
+    private MaterializadorFechas fechas;
+
+    // Sin otras instancias ni tabla festivo_fecha: pruebas y benchmarks
+    public FestivoServicio(IFestivoRepositorio repositorio, CacheCalendarios cache, RegistroTiposRegla tiposRegla) {
+        this(repositorio, cache, tiposRegla, ICanalInvalidaciones.local(), null);
+    }
 
-    public FestivoServicio(IFestivoRepositorio repositorio) {
+    @Autowired
+    public FestivoServicio(IFestivoRepositorio repositorio, CacheCalendarios cache, RegistroTiposRegla tiposRegla,
+            ICanalInvalidaciones canal, MaterializadorFechas fechas) {
         this.repositorio = repositorio;
+        this.indice = new IndiceNombres(repositorio::listarNombres);
+        this.cache = cache;
+        this.tiposRegla = tiposRegla;
+        this.calculador = this::calcularCalendario;
+        this.canal = canal;
+        this.fechas = fechas;
+        canal.suscribir(this::aplicar);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Festivo> listar() {
-        return repositorio.findAll(Sort.by(Sort.Direction.ASC, "nombre"));
+        return repositorio.listarTodos();
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public void recorrer(Integer idPais, Consumer<Festivo> visitante) {
+        try (Stream<Festivo> festivos = idPais == null ? repositorio.recorrerTodos() : repositorio.recorrerPorPais(idPais)) {
+            festivos.forEach(festivo -> {
+                visitante.accept(festivo);
+                repositorio.desacoplar(festivo);
+            });
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public Festivo obtener(int id) {
-        return repositorio.findById(id).isEmpty() ? null : repositorio.findById(id).get();
+        return repositorio.obtener(id).orElse(null);
     }
 
     @Override
     public List<Festivo> buscar(String nombre) {
-        return repositorio.buscar(nombre);
+        var ids = indice.buscar(nombre);
+        if (ids == null)
+            ids = IndiceNombres.filtrar(repositorio.listarNombres(), nombre);
+        return IndiceNombres.leerPorLotes(ids, repositorio::listarPorIds);
+    }
+
+    @Override
+    public List<SugerenciaDto> autocompletar(String prefijo, int limite) {
+        int acotado = Math.max(1, Math.min(limite, IndiceNombres.MAXIMO_SUGERENCIAS));
+        var sugerencias = indice.autocompletar(prefijo, acotado);
+        if (sugerencias != null)
+            return sugerencias;
+        return repositorio.buscar(prefijo).stream()
+                .limit(acotado)
+                .map(festivo -> new SugerenciaDto(festivo.getId(), festivo.getNombre()))
+                .toList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PaginaDto<Festivo> listar(PaginacionDto paginacion) {
+        var pagina = Paginas.solicitud(paginacion);
+        var slice = paginacion.esPorLlave()
+                ? repositorio.listarDespuesDe(paginacion.getDespuesNombre(), paginacion.getDespuesId(), pagina)
+                : repositorio.listar(pagina);
+        return Paginas.respuesta(slice, Festivo::getNombre, Festivo::getId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PaginaDto<Festivo> buscar(String nombre, PaginacionDto paginacion) {
+        var pagina = Paginas.solicitud(paginacion);
+        var slice = paginacion.esPorLlave()
+                ? repositorio.buscarDespuesDe(nombre, paginacion.getDespuesNombre(), paginacion.getDespuesId(), pagina)
+                : repositorio.buscar(nombre, pagina);
+        return Paginas.respuesta(slice, Festivo::getNombre, Festivo::getId);
     }
 
     @Override
     public Festivo agregar(Festivo festivo) {
         festivo.setId(0);
-        return repositorio.save(festivo);
+        var agregado = repositorio.save(festivo);
+        invalidarPais(agregado);
+        indice.actualizar(agregado.getId(), agregado.getNombre());
+        publicar(agregado);
+        if (agregado.getPais() != null)
+            refrescarFechas(agregado.getPais().getId());
+        return agregado;
     }
 
     @Override
     public Festivo modificar(Festivo festivo) {
-        if (repositorio.findById(festivo.getId()).isEmpty())
+        var cambios = new CambiosFestivoDto(festivo.getVersion(), festivo.getNombre(), festivo.getDia(),
+                festivo.getMes(), festivo.getDiasPascua(),
+                festivo.getPais() != null ? festivo.getPais().getId() : null,
+                festivo.getTipo() != null ? festivo.getTipo().getId() : null);
+        var nuevaVersion = modificar(festivo.getId(), cambios);
+        if (nuevaVersion == null)
             return null;
-        return repositorio.save(festivo);
+        festivo.setVersion(nuevaVersion);
+        return festivo;
+    }
+
+    @Override
+    public Integer modificar(int id, CambiosFestivoDto cambios) {
+        if (cambios.getVersion() == null)
+            throw new IllegalArgumentException("Falta la versión");
+        // Caso común: un solo UPDATE, que además confirma el país cuyo calendario se invalida.
+        // Sin país en el cambio se lee el actual, para invalidar solo ese calendario
+        Integer idPais = cambios.getIdPais();
+        if (idPais == null) {
+            idPais = repositorio.obtenerIdPais(id).orElse(null);
+            if (idPais == null)
+                return null;
+        }
+        if (repositorio.modificar(id, cambios, idPais) == 0) {
+            // No existe, la versión cambió o el festivo está en otro país: solo aquí se lee la fila
+            var actual = repositorio.findById(id);
+            if (actual.isEmpty())
+                return null;
+            int idPaisAnterior = actual.get().getPais().getId();
+            if (actual.get().getVersion() != cambios.getVersion()
+                    || repositorio.modificar(id, cambios, idPaisAnterior) == 0)
+                throw new ObjectOptimisticLockingFailureException(Festivo.class, id);
+            if (cambios.getIdPais() == null) {
+                // Lo movieron entre la lectura y el UPDATE: sigue donde estaba
+                idPais = idPaisAnterior;
+            } else {
+                cache.invalidar(idPaisAnterior);
+                canal.publicar(Invalidacion.festivo(id, idPaisAnterior));
+                refrescarFechas(idPaisAnterior);
+            }
+        }
+        cache.invalidar(idPais);
+        if (cambios.getNombre() != null)
+            indice.actualizar(id, cambios.getNombre());
+        canal.publicar(Invalidacion.festivo(id, idPais));
+        refrescarFechas(idPais);
+        return cambios.getVersion() + 1;
     }
 
     @Override
     public boolean eliminar(int id) {
         try {
+            var existente = repositorio.findById(id);
             repositorio.deleteById(id);
+            existente.ifPresent(this::invalidarPais);
+            indice.quitar(id);
+            existente.ifPresent(this::publicar);
+            existente.ifPresent(festivo -> refrescarFechas(festivo.getPais().getId()));
             return true;
         } catch (Exception ex) {
             return false;
         }
     }
 
+    @Override
+    public ResultadoImportacionDto importar(Iterator<ImportacionFestivoDto> filas) {
+        var resultado = new ResultadoImportacionDto();
+        repositorio.importar(new FilasImportacion(filas, tiposRegla, resultado), resultado);
+        // Puede tocar muchos países y nombres: se descarta todo y se recarga a demanda
+        cache.invalidarTodo();
+        indice.reiniciar();
+        canal.publicar(Invalidacion.festivo(null, null));
+        if (fechas != null)
+            fechas.refrescarTodo();
+        return resultado;
+    }
+
+    private void invalidarPais(Festivo festivo) {
+        if (festivo != null && festivo.getPais() != null)
+            cache.invalidar(festivo.getPais().getId());
+    }
+
+    private void publicar(Festivo festivo) {
+        canal.publicar(Invalidacion.festivo(festivo.getId(), festivo.getPais() != null ? festivo.getPais().getId() : null));
+    }
+
+    private void refrescarFechas(int idPais) {
+        if (fechas != null)
+            fechas.refrescar(idPais);
+    }
+
+    /**
+     * Escritura hecha por otra instancia: se descarta solo el calendario de su
+     * país y el nombre se relee de la base, salvo que el aviso cubra varios.
+     */
+    private void aplicar(Invalidacion invalidacion) {
+        if (invalidacion.getCatalogo() != Invalidacion.Catalogo.FESTIVOS)
+            return;
+        if (invalidacion.getIdPais() == null)
+            cache.invalidarTodo();
+        else
+            cache.invalidar(invalidacion.getIdPais());
+        if (invalidacion.getId() == null)
+            indice.reiniciar();
+        else if (indice.estaCargado())
+            indice.actualizar(invalidacion.getId(),
+                    repositorio.obtener(invalidacion.getId()).map(Festivo::getNombre).orElse(null));
+    }
+
     @Override
     public boolean verificar(int idPais, LocalDate fecha) {
-        var fechasFestivos = getFechasFestivos(idPais, fecha.getYear());
-        return fechasFestivos.stream().anyMatch(f -> f.getFecha().equals(fecha));
+        validarAño(fecha.getYear());
+        return getCalendario(idPais, fecha.getYear()).esFestivo(fecha.getDayOfYear());
     }
 
-    private List<FestivoDto> getFechasFestivos(int idPais, int año) {
-        List<FestivoDto> fechasFestivos = new ArrayList();
-        var festivos = repositorio.listarPorPais(idPais);
-        for (var festivo : festivos) {
-            LocalDate fechaFestivo;
-            switch (festivo.getTipo().getId()) {
-                case 1: // Fijo
-                    fechaFestivo = LocalDate.of(año, festivo.getMes(), festivo.getDia());
-                    fechasFestivos.add(new FestivoDto(festivo.getNombre(), fechaFestivo));
-                    break;
-
-                case 2: // Ley Puente Festivo (según Ley 51 de 1983)
-                    fechaFestivo = ServicioFechas.siguienteLunes(LocalDate.of(año, festivo.getMes(), festivo.getDia()));
-                    fechasFestivos.add(new FestivoDto(festivo.getNombre(), fechaFestivo));
-                    break;
-                case 3:
-                    fechaFestivo = ServicioFechas.agregarDias(ServicioFechas.getPascua(año), festivo.getDiasPascua());
-                    fechasFestivos.add(new FestivoDto(festivo.getNombre(), fechaFestivo));
-                    break;
-                case 4:
-                    fechaFestivo = ServicioFechas.siguienteLunes(
-                            ServicioFechas.agregarDias(ServicioFechas.getPascua(año), festivo.getDiasPascua()));
-                    fechasFestivos.add(new FestivoDto(festivo.getNombre(), fechaFestivo));
-                    break;
+    @Override
+    public List<VerificacionDto> verificar(List<VerificacionDto> consultas) {
+        // Agrupa por (país, año): cada calendario se resuelve una sola vez por lote
+        Map<Long, CalendarioAnual> calendarios = new HashMap<>();
+        for (var consulta : consultas)
+            validarAño(consulta.getFecha().getYear());
+        List<VerificacionDto> resultados = new ArrayList<>(consultas.size());
+        for (var consulta : consultas) {
+            int idPais = consulta.getIdPais();
+            var fecha = consulta.getFecha();
+            long llave = ((long) idPais << 32) | (fecha.getYear() & 0xffffffffL);
+            var calendario = calendarios.get(llave);
+            if (calendario == null) {
+                calendario = getCalendario(idPais, fecha.getYear());
+                calendarios.put(llave, calendario);
             }
+            resultados.add(new VerificacionDto(idPais, fecha, calendario.esFestivo(fecha.getDayOfYear())));
         }
-        return fechasFestivos;
+        return resultados;
+    }
+
+    private CalendarioAnual getCalendario(int idPais, int año) {
+        return cache.obtener(idPais, año, calculador);
+    }
+
+    private List<FestivoDto> getFechasFestivos(int idPais, int año) {
+        return getCalendario(idPais, año).getFestivos();
+    }
+
+    // Para los recorridos de varios años: no guardan en cache los años lejanos
+    private IntFunction<CalendarioAnual> getCalendarios(int idPais) {
+        return año -> cache.consultar(idPais, año, calculador);
+    }
+
+    private CalendarioAnual calcularCalendario(int idPais, int año) {
+        return cache.programa(idPais, this::compilarReglas).evaluar(año);
+    }
+
+    private ProgramaCalendario compilarReglas(int idPais) {
+        return ProgramaCalendario.compilar(idPais, repositorio.listarReglasPorPais(idPais), tiposRegla);
     }
 
     @Override
     public List<FestivoDto> listar(int idPais, int año) {
+        validarAño(año);
         return getFechasFestivos(idPais, año);
     }
 
+    @Override
+    public List<FestivoDto> listar(int idPais, LocalDate desde, LocalDate hasta) {
+        var festivos = new ArrayList<FestivoDto>();
+        recorrer(idPais, desde, hasta, (nombre, diaEpoca) -> festivos.add(new FestivoDto(nombre, LocalDate.ofEpochDay(diaEpoca))));
+        return festivos;
+    }
+
+    @Override
+    public void recorrer(int idPais, LocalDate desde, LocalDate hasta, ObjIntConsumer<String> visitante) {
+        validarRango(desde, hasta);
+        int inicio = (int) desde.toEpochDay();
+        int fin = (int) hasta.toEpochDay();
+        // Un festivo puede salir de su año: el anterior puede caer en enero y, si
+        // alguna regla lo permite, el siguiente en diciembre
+        int ultimo = hasta.getYear() + (cache.programa(idPais, this::compilarReglas).caeEnAñoAnterior() ? 1 : 0);
+        int primero = desde.getYear() - 1;
+        // Rangos largos: bloques de años calculados en paralelo (fork-join); los cortos, un año a la vez
+        int añosBloque = ultimo - primero + 1 >= UMBRAL_RANGO_PARALELO ? AÑOS_POR_BLOQUE : 1;
+        var pendientes = new PendientesOrdenados();
+        for (int bloque = primero; bloque <= ultimo; bloque += añosBloque) {
+            var calendarios = calcularBloque(idPais, bloque, Math.min(ultimo, bloque + añosBloque - 1));
+            // Los años del bloque se mezclan en orden: tras el año a ya no llega
+            // nada anterior al 1 de enero de a, así que eso se entrega
+            for (var calendario : calendarios) {
+                for (int i = 0; i < calendario.cantidad(); i++) {
+                    int diaEpoca = calendario.getDiaEpoca(i);
+                    if (diaEpoca >= inicio && diaEpoca <= fin)
+                        pendientes.agregar(calendario.getNombre(i), diaEpoca);
+                }
+                pendientes.entregarAntesDe(ServicioFechas.diaEpoca(calendario.getAño(), 1, 1), visitante);
+            }
+        }
+        pendientes.entregarAntesDe(Integer.MAX_VALUE, visitante);
+    }
+
+    private CalendarioAnual[] calcularBloque(int idPais, int desde, int hasta) {
+        if (desde == hasta)
+            return new CalendarioAnual[] { cache.consultar(idPais, desde, calculador) };
+        return IntStream.rangeClosed(desde, hasta).parallel()
+                .mapToObj(año -> cache.consultar(idPais, año, calculador))
+                .toArray(CalendarioAnual[]::new);
+    }
+
+    /** Festivos de a lo sumo dos años, ordenados por fecha al insertar. */
+    private static final class PendientesOrdenados {
+        private String[] nombres = new String[32];
+        private int[] dias = new int[32];
+        private int cantidad;
+
+        void agregar(String nombre, int diaEpoca) {
+            if (cantidad == dias.length) {
+                nombres = Arrays.copyOf(nombres, cantidad * 2);
+                dias = Arrays.copyOf(dias, cantidad * 2);
+            }
+            // Las reglas suelen venir casi en orden: casi siempre no se mueve nada
+            int i = cantidad++;
+            while (i > 0 && dias[i - 1] > diaEpoca) {
+                nombres[i] = nombres[i - 1];
+                dias[i] = dias[i - 1];
+                i--;
+            }
+            nombres[i] = nombre;
+            dias[i] = diaEpoca;
+        }
+
+        void entregarAntesDe(int limite, ObjIntConsumer<String> visitante) {
+            int n = 0;
+            while (n < cantidad && dias[n] < limite) {
+                visitante.accept(nombres[n], dias[n]);
+                n++;
+            }
+            System.arraycopy(nombres, n, nombres, 0, cantidad - n);
+            System.arraycopy(dias, n, dias, 0, cantidad - n);
+            Arrays.fill(nombres, cantidad - n, cantidad, null);
+            cantidad -= n;
+        }
+    }
+
+    private static void validarAño(int año) {
+        if (año < AÑO_MIN || año > AÑO_MAX)
+            throw new DateTimeException("El año debe estar entre " + AÑO_MIN + " y " + AÑO_MAX + ": " + año);
+    }
+
+    private static void validarRango(LocalDate desde, LocalDate hasta) {
+        validarAño(desde.getYear());
+        validarAño(hasta.getYear());
+        if (hasta.isBefore(desde))
+            throw new IllegalArgumentException("La fecha final es anterior a la inicial");
+        if (hasta.getYear() - desde.getYear() >= MAXIMO_AÑOS_RANGO)
+            throw new IllegalArgumentException("El rango no puede superar " + MAXIMO_AÑOS_RANGO + " años");
+    }
+
+    @Override
+    public LocalDate agregarDiasHabiles(int idPais, LocalDate fecha, int dias, Collection<DayOfWeek> finesDeSemana) {
+        validarAño(fecha.getYear());
+        int mascara = DiasHabiles.mascara(finesDeSemana);
+        return DiasHabiles.agregar(getCalendarios(idPais), cache.habilesAcumulados(idPais, mascara, this::compilarReglas),
+                fecha, dias, mascara);
+    }
+
+    @Override
+    public int contarDiasHabiles(int idPais, LocalDate desde, LocalDate hasta, Collection<DayOfWeek> finesDeSemana) {
+        validarAño(desde.getYear());
+        validarAño(hasta.getYear());
+        int mascara = DiasHabiles.mascara(finesDeSemana);
+        return DiasHabiles.contar(getCalendarios(idPais), cache.habilesAcumulados(idPais, mascara, this::compilarReglas),
+                desde, hasta, mascara);
+    }
+
+    @Override
+    public long getVersion() {
+        return canal.getVersion(Invalidacion.Catalogo.FESTIVOS);
+    }
+
+    @Override
+    public long getUltimaModificacion() {
+        return canal.getUltimaModificacion(Invalidacion.Catalogo.FESTIVOS);
+    }
+
 }
@@ -0,0 +1,94 @@
+package festivos.api.aplicacion.servicios;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import festivos.api.aplicacion.calendario.RegistroTiposRegla;
+import festivos.api.aplicacion.calendario.TipoRegla;
+import festivos.api.dominio.DTOs.ImportacionFestivoDto;
+import festivos.api.dominio.DTOs.ResultadoImportacionDto;
+
+/**
+ * Recorre las filas de una importación dejando pasar solo las válidas; las
+ * demás quedan rechazadas en el resultado con su error. Las filas válidas
+ * salen normalizadas: nombre sin espacios de borde y los campos que su tipo
+ * no usa en 0. Se consume a medida que se escribe, sin guardar el archivo.
+ */
+class FilasImportacion implements Iterator<ImportacionFestivoDto> {
+
+    private static final int LARGO_NOMBRE = 100;
+    // Ningún festivo queda a más de un año de Pascua
+    private static final int MAXIMO_DIAS_PASCUA = 366;
+
+    private final Iterator<ImportacionFestivoDto> filas;
+    private final RegistroTiposRegla tiposRegla;
+    private final ResultadoImportacionDto resultado;
+    private ImportacionFestivoDto siguiente;
+
+    FilasImportacion(Iterator<ImportacionFestivoDto> filas, RegistroTiposRegla tiposRegla,
+            ResultadoImportacionDto resultado) {
+        this.filas = filas;
+        this.tiposRegla = tiposRegla;
+        this.resultado = resultado;
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (siguiente == null && filas.hasNext()) {
+            var fila = filas.next();
+            var error = validar(fila);
+            if (error == null)
+                siguiente = fila;
+            else
+                resultado.rechazar(fila.getFila(), error);
+        }
+        return siguiente != null;
+    }
+
+    @Override
+    public ImportacionFestivoDto next() {
+        if (!hasNext())
+            throw new NoSuchElementException();
+        var fila = siguiente;
+        siguiente = null;
+        return fila;
+    }
+
+    private String validar(ImportacionFestivoDto fila) {
+        if (fila.getError() != null)
+            return fila.getError();
+        var nombre = fila.getNombre() != null ? fila.getNombre().strip() : "";
+        if (nombre.isEmpty())
+            return "Falta el nombre";
+        if (nombre.length() > LARGO_NOMBRE)
+            return "El nombre supera " + LARGO_NOMBRE + " caracteres";
+        if (fila.getIdPais() == null)
+            return "Falta idPais";
+        if (fila.getIdTipo() == null)
+            return "Falta idTipo";
+        var tipo = tiposRegla.obtener(fila.getIdTipo());
+        if (tipo == null)
+            return "Tipo sin regla de cálculo: " + fila.getIdTipo();
+
+        fila.setNombre(nombre);
+        if (tipo.getBase() == TipoRegla.Base.FECHA) {
+            if (fila.getDia() == null || fila.getMes() == null)
+                return "Faltan dia y mes";
+            if (fila.getMes() < 1 || fila.getMes() > 12)
+                return "Mes inválido: " + fila.getMes();
+            // Se acepta el 29 de febrero: la regla existe aunque no todos los años la usen
+            if (fila.getDia() < 1 || fila.getDia() > ServicioFechas.diasDelMes(2000, fila.getMes()))
+                return "Día inválido: " + fila.getDia() + "/" + fila.getMes();
+            fila.setDiasPascua(0);
+        } else {
+            if (fila.getDiasPascua() == null)
+                return "Falta diasPascua";
+            if (Math.abs(fila.getDiasPascua()) > MAXIMO_DIAS_PASCUA)
+                return "diasPascua fuera de rango: " + fila.getDiasPascua();
+            fila.setDia(0);
+            fila.setMes(0);
+        }
+        return null;
+    }
+
+}
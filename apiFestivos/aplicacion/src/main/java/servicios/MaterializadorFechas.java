@@ -0,0 +1,177 @@
+package festivos.api.aplicacion.servicios;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import festivos.api.aplicacion.calendario.ProgramaCalendario;
+import festivos.api.aplicacion.calendario.RegistroTiposRegla;
+import festivos.api.dominio.entidades.FestivoFecha;
+import festivos.api.infraestructura.repositorios.IFestivoFechaRepositorio;
+import festivos.api.infraestructura.repositorios.IFestivoRepositorio;
+
+/**
+ * Mantiene la tabla {@code festivo_fecha} con las fechas concretas de cada
+ * país entre {@code ventana-atras} años antes y {@code ventana-adelante} después del año
+ * en curso, para que los reportes las crucen en SQL sin llamar a la API.
+ *
+ * Cada refresco recalcula un país y lo compara con lo guardado: solo se
+ * insertan, cambian o borran las filas que difieren. Quien escribe un
+ * festivo refresca su país; al arrancar y cada 1 de enero se recorre todo,
+ * lo que además corre la ventana. Cada país va en su propia transacción: uno
+ * que falla no deshace a los demás ni la escritura que lo pidió. Queda
+ * pendiente y se reintenta cada {@code festivos.fechas.reintento}; la métrica
+ * {@code festivos.fechas.pendientes} cuenta los que siguen desactualizados.
+ */
+@Component
+public class MaterializadorFechas implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(MaterializadorFechas.class);
+
+    private final IFestivoRepositorio festivos;
+    private final IFestivoFechaRepositorio fechas;
+    private final RegistroTiposRegla tiposRegla;
+    private final TransactionTemplate transaccion;
+    private final int añosAtras;
+    private final int añosAdelante;
+    private final Clock reloj;
+    private final Set<Integer> pendientes = ConcurrentHashMap.newKeySet();
+    private final LongAdder fallos = new LongAdder();
+
+    @Autowired
+    public MaterializadorFechas(IFestivoRepositorio festivos, IFestivoFechaRepositorio fechas,
+            RegistroTiposRegla tiposRegla, PlatformTransactionManager transacciones,
+            @Value("${festivos.fechas.ventana-atras:5}") int añosAtras,
+            @Value("${festivos.fechas.ventana-adelante:5}") int añosAdelante) {
+        this(festivos, fechas, tiposRegla, new TransactionTemplate(transacciones), añosAtras, añosAdelante,
+                Clock.systemDefaultZone());
+    }
+
+    MaterializadorFechas(IFestivoRepositorio festivos, IFestivoFechaRepositorio fechas, RegistroTiposRegla tiposRegla,
+            TransactionTemplate transaccion, int añosAtras, int añosAdelante, Clock reloj) {
+        this.festivos = festivos;
+        this.fechas = fechas;
+        this.tiposRegla = tiposRegla;
+        this.transaccion = transaccion;
+        this.añosAtras = añosAtras;
+        this.añosAdelante = añosAdelante;
+        this.reloj = reloj;
+    }
+
+    /** Devuelve cuántas filas cambiaron, o -1 si no se pudo (el país queda pendiente). */
+    public int refrescar(int idPais) {
+        try {
+            int cambios = transaccion.execute(estado -> refrescarPais(idPais));
+            pendientes.remove(idPais);
+            return cambios;
+        } catch (RuntimeException e) {
+            log.warn("No se pudieron materializar las fechas del país {}", idPais, e);
+            pendientes.add(idPais);
+            fallos.increment();
+            return -1;
+        }
+    }
+
+    /** Todos los países con festivos o con filas guardadas (las de un país ya sin festivos se borran). */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${festivos.fechas.cron:0 5 0 1 1 *}")
+    public void refrescarTodo() {
+        SortedSet<Integer> paises;
+        try {
+            paises = transaccion.execute(estado -> {
+                var ids = new TreeSet<>(festivos.listarIdsPaises());
+                ids.addAll(fechas.listarPaises());
+                return ids;
+            });
+        } catch (RuntimeException e) {
+            log.warn("No se pudieron listar los países para materializar sus fechas", e);
+            return;
+        }
+        int fallidos = 0;
+        for (int idPais : paises)
+            if (refrescar(idPais) < 0)
+                fallidos++;
+        if (fallidos > 0)
+            log.warn("Quedan {} de {} países sin materializar; se reintentan", fallidos, paises.size());
+    }
+
+    @Scheduled(fixedDelayString = "${festivos.fechas.reintento:5m}")
+    public void reintentar() {
+        for (int idPais : List.copyOf(pendientes))
+            refrescar(idPais);
+    }
+
+    public int getPendientes() {
+        return pendientes.size();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("festivos.fechas.pendientes", pendientes, Set::size)
+                .description("Países cuya tabla festivo_fecha quedó desactualizada por un fallo")
+                .register(registry);
+        FunctionCounter.builder("festivos.fechas.fallos", fallos, LongAdder::sum)
+                .description("Refrescos de festivo_fecha que fallaron")
+                .register(registry);
+    }
+
+    private int refrescarPais(int idPais) {
+        int actual = LocalDate.now(reloj).getYear();
+        int desde = (int) LocalDate.of(actual - añosAtras, 1, 1).toEpochDay();
+        int hasta = (int) LocalDate.of(actual + añosAdelante, 12, 31).toEpochDay();
+
+        var programa = ProgramaCalendario.compilar(idPais, festivos.listarReglasPorPais(idPais), tiposRegla);
+        Map<LocalDate, Integer> esperadas = new HashMap<>();
+        // El año anterior por los traslados que caen en enero
+        for (int año = actual - añosAtras - 1; año <= actual + añosAdelante; año++) {
+            var calendario = programa.evaluar(año);
+            for (int i = 0; i < calendario.cantidad(); i++) {
+                int dia = calendario.getDiaEpoca(i);
+                if (dia >= desde && dia <= hasta)
+                    esperadas.putIfAbsent(LocalDate.ofEpochDay(dia), calendario.getIdFestivo(i));
+            }
+        }
+
+        int cambios = 0;
+        List<FestivoFecha> sobrantes = new ArrayList<>();
+        for (var guardada : fechas.listarPorPais(idPais)) {
+            Integer idFestivo = esperadas.remove(guardada.getFecha());
+            if (idFestivo == null) {
+                sobrantes.add(guardada);
+            } else if (idFestivo != guardada.getIdFestivo()) {
+                guardada.setIdFestivo(idFestivo);
+                cambios++;
+            }
+        }
+        List<FestivoFecha> nuevas = new ArrayList<>(esperadas.size());
+        esperadas.forEach((fecha, idFestivo) -> nuevas.add(new FestivoFecha(idPais, fecha, idFestivo)));
+        fechas.deleteAll(sobrantes);
+        fechas.saveAll(nuevas);
+        return cambios + sobrantes.size() + nuevas.size();
+    }
+
+}
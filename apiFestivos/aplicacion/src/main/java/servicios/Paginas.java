@@ -0,0 +1,54 @@
+package festivos.api.aplicacion.servicios;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import festivos.api.dominio.DTOs.PaginaDto;
+import festivos.api.dominio.DTOs.PaginacionDto;
+
+/**
+ * Traduce {@link PaginacionDto} a {@link Pageable} y un {@link Slice} a
+ * {@link PaginaDto}. El límite se acota para que ninguna petición lea más de
+ * {@link #LIMITE_MAXIMO} filas.
+ */
+final class Paginas {
+
+    static final int LIMITE_POR_DEFECTO = 50;
+    static final int LIMITE_MAXIMO = 500;
+
+    private Paginas() {
+    }
+
+    /** Lanza {@link IllegalArgumentException} si los parámetros no son válidos. */
+    static Pageable solicitud(PaginacionDto paginacion) {
+        int limite = paginacion.getLimite() != null ? paginacion.getLimite() : LIMITE_POR_DEFECTO;
+        if (limite < 1)
+            throw new IllegalArgumentException("El límite debe ser positivo");
+        limite = Math.min(limite, LIMITE_MAXIMO);
+
+        if (paginacion.esPorLlave()) {
+            if (paginacion.getDespuesNombre() == null || paginacion.getDespuesId() == null)
+                throw new IllegalArgumentException("La llave requiere despuesNombre y despuesId");
+            if (paginacion.getPagina() != null)
+                throw new IllegalArgumentException("No se puede combinar pagina con despuesNombre/despuesId");
+            return PageRequest.of(0, limite);
+        }
+        int pagina = paginacion.getPagina() != null ? paginacion.getPagina() : 0;
+        if (pagina < 0)
+            throw new IllegalArgumentException("La página no puede ser negativa");
+        return PageRequest.of(pagina, limite);
+    }
+
+    static <T> PaginaDto<T> respuesta(Slice<T> slice, Function<T, String> nombre, ToIntFunction<T> id) {
+        List<T> contenido = slice.getContent();
+        if (contenido.isEmpty())
+            return new PaginaDto<>(contenido, false, null, null);
+        T ultimo = contenido.get(contenido.size() - 1);
+        return new PaginaDto<>(contenido, slice.hasNext(), nombre.apply(ultimo), id.applyAsInt(ultimo));
+    }
+}
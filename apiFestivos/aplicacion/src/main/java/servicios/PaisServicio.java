@@ -4,56 +4,135 @@ import java.util.List;
 
 import org.springframework.stereotype.Service;
 import org.springframework.data.domain.Sort;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.annotation.Transactional;
 
+import io.micrometer.core.annotation.Timed;
+
+import festivos.api.aplicacion.busqueda.IndiceNombres;
 import festivos.api.core.servicios.*;
+import festivos.api.dominio.DTOs.*;
 import festivos.api.dominio.entidades.*;
+import festivos.api.infraestructura.invalidacion.*;
 import festivos.api.infraestructura.repositorios.*;
 
 @Service
+@Timed(value = "festivos.servicio", histogram = true)
 public class PaisServicio implements IPaisServicio {
 
     private IPaisRepositorio repositorio;
+    private IndiceNombres indice;
+    private ICanalInvalidaciones canal;
 
-    public PaisServicio(IPaisRepositorio repositorio) {
+    public PaisServicio(IPaisRepositorio repositorio, ICanalInvalidaciones canal) {
         this.repositorio = repositorio;
+        this.indice = new IndiceNombres(repositorio::listarNombres);
+        this.canal = canal;
+        canal.suscribir(this::aplicar);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Pais> listar() {
         return repositorio.findAll(Sort.by(Sort.Direction.ASC, "nombre"));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Pais obtener(int id) {
-        return repositorio.findById(id).isEmpty() ? null : repositorio.findById(id).get();
+        return repositorio.findById(id).orElse(null);
     }
 
     @Override
     public List<Pais> buscar(String nombre) {
-        return repositorio.buscar(nombre);
+        var ids = indice.buscar(nombre);
+        if (ids == null)
+            ids = IndiceNombres.filtrar(repositorio.listarNombres(), nombre);
+        return IndiceNombres.leerPorLotes(ids, repositorio::listarPorIds);
+    }
+
+    @Override
+    public List<SugerenciaDto> autocompletar(String prefijo, int limite) {
+        int acotado = Math.max(1, Math.min(limite, IndiceNombres.MAXIMO_SUGERENCIAS));
+        var sugerencias = indice.autocompletar(prefijo, acotado);
+        if (sugerencias != null)
+            return sugerencias;
+        return repositorio.buscar(prefijo).stream()
+                .limit(acotado)
+                .map(pais -> new SugerenciaDto(pais.getId(), pais.getNombre()))
+                .toList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PaginaDto<Pais> listar(PaginacionDto paginacion) {
+        var pagina = Paginas.solicitud(paginacion);
+        var slice = paginacion.esPorLlave()
+                ? repositorio.listarDespuesDe(paginacion.getDespuesNombre(), paginacion.getDespuesId(), pagina)
+                : repositorio.listar(pagina);
+        return Paginas.respuesta(slice, Pais::getNombre, Pais::getId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PaginaDto<Pais> buscar(String nombre, PaginacionDto paginacion) {
+        var pagina = Paginas.solicitud(paginacion);
+        var slice = paginacion.esPorLlave()
+                ? repositorio.buscarDespuesDe(nombre, paginacion.getDespuesNombre(), paginacion.getDespuesId(), pagina)
+                : repositorio.buscar(nombre, pagina);
+        return Paginas.respuesta(slice, Pais::getNombre, Pais::getId);
     }
 
     @Override
     public Pais agregar(Pais pais) {
         pais.setId(0);
-        return repositorio.save(pais);
+        var agregado = repositorio.save(pais);
+        indice.actualizar(agregado.getId(), agregado.getNombre());
+        canal.publicar(Invalidacion.pais(agregado.getId()));
+        return agregado;
     }
 
     @Override
     public Pais modificar(Pais pais) {
-        if (repositorio.findById(pais.getId()).isEmpty())
-            return null;
-        return repositorio.save(pais);
+        if (repositorio.modificar(pais.getId(), pais.getVersion(), pais.getNombre()) == 0) {
+            if (!repositorio.existsById(pais.getId()))
+                return null;
+            throw new ObjectOptimisticLockingFailureException(Pais.class, pais.getId());
+        }
+        pais.setVersion(pais.getVersion() + 1);
+        indice.actualizar(pais.getId(), pais.getNombre());
+        canal.publicar(Invalidacion.pais(pais.getId()));
+        return pais;
     }
 
     @Override
     public boolean eliminar(int id) {
         try {
             repositorio.deleteById(id);
+            indice.quitar(id);
+            canal.publicar(Invalidacion.pais(id));
             return true;
         } catch (Exception ex) {
             return false;
         }
     }
 
+    private void aplicar(Invalidacion invalidacion) {
+        if (invalidacion.getCatalogo() != Invalidacion.Catalogo.PAISES)
+            return;
+        if (indice.estaCargado())
+            indice.actualizar(invalidacion.getId(),
+                    repositorio.findById(invalidacion.getId()).map(Pais::getNombre).orElse(null));
+    }
+
+    @Override
+    public long getVersion() {
+        return canal.getVersion(Invalidacion.Catalogo.PAISES);
+    }
+
+    @Override
+    public long getUltimaModificacion() {
+        return canal.getUltimaModificacion(Invalidacion.Catalogo.PAISES);
+    }
+
 }
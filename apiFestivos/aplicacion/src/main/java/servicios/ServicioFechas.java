@@ -1,30 +1,33 @@
 package festivos.api.aplicacion.servicios;
 
+import java.time.DateTimeException;
 import java.time.DayOfWeek;
 import java.time.LocalDate;
 
+/**
+ * Cálculo de fechas para las reglas de festivos.
+ *
+ * Los métodos con {@code int} trabajan sobre días época (días desde el
+ * 1970-01-01, como {@link LocalDate#toEpochDay()}) y no crean objetos; son los
+ * que usa el cálculo de calendarios. Las variantes con {@link LocalDate} se
+ * conservan para el borde de la API.
+ */
 public class ServicioFechas {
 
+    private static final int DIAS_POR_CICLO_400 = 146097;
+    private static final int DIAS_0000_A_1970 = 719468;
+
+    /** Rango de la tabla de Pascua: del primer año gregoriano completo a 4099. */
+    public static final int AÑO_MIN_PASCUA = 1583;
+    public static final int AÑO_MAX_PASCUA = 4099;
+    private static final int[] PASCUA = tablaPascua();
+
     public static LocalDate getPascua(int año) {
-        return agregarDias(getInicioSemanaSanta(año), 7);
+        return LocalDate.ofEpochDay(getPascuaDiaEpoca(año));
     }
 
     public static LocalDate getInicioSemanaSanta(int año) {
-        int a = año % 19;
-        int b = año % 4;
-        int c = año % 7;
-        int d = (19 * a + 24) % 30;
-        int dias = d + (2 * b + 4 * c + 6 * d + 5) % 7;
-
-        int dia = 15 + dias;
-        int mes = 3; // Marzo
-
-        if (dia > 31) {
-            dia -= 31;
-            mes = 4; // Abril
-        }
-
-        return LocalDate.of(año, mes, dia);
+        return LocalDate.ofEpochDay(getInicioSemanaSantaDiaEpoca(año));
     }
 
     public static LocalDate agregarDias(LocalDate fecha, int dias) {
@@ -36,4 +39,110 @@ public class ServicioFechas {
         int diasHastaLunes = (DayOfWeek.MONDAY.getValue() - diaSemana.getValue() + 7) % 7;
         return diasHastaLunes == 0 ? fecha : fecha.plusDays(diasHastaLunes);
     }
+
+    public static int getPascuaDiaEpoca(int año) {
+        if (año >= AÑO_MIN_PASCUA && año <= AÑO_MAX_PASCUA)
+            return PASCUA[año - AÑO_MIN_PASCUA];
+        return calcularPascuaDiaEpoca(año);
+    }
+
+    public static int getInicioSemanaSantaDiaEpoca(int año) {
+        return getPascuaDiaEpoca(año) - 7;
+    }
+
+    /** Domingo de Pascua gregoriano según el algoritmo de Meeus/Jones/Butcher. */
+    static int calcularPascuaDiaEpoca(int año) {
+        int a = Math.floorMod(año, 19);
+        int b = Math.floorDiv(año, 100);
+        int c = Math.floorMod(año, 100);
+        int d = Math.floorDiv(b, 4);
+        int e = Math.floorMod(b, 4);
+        int f = Math.floorDiv(b + 8, 25);
+        int g = Math.floorDiv(b - f + 1, 3);
+        int h = Math.floorMod(19 * a + b - d - g + 15, 30);
+        int i = c / 4;
+        int k = c % 4;
+        int l = Math.floorMod(32 + 2 * e + 2 * i - h - k, 7);
+        int m = (a + 11 * h + 22 * l) / 451;
+        int mes = (h + l - 7 * m + 114) / 31; // 3 = Marzo, 4 = Abril
+        int dia = (h + l - 7 * m + 114) % 31 + 1;
+        return diaEpoca(año, mes, dia);
+    }
+
+    private static int[] tablaPascua() {
+        int[] tabla = new int[AÑO_MAX_PASCUA - AÑO_MIN_PASCUA + 1];
+        for (int año = AÑO_MIN_PASCUA; año <= AÑO_MAX_PASCUA; año++)
+            tabla[año - AÑO_MIN_PASCUA] = calcularPascuaDiaEpoca(año);
+        return tabla;
+    }
+
+    /** Día época de una fecha; lanza {@link DateTimeException} si no existe. */
+    public static int diaEpoca(int año, int mes, int dia) {
+        if (mes < 1 || mes > 12 || dia < 1 || dia > diasDelMes(año, mes))
+            throw new DateTimeException("Fecha inválida: " + año + "-" + mes + "-" + dia);
+        int y = mes <= 2 ? año - 1 : año;
+        int era = Math.floorDiv(y, 400);
+        int añoDeEra = y - era * 400;
+        int diaDelAñoMarzo = (153 * (mes + (mes > 2 ? -3 : 9)) + 2) / 5 + dia - 1;
+        int diaDeEra = añoDeEra * 365 + añoDeEra / 4 - añoDeEra / 100 + diaDelAñoMarzo;
+        return era * DIAS_POR_CICLO_400 + diaDeEra - DIAS_0000_A_1970;
+    }
+
+    public static int agregarDias(int diaEpoca, int dias) {
+        return diaEpoca + dias;
+    }
+
+    public static int siguienteLunes(int diaEpoca) {
+        int desdeLunes = diaSemana(diaEpoca) - 1;
+        return desdeLunes == 0 ? diaEpoca : diaEpoca + 7 - desdeLunes;
+    }
+
+    /** Día de la semana ISO: 1 lunes ... 7 domingo. El 1970-01-01 fue jueves. */
+    public static int diaSemana(int diaEpoca) {
+        return Math.floorMod(diaEpoca + 3, 7) + 1;
+    }
+
+    /** Fecha empaquetada como {@code aaaammdd} (años positivos). */
+    public static int empaquetar(int diaEpoca) {
+        int z = diaEpoca + DIAS_0000_A_1970;
+        int era = Math.floorDiv(z, DIAS_POR_CICLO_400);
+        int diaDeEra = z - era * DIAS_POR_CICLO_400;
+        int añoDeEra = (diaDeEra - diaDeEra / 1460 + diaDeEra / 36524 - diaDeEra / 146096) / 365;
+        int diaDelAñoMarzo = diaDeEra - (365 * añoDeEra + añoDeEra / 4 - añoDeEra / 100);
+        int mesMarzo = (5 * diaDelAñoMarzo + 2) / 153;
+        int dia = diaDelAñoMarzo - (153 * mesMarzo + 2) / 5 + 1;
+        int mes = mesMarzo < 10 ? mesMarzo + 3 : mesMarzo - 9;
+        int año = añoDeEra + era * 400 + (mes <= 2 ? 1 : 0);
+        return año * 10000 + mes * 100 + dia;
+    }
+
+    public static int desempaquetar(int aaaammdd) {
+        return diaEpoca(aaaammdd / 10000, aaaammdd / 100 % 100, aaaammdd % 100);
+    }
+
+    public static int año(int diaEpoca) {
+        return empaquetar(diaEpoca) / 10000;
+    }
+
+    public static int diaDelAño(int diaEpoca) {
+        return diaEpoca - diaEpoca(año(diaEpoca), 1, 1) + 1;
+    }
+
+    public static boolean esBisiesto(int año) {
+        return (año & 3) == 0 && (año % 100 != 0 || año % 400 == 0);
+    }
+
+    public static int diasDelMes(int año, int mes) {
+        switch (mes) {
+            case 2:
+                return esBisiesto(año) ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
 }
@@ -4,28 +4,41 @@ import java.util.List;
 
 import org.springframework.stereotype.Service;
 import org.springframework.data.domain.Sort;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.annotation.Transactional;
+
+import io.micrometer.core.annotation.Timed;
 
 import festivos.api.core.servicios.*;
+import festivos.api.dominio.DTOs.*;
 import festivos.api.dominio.entidades.*;
+import festivos.api.infraestructura.invalidacion.*;
 import festivos.api.infraestructura.repositorios.*;
 
 @Service
+@Timed(value = "festivos.servicio", histogram = true)
 public class TipoServicio implements ITipoServicio {
 
     private ITipoRepositorio repositorio;
+    private ICanalInvalidaciones canal;
 
-    public TipoServicio(ITipoRepositorio repositorio) {
+    public TipoServicio(ITipoRepositorio repositorio, ICanalInvalidaciones canal) {
         this.repositorio = repositorio;
+        // Los tipos no se guardan en memoria fuera de la cache de segundo nivel, que el canal ya
+        // invalida: no hace falta suscribirse
+        this.canal = canal;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Tipo> listar() {
         return repositorio.findAll(Sort.by(Sort.Direction.ASC, "nombre"));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Tipo obtener(int id) {
-        return repositorio.findById(id).isEmpty() ? null : repositorio.findById(id).get();
+        return repositorio.findById(id).orElse(null);
     }
 
     @Override
@@ -33,27 +46,65 @@ public class TipoServicio implements ITipoServicio {
         return repositorio.buscar(nombre);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public PaginaDto<Tipo> listar(PaginacionDto paginacion) {
+        var pagina = Paginas.solicitud(paginacion);
+        var slice = paginacion.esPorLlave()
+                ? repositorio.listarDespuesDe(paginacion.getDespuesNombre(), paginacion.getDespuesId(), pagina)
+                : repositorio.listar(pagina);
+        return Paginas.respuesta(slice, Tipo::getNombre, Tipo::getId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PaginaDto<Tipo> buscar(String nombre, PaginacionDto paginacion) {
+        var pagina = Paginas.solicitud(paginacion);
+        var slice = paginacion.esPorLlave()
+                ? repositorio.buscarDespuesDe(nombre, paginacion.getDespuesNombre(), paginacion.getDespuesId(), pagina)
+                : repositorio.buscar(nombre, pagina);
+        return Paginas.respuesta(slice, Tipo::getNombre, Tipo::getId);
+    }
+
     @Override
     public Tipo agregar(Tipo tipo) {
         tipo.setId(0);
-        return repositorio.save(tipo);
+        var agregado = repositorio.save(tipo);
+        canal.publicar(Invalidacion.tipo(agregado.getId()));
+        return agregado;
     }
 
     @Override
     public Tipo modificar(Tipo tipo) {
-        if (repositorio.findById(tipo.getId()).isEmpty())
-            return null;
-        return repositorio.save(tipo);
+        if (repositorio.modificar(tipo.getId(), tipo.getVersion(), tipo.getNombre()) == 0) {
+            if (!repositorio.existsById(tipo.getId()))
+                return null;
+            throw new ObjectOptimisticLockingFailureException(Tipo.class, tipo.getId());
+        }
+        tipo.setVersion(tipo.getVersion() + 1);
+        canal.publicar(Invalidacion.tipo(tipo.getId()));
+        return tipo;
     }
 
     @Override
     public boolean eliminar(int id) {
         try {
             repositorio.deleteById(id);
+            canal.publicar(Invalidacion.tipo(id));
             return true;
         } catch (Exception ex) {
             return false;
         }
     }
 
+    @Override
+    public long getVersion() {
+        return canal.getVersion(Invalidacion.Catalogo.TIPOS);
+    }
+
+    @Override
+    public long getUltimaModificacion() {
+        return canal.getUltimaModificacion(Invalidacion.Catalogo.TIPOS);
+    }
+
 }
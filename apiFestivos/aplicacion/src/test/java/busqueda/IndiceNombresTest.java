@@ -0,0 +1,132 @@
+package festivos.api.aplicacion.busqueda;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import festivos.api.dominio.DTOs.SugerenciaDto;
+
+class IndiceNombresTest {
+
+    private AtomicInteger cargas;
+    private IndiceNombres indice;
+
+    @BeforeEach
+    void setUp() {
+        cargas = new AtomicInteger();
+        indice = new IndiceNombres(() -> {
+            cargas.incrementAndGet();
+            return List.of(
+                    new SugerenciaDto(1, "COLOMBIA"),
+                    new SugerenciaDto(11, "ESTADOS UNIDOS DE AMÉRICA"),
+                    new SugerenciaDto(14, "MÉXICO"),
+                    new SugerenciaDto(17, "ESPAÑA"));
+        });
+    }
+
+    @Test
+    void testNormalizar() {
+        assertEquals("espana", IndiceNombres.normalizar("ESPAÑA"));
+        assertEquals("sagrado corazon de jesus", IndiceNombres.normalizar("  Sagrado   Corazón de Jesús "));
+    }
+
+    @Test
+    void testBuscarSinTildesNiMayusculas() {
+        assertEquals(List.of(14), indice.buscar("mexico"));
+        assertEquals(List.of(17), indice.buscar("Españ"));
+        assertEquals(List.of(11), indice.buscar("unidos de am"));
+        assertTrue(indice.buscar("venezuela").isEmpty());
+        assertEquals(1, cargas.get());
+    }
+
+    @Test
+    void testBuscarConsultaCorta() {
+        List<Integer> ids = indice.buscar("es");
+        assertEquals(2, ids.size());
+        assertTrue(ids.containsAll(List.of(11, 17)));
+    }
+
+    @Test
+    void testTrigramasPresentesNoBastan() {
+        // "mexico colombia" comparte trigramas con ambos nombres pero no es subcadena de ninguno
+        assertTrue(indice.buscar("mexico colombia").isEmpty());
+    }
+
+    @Test
+    void testAutocompletarPorInicioDePalabra() {
+        List<SugerenciaDto> sugerencias = indice.autocompletar("ame", 10);
+        assertEquals(1, sugerencias.size());
+        assertEquals("ESTADOS UNIDOS DE AMÉRICA", sugerencias.get(0).getNombre());
+        assertEquals(2, indice.autocompletar("es", 10).size());
+        assertEquals(1, indice.autocompletar("es", 1).size());
+        assertTrue(indice.autocompletar("xico", 10).isEmpty());
+    }
+
+    @Test
+    void testActualizarYQuitar() {
+        // Given
+        indice.buscar("x");
+
+        // When
+        indice.actualizar(14, "Estados Unidos Mexicanos");
+        indice.actualizar(20, "Perú");
+        indice.quitar(1);
+
+        // Then
+        assertEquals(List.of(14), indice.buscar("mexicanos"));
+        assertEquals(List.of(20), indice.buscar("peru"));
+        assertTrue(indice.buscar("colombia").isEmpty());
+        assertEquals(4, indice.tamaño());
+    }
+
+    @Test
+    void testActualizarAntesDeCargarNoDuplica() {
+        indice.actualizar(14, "México");
+        assertFalse(indice.estaCargado());
+        assertEquals(List.of(14), indice.buscar("mexico"));
+        assertEquals(4, indice.tamaño());
+    }
+
+    @Test
+    void testCargaFallidaDevuelveNull() {
+        IndiceNombres sinBase = new IndiceNombres(() -> {
+            throw new IllegalStateException("Sin conexión");
+        });
+        assertNull(sinBase.buscar("colombia"));
+        assertNull(sinBase.autocompletar("co", 5));
+        assertFalse(sinBase.estaCargado());
+    }
+
+    @Test
+    void testMuchasCoincidenciasSeLeenPorLotes() {
+        List<SugerenciaDto> nombres = new ArrayList<>();
+        for (int i = 0; i <= IndiceNombres.LOTE_IDS; i++)
+            nombres.add(new SugerenciaDto(i, "Festivo " + i));
+        IndiceNombres grande = new IndiceNombres(() -> nombres);
+        List<Integer> ids = grande.buscar("festivo");
+        assertEquals(IndiceNombres.LOTE_IDS + 1, ids.size());
+        assertEquals(List.of(0, 1, 10, 100, 1000), ids.subList(0, 5)); // orden de nombre
+        List<Integer> tamaños = new ArrayList<>();
+        List<Integer> leidos = IndiceNombres.leerPorLotes(ids, lote -> {
+            tamaños.add(lote.size());
+            return lote;
+        });
+        assertEquals(ids, leidos);
+        assertEquals(List.of(IndiceNombres.LOTE_IDS, 1), tamaños);
+        assertEquals(111, grande.buscar("festivo 7").size()); // 7, 70-79, 700-799
+    }
+
+    @Test
+    void testFiltrarNormalizaComoElIndice() {
+        List<SugerenciaDto> nombres = List.of(new SugerenciaDto(14, "MÉXICO"), new SugerenciaDto(3, "Nuevo México"),
+                new SugerenciaDto(1, "COLOMBIA"));
+        assertEquals(List.of(14, 3), IndiceNombres.filtrar(nombres, "mexico"));
+        assertEquals(List.of(14, 3), IndiceNombres.filtrar(nombres, "  MÉXICO "));
+        assertTrue(IndiceNombres.filtrar(nombres, "peru").isEmpty());
+    }
+}
@@ -0,0 +1,313 @@
+package festivos.api.aplicacion.calendario;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import festivos.api.dominio.DTOs.ReglaFestivoDto;
+
+class CacheCalendariosTest {
+
+    private CacheCalendarios cache;
+    private AtomicInteger calculos;
+    private CacheCalendarios.Calculador calculador;
+
+    @BeforeEach
+    void setUp() {
+        Clock reloj = Clock.fixed(Instant.parse("2024-06-01T00:00:00Z"), ZoneOffset.UTC);
+        cache = new CacheCalendarios(3, reloj);
+        calculos = new AtomicInteger();
+        calculador = (idPais, año) -> {
+            calculos.incrementAndGet();
+            return new CalendarioAnual(idPais, año, List.of());
+        };
+    }
+
+    @Test
+    void testObtenerCalculaUnaSolaVez() {
+        // When
+        CalendarioAnual primero = cache.obtener(1, 2020, calculador);
+        CalendarioAnual segundo = cache.obtener(1, 2020, calculador);
+
+        // Then
+        assertSame(primero, segundo);
+        assertEquals(1, calculos.get());
+        assertEquals(1, cache.getAciertos());
+        assertEquals(1, cache.getFallos());
+    }
+
+    @Test
+    void testDesalojaLaEntradaMenosUsada() {
+        // Given
+        cache.obtener(1, 2010, calculador);
+        cache.obtener(1, 2011, calculador);
+        cache.obtener(1, 2012, calculador);
+        cache.obtener(1, 2010, calculador);
+
+        // When
+        cache.obtener(1, 2013, calculador);
+
+        // Then
+        assertEquals(3, cache.tamaño());
+        assertEquals(1, cache.getDesalojos());
+        cache.obtener(1, 2010, calculador);
+        assertEquals(4, calculos.get()); // 2010 sigue en cache
+        cache.obtener(1, 2011, calculador);
+        assertEquals(5, calculos.get()); // 2011 fue desalojado
+    }
+
+    @Test
+    void testDesalojaAunqueTodasSeHayanUsado() {
+        // Given
+        cache.obtener(1, 2010, calculador);
+        cache.obtener(1, 2011, calculador);
+        cache.obtener(1, 2012, calculador);
+        cache.obtener(1, 2012, calculador);
+        cache.obtener(1, 2011, calculador);
+        cache.obtener(1, 2010, calculador);
+
+        // When
+        cache.obtener(1, 2013, calculador);
+
+        // Then
+        assertEquals(3, cache.tamaño());
+        assertEquals(1, cache.getDesalojos());
+    }
+
+    @Test
+    void testInvalidarLiberaCapacidad() {
+        // Given
+        cache.obtener(1, 2010, calculador);
+        cache.obtener(1, 2011, calculador);
+        cache.obtener(2, 2010, calculador);
+
+        // When
+        cache.invalidar(1);
+        cache.obtener(2, 2011, calculador);
+        cache.obtener(2, 2012, calculador);
+
+        // Then
+        assertEquals(3, cache.tamaño());
+        assertEquals(0, cache.getDesalojos());
+    }
+
+    @Test
+    void testNoDesalojaAñosFijos() {
+        // Given
+        cache.obtener(1, 2023, calculador);
+        cache.obtener(1, 2024, calculador);
+        cache.obtener(1, 2025, calculador);
+
+        // When
+        cache.obtener(1, 2000, calculador);
+
+        // Then
+        assertTrue(cache.esFijo(2023));
+        assertFalse(cache.esFijo(2026));
+        assertEquals(3, cache.tamaño());
+        cache.obtener(1, 2023, calculador);
+        cache.obtener(1, 2024, calculador);
+        cache.obtener(1, 2025, calculador);
+        assertEquals(4, calculos.get());
+    }
+
+    @Test
+    void testInvalidarSoloAfectaAlPais() {
+        // Given
+        cache.obtener(1, 2024, calculador);
+        cache.obtener(2, 2024, calculador);
+
+        // When
+        cache.invalidar(1);
+
+        // Then
+        cache.obtener(2, 2024, calculador);
+        assertEquals(2, calculos.get());
+        cache.obtener(1, 2024, calculador);
+        assertEquals(3, calculos.get());
+        assertEquals(1, cache.getInvalidaciones());
+    }
+
+    @Test
+    void testAñosFueraDeRangoNoSeGuardan() {
+        // When
+        cache.obtener(1, CacheCalendarios.AÑO_MIN - 1, calculador);
+        cache.obtener(1, CacheCalendarios.AÑO_MIN - 1, calculador);
+
+        // Then
+        assertEquals(2, calculos.get());
+        assertEquals(0, cache.tamaño());
+    }
+
+    @Test
+    void testConsultarNoGuardaAñosLejanos() {
+        // Given
+        CalendarioAnual guardado = cache.obtener(1, 1900, calculador);
+
+        // When
+        CalendarioAnual lejano = cache.consultar(1, 1950, calculador);
+        cache.consultar(1, 1950, calculador);
+        CalendarioAnual cercano = cache.consultar(1, 2030, calculador);
+
+        // Then
+        assertSame(guardado, cache.consultar(1, 1900, calculador));
+        assertNotSame(lejano, cache.consultar(1, 1950, calculador));
+        assertSame(cercano, cache.obtener(1, 2030, calculador));
+        assertEquals(2, cache.tamaño());
+        assertEquals(0, cache.getDesalojos());
+    }
+
+    @Test
+    void testRegistraMetricas() {
+        // Given
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        cache.bindTo(registry);
+
+        // When
+        cache.obtener(1, 2024, calculador);
+        cache.obtener(1, 2024, calculador);
+
+        // Then
+        assertEquals(1.0, registry.get("cache.gets").tag("result", "hit").functionCounter().count());
+        assertEquals(1.0, registry.get("cache.gets").tag("result", "miss").functionCounter().count());
+        assertEquals(1.0, registry.get("cache.size").tag("cache", "calendarios").gauge().value());
+    }
+
+    @Test
+    void testRegistraTiempoDeCalculoConPaisAcotado() {
+        // Given
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        cache.bindTo(registry);
+        RegistroTiposRegla tipos = new RegistroTiposRegla();
+        List<ReglaFestivoDto> reglas = List.of(new ReglaFestivoDto(1, "Año Nuevo", 1, 1, 0, 1));
+        CacheCalendarios.Calculador conReglas = (idPais, año) -> cache
+                .programa(idPais, id -> ProgramaCalendario.compilar(id, idPais == 1 ? reglas : List.of(), tipos))
+                .evaluar(año);
+
+        // When
+        cache.obtener(1, 2024, conReglas);
+        cache.obtener(1, 2024, conReglas);
+        cache.obtener(999, 2024, conReglas);
+
+        // Then
+        assertEquals(1, registry.get("festivos.calendario.calculo").tag("pais", "1").timer().count());
+        assertEquals(1, registry.get("festivos.calendario.calculo").tag("pais", "otro").timer().count());
+        assertEquals("1", cache.etiquetaPais(1));
+        assertEquals("otro", cache.etiquetaPais(2));
+    }
+
+    @Test
+    void testProgramaSeCompilaUnaVezConHilosConcurrentes() throws Exception {
+        // Given
+        AtomicInteger compilaciones = new AtomicInteger();
+        CountDownLatch salida = new CountDownLatch(1);
+        ExecutorService hilos = Executors.newFixedThreadPool(8);
+
+        // When
+        List<Future<ProgramaCalendario>> programas = new ArrayList<>();
+        for (int i = 0; i < 8; i++)
+            programas.add(hilos.submit(() -> {
+                salida.await();
+                return cache.programa(1, id -> {
+                    compilaciones.incrementAndGet();
+                    return ProgramaCalendario.compilar(id, List.of(new ReglaFestivoDto(1, "Año nuevo", 1, 1, 0, 1)),
+                            new RegistroTiposRegla());
+                });
+            }));
+        salida.countDown();
+        for (var programa : programas)
+            assertSame(programas.get(0).get(), programa.get());
+        hilos.shutdown();
+
+        // Then
+        assertEquals(1, compilaciones.get());
+    }
+
+    @Test
+    void testCapacidadSeRespetaConHilosConcurrentes() throws Exception {
+        // Given
+        CacheCalendarios compartida = new CacheCalendarios(64, Clock.fixed(Instant.parse("2024-06-01T00:00:00Z"), ZoneOffset.UTC));
+        CountDownLatch salida = new CountDownLatch(1);
+        ExecutorService hilos = Executors.newFixedThreadPool(8);
+
+        // When
+        List<Future<?>> tareas = new ArrayList<>();
+        for (int h = 0; h < 8; h++) {
+            int semilla = h;
+            tareas.add(hilos.submit(() -> {
+                salida.await();
+                for (int i = 0; i < 5000; i++) {
+                    int valor = (i * 31 + semilla * 17) % 400;
+                    compartida.obtener(valor % 5, 1900 + valor / 5, calculador);
+                    if (i % 1000 == 0)
+                        compartida.invalidar(semilla % 5);
+                }
+                return null;
+            }));
+        }
+        salida.countDown();
+        for (var tarea : tareas)
+            tarea.get();
+        hilos.shutdown();
+
+        // Then
+        assertTrue(compartida.tamaño() <= 64);
+        assertTrue(compartida.getDesalojos() > 0);
+    }
+
+    @Test
+    void testPaisesSinReglasNoQuedanEnCache() {
+        // Given
+        RegistroTiposRegla registro = new RegistroTiposRegla();
+        CacheCalendarios.Calculador porReglas = (idPais, año) -> cache
+                .programa(idPais, id -> ProgramaCalendario.compilar(id, List.of(), registro)).evaluar(año);
+
+        // When: ids inventados, como los de un cliente que recorre /verificar
+        for (int idPais = 1000; idPais < 11000; idPais++)
+            cache.obtener(idPais, 2010, porReglas);
+
+        // Then
+        assertEquals(0, cache.cantidadPaises());
+        assertEquals(0, cache.tamaño());
+    }
+
+    @Test
+    void testHabilesAcumuladosSeGuardanHastaInvalidarElPais() {
+        // Given
+        RegistroTiposRegla registro = new RegistroTiposRegla();
+        AtomicInteger compilaciones = new AtomicInteger();
+        IntFunction<ProgramaCalendario> compilador = id -> {
+            compilaciones.incrementAndGet();
+            return ProgramaCalendario.compilar(id, List.of(new ReglaFestivoDto(1, "Año nuevo", 1, 1, 0, 1)), registro);
+        };
+
+        // When
+        int[] primero = cache.habilesAcumulados(1, DiasHabiles.SABADO_DOMINGO, compilador);
+        int[] segundo = cache.habilesAcumulados(1, DiasHabiles.SABADO_DOMINGO, compilador);
+        cache.invalidar(1);
+        int[] tercero = cache.habilesAcumulados(1, DiasHabiles.SABADO_DOMINGO, compilador);
+
+        // Then
+        assertSame(primero, segundo);
+        assertNotSame(primero, tercero);
+        assertEquals(2, compilaciones.get());
+        // 2024: 262 días entre semana, menos el 1 de enero
+        int i2024 = 2024 - CacheCalendarios.AÑO_MIN;
+        assertEquals(261, primero[i2024 + 1] - primero[i2024]);
+    }
+}
@@ -0,0 +1,43 @@
+package festivos.api.aplicacion.calendario;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import festivos.api.dominio.DTOs.FestivoDto;
+
+class CalendarioAnualTest {
+
+    @Test
+    void testEsFestivoPorDiaDelAño() {
+        // Given
+        CalendarioAnual calendario = new CalendarioAnual(1, 2024, List.of(
+                new FestivoDto("Año nuevo", LocalDate.of(2024, 1, 1)),
+                new FestivoDto("Navidad", LocalDate.of(2024, 12, 25)),
+                new FestivoDto("Fin de año", LocalDate.of(2024, 12, 31))));
+
+        // Then
+        assertTrue(calendario.esFestivo(1));
+        assertTrue(calendario.esFestivo(LocalDate.of(2024, 12, 25).getDayOfYear()));
+        assertTrue(calendario.esFestivo(366));
+        assertFalse(calendario.esFestivo(2));
+        assertFalse(calendario.esFestivo(64));
+        assertEquals(3, calendario.contarFestivos());
+        assertEquals(3, calendario.getFestivos().size());
+    }
+
+    @Test
+    void testIgnoraTrasladosAlAñoSiguiente() {
+        // Given
+        CalendarioAnual calendario = new CalendarioAnual(1, 2022, List.of(
+                new FestivoDto("Trasladado", LocalDate.of(2023, 1, 2))));
+
+        // Then
+        assertFalse(calendario.esFestivo(2));
+        assertEquals(0, calendario.contarFestivos());
+        assertEquals(1, calendario.getFestivos().size());
+    }
+}
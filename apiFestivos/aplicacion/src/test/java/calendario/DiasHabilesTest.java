@@ -0,0 +1,169 @@
+package festivos.api.aplicacion.calendario;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.IntFunction;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import festivos.api.dominio.DTOs.FestivoDto;
+
+class DiasHabilesTest {
+
+    private IntFunction<CalendarioAnual> calendarios;
+
+    @BeforeEach
+    void setUp() {
+        calendarios = año -> {
+            List<FestivoDto> festivos = new ArrayList<>();
+            festivos.add(new FestivoDto("Año nuevo", LocalDate.of(año, 1, 1)));
+            festivos.add(new FestivoDto("Día del Trabajo", LocalDate.of(año, 5, 1)));
+            festivos.add(new FestivoDto("Navidad", LocalDate.of(año, 12, 25)));
+            return new CalendarioAnual(1, año, festivos);
+        };
+    }
+
+    private boolean esHabil(LocalDate fecha, int finesDeSemana) {
+        return calendarios.apply(fecha.getYear()).esHabil(fecha.getDayOfYear(), finesDeSemana);
+    }
+
+    @Test
+    void testMascara() {
+        assertEquals(0b1100000, DiasHabiles.SABADO_DOMINGO);
+        assertEquals(0b0010000, DiasHabiles.mascara(List.of(DayOfWeek.FRIDAY)));
+        assertThrows(IllegalArgumentException.class, () -> DiasHabiles.mascara(List.of(DayOfWeek.values())));
+    }
+
+    @Test
+    void testContarDentroDeUnAño() {
+        // enero 2024: 23 días entre semana, menos el 1 de enero
+        int total = DiasHabiles.contar(calendarios, LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 31),
+                DiasHabiles.SABADO_DOMINGO);
+
+        assertEquals(22, total);
+    }
+
+    @Test
+    void testAgregarSaltaFestivosYFinesDeSemana() {
+        // viernes 22 de diciembre de 2023 + 1 hábil = martes 26 (25 es Navidad)
+        LocalDate resultado = DiasHabiles.agregar(calendarios, LocalDate.of(2023, 12, 22), 1,
+                DiasHabiles.SABADO_DOMINGO);
+        assertEquals(LocalDate.of(2023, 12, 26), resultado);
+
+        // y de vuelta
+        assertEquals(LocalDate.of(2023, 12, 22),
+                DiasHabiles.agregar(calendarios, resultado, -1, DiasHabiles.SABADO_DOMINGO));
+    }
+
+    @Test
+    void testCoincideConRecorridoDiaPorDia() {
+        Random aleatorio = new Random(42);
+        int[] mascaras = { DiasHabiles.SABADO_DOMINGO, DiasHabiles.mascara(List.of(DayOfWeek.SUNDAY)), 0 };
+        for (int i = 0; i < 200; i++) {
+            int mascara = mascaras[i % mascaras.length];
+            LocalDate inicio = LocalDate.of(1990, 1, 1).plusDays(aleatorio.nextInt(20000));
+            int dias = aleatorio.nextInt(2000) - 1000;
+
+            // recorrido ingenuo
+            LocalDate esperado = inicio;
+            int restantes = Math.abs(dias);
+            while (restantes > 0) {
+                esperado = esperado.plusDays(Integer.signum(dias));
+                if (esHabil(esperado, mascara))
+                    restantes--;
+            }
+            assertEquals(esperado, DiasHabiles.agregar(calendarios, inicio, dias, mascara));
+
+            LocalDate desde = dias >= 0 ? inicio : esperado;
+            LocalDate hasta = dias >= 0 ? esperado : inicio;
+            int contados = 0;
+            for (LocalDate d = desde; !d.isAfter(hasta); d = d.plusDays(1))
+                if (esHabil(d, mascara))
+                    contados++;
+            assertEquals(contados, DiasHabiles.contar(calendarios, desde, hasta, mascara));
+        }
+    }
+
+    @Test
+    void testContarRangoInvertido() {
+        assertThrows(IllegalArgumentException.class, () -> DiasHabiles.contar(calendarios,
+                LocalDate.of(2024, 2, 1), LocalDate.of(2024, 1, 1), DiasHabiles.SABADO_DOMINGO));
+    }
+
+    @Test
+    void testRangosDemasiadoLargosSeRechazanSinCalcularlos() {
+        // Given
+        List<Integer> calculados = new ArrayList<>();
+        IntFunction<CalendarioAnual> contando = año -> {
+            calculados.add(año);
+            return calendarios.apply(año);
+        };
+
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> DiasHabiles.contar(contando, LocalDate.of(2024, 1, 1),
+                LocalDate.MAX, DiasHabiles.SABADO_DOMINGO));
+        assertThrows(IllegalArgumentException.class, () -> DiasHabiles.agregar(contando, LocalDate.of(2024, 1, 1),
+                Integer.MAX_VALUE, DiasHabiles.SABADO_DOMINGO));
+        assertThrows(IllegalArgumentException.class, () -> DiasHabiles.agregar(contando, LocalDate.of(2024, 1, 1),
+                Integer.MIN_VALUE, DiasHabiles.SABADO_DOMINGO));
+        assertTrue(calculados.isEmpty());
+        // el tope mismo se acepta
+        assertTrue(DiasHabiles.contar(contando, LocalDate.of(2024, 1, 1),
+                LocalDate.of(2024 + DiasHabiles.MAXIMO_AÑOS - 1, 12, 31), DiasHabiles.SABADO_DOMINGO) > 0);
+    }
+
+    @Test
+    void testAgregarSinHabilesNoRecorreAñosSinFin() {
+        // Given: solo los lunes son hábiles y todos son festivos
+        IntFunction<CalendarioAnual> sinHabiles = año -> {
+            List<FestivoDto> festivos = new ArrayList<>();
+            for (var dia = LocalDate.of(año, 1, 1); dia.getYear() == año; dia = dia.plusDays(1))
+                if (dia.getDayOfWeek() == DayOfWeek.MONDAY)
+                    festivos.add(new FestivoDto("Lunes", dia));
+            return new CalendarioAnual(1, año, festivos);
+        };
+        int soloLunes = DiasHabiles.mascara(List.of(DayOfWeek.TUESDAY, DayOfWeek.WEDNESDAY, DayOfWeek.THURSDAY,
+                DayOfWeek.FRIDAY, DayOfWeek.SATURDAY, DayOfWeek.SUNDAY));
+
+        // When & Then
+        assertThrows(IllegalArgumentException.class,
+                () -> DiasHabiles.agregar(sinHabiles, LocalDate.of(2024, 1, 1), 1, soloLunes));
+    }
+
+    @Test
+    void testAcumuladosDanLoMismoConDosCalendarios() {
+        // Given
+        int[] acumulados = new int[CacheCalendarios.AÑO_MAX - CacheCalendarios.AÑO_MIN + 2];
+        for (int año = CacheCalendarios.AÑO_MIN; año <= CacheCalendarios.AÑO_MAX; año++)
+            acumulados[año - CacheCalendarios.AÑO_MIN + 1] = acumulados[año - CacheCalendarios.AÑO_MIN]
+                    + calendarios.apply(año).contarHabiles(DiasHabiles.SABADO_DOMINGO);
+        int[] pedidos = new int[1];
+        IntFunction<CalendarioAnual> contados = año -> {
+            pedidos[0]++;
+            return calendarios.apply(año);
+        };
+        Random azar = new Random(7);
+
+        for (int i = 0; i < 300; i++) {
+            LocalDate desde = LocalDate.of(2000 + azar.nextInt(1600), 1, 1).plusDays(azar.nextInt(365));
+            LocalDate hasta = desde.plusDays(azar.nextInt(366 * 400));
+            int dias = azar.nextInt(2 * 250 * 400) - 250 * 400;
+
+            // When
+            pedidos[0] = 0;
+            int contados1 = DiasHabiles.contar(contados, acumulados, desde, hasta, DiasHabiles.SABADO_DOMINGO);
+            LocalDate agregada = DiasHabiles.agregar(contados, acumulados, desde, dias, DiasHabiles.SABADO_DOMINGO);
+
+            // Then
+            assertEquals(DiasHabiles.contar(calendarios, desde, hasta, DiasHabiles.SABADO_DOMINGO), contados1);
+            assertEquals(DiasHabiles.agregar(calendarios, desde, dias, DiasHabiles.SABADO_DOMINGO), agregada);
+            assertTrue(pedidos[0] <= 4, "calendarios pedidos: " + pedidos[0]);
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package festivos.api.aplicacion.calendario;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import festivos.api.aplicacion.servicios.ServicioFechas;
+import festivos.api.dominio.DTOs.FestivoDto;
+import festivos.api.dominio.DTOs.ReglaFestivoDto;
+
+class ProgramaCalendarioTest {
+
+    private RegistroTiposRegla registro;
+
+    @BeforeEach
+    void setUp() {
+        registro = new RegistroTiposRegla();
+    }
+
+    @Test
+    void testTiposSembrados() {
+        // Given
+        List<ReglaFestivoDto> reglas = List.of(
+                new ReglaFestivoDto(1, "Año nuevo", 1, 1, 0, 1),
+                new ReglaFestivoDto(2, "Santos Reyes", 6, 1, 0, 2),
+                new ReglaFestivoDto(3, "Viernes Santo", 0, 0, -2, 3),
+                new ReglaFestivoDto(4, "Ascensión del Señor", 0, 0, 40, 4));
+
+        // When
+        List<FestivoDto> festivos = ProgramaCalendario.compilar(1, reglas, registro).evaluar(2024).getFestivos();
+
+        // Then
+        assertEquals(LocalDate.of(2024, 1, 1), festivos.get(0).getFecha());
+        assertEquals(LocalDate.of(2024, 1, 8), festivos.get(1).getFecha());
+        assertEquals(LocalDate.of(2024, 3, 29), festivos.get(2).getFecha());
+        assertEquals(LocalDate.of(2024, 5, 13), festivos.get(3).getFecha());
+    }
+
+    @Test
+    void testPuenteLunesViernes() {
+        // Given: 1 de mayo cae martes en 2018, miércoles en 2019, jueves en 2025,
+        // sábado en 2021 y domingo en 2022
+        var programa = ProgramaCalendario.compilar(10, List.of(new ReglaFestivoDto(5, "Día del Trabajo", 1, 5, 0, 5)),
+                registro);
+
+        // Then
+        assertEquals(LocalDate.of(2018, 4, 30), programa.evaluar(2018).getFestivos().get(0).getFecha());
+        assertEquals(LocalDate.of(2019, 5, 3), programa.evaluar(2019).getFestivos().get(0).getFecha());
+        assertEquals(LocalDate.of(2025, 5, 2), programa.evaluar(2025).getFestivos().get(0).getFecha());
+        assertEquals(LocalDate.of(2021, 4, 30), programa.evaluar(2021).getFestivos().get(0).getFecha());
+        assertEquals(LocalDate.of(2022, 5, 2), programa.evaluar(2022).getFestivos().get(0).getFecha());
+        assertEquals(LocalDate.of(2020, 5, 1), programa.evaluar(2020).getFestivos().get(0).getFecha());
+    }
+
+    @Test
+    void testTipoDesconocidoSeOmite() {
+        var programa = ProgramaCalendario.compilar(1, List.of(
+                new ReglaFestivoDto(6, "Desconocido", 1, 1, 0, 99),
+                new ReglaFestivoDto(7, "Navidad", 25, 12, 0, 1)), registro);
+
+        assertEquals(1, programa.cantidad());
+        assertEquals("Navidad", programa.evaluar(2024).getNombre(0));
+    }
+
+    @Test
+    void testTipoRegistrado() {
+        // Given: un tipo nuevo que traslada siempre al día siguiente
+        registro.registrar(new TipoRegla(99, TipoRegla.Base.FECHA, new int[] { 1, 1, 1, 1, 1, 1, 1 }));
+
+        // When
+        var calendario = ProgramaCalendario.compilar(1, List.of(new ReglaFestivoDto(8, "Nuevo", 1, 1, 0, 99)), registro)
+                .evaluar(2024);
+
+        // Then
+        assertEquals(ServicioFechas.diaEpoca(2024, 1, 2), calendario.getDiaEpoca(0));
+    }
+
+    @Test
+    void testVeintinueveDeFebreroSoloEnBisiestos() {
+        // Given
+        var programa = ProgramaCalendario.compilar(1, List.of(
+                new ReglaFestivoDto(9, "Bisiesto", 29, 2, 0, 1),
+                new ReglaFestivoDto(10, "Navidad", 25, 12, 0, 1)), registro);
+
+        // When
+        var bisiesto = programa.evaluar(2024);
+        var comun = programa.evaluar(2025);
+
+        // Then
+        assertEquals(2, bisiesto.cantidad());
+        assertTrue(bisiesto.esFestivo(LocalDate.of(2024, 2, 29).getDayOfYear()));
+        assertEquals(1, comun.cantidad());
+        assertEquals("Navidad", comun.getNombre(0));
+        assertEquals(10, comun.getIdFestivo(0));
+        assertEquals(ServicioFechas.diaEpoca(2025, 12, 25), comun.getDiaEpoca(0));
+    }
+
+    @Test
+    void testCaeEnAñoAnterior() {
+        // Given
+        var fijas = ProgramaCalendario.compilar(1, List.of(
+                new ReglaFestivoDto(1, "Año nuevo", 1, 1, 0, 1),
+                new ReglaFestivoDto(2, "Trabajo", 1, 5, 0, 5)), registro);
+        var puenteEnero = ProgramaCalendario.compilar(1, List.of(new ReglaFestivoDto(1, "Año nuevo", 1, 1, 0, 5)), registro);
+        var pascuaCercana = ProgramaCalendario.compilar(1, List.of(new ReglaFestivoDto(3, "Ceniza", 0, 0, -46, 3)), registro);
+        var pascuaLejana = ProgramaCalendario.compilar(1, List.of(new ReglaFestivoDto(4, "Adviento", 0, 0, -100, 3)), registro);
+
+        // Then
+        assertFalse(fijas.caeEnAñoAnterior());
+        assertTrue(puenteEnero.caeEnAñoAnterior());
+        assertFalse(pascuaCercana.caeEnAñoAnterior());
+        assertTrue(pascuaLejana.caeEnAñoAnterior());
+        // Pascua de 2008 fue el 23 de marzo: 100 días antes es el 14 de diciembre de 2007
+        assertEquals(ServicioFechas.diaEpoca(2007, 12, 14), pascuaLejana.evaluar(2008).getDiaEpoca(0));
+    }
+}
@@ -4,22 +4,45 @@ import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
+import java.time.DateTimeException;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.Sort;
-
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import festivos.api.aplicacion.calendario.CacheCalendarios;
+import festivos.api.aplicacion.calendario.RegistroTiposRegla;
+import festivos.api.core.servicios.IFestivoServicio;
+import festivos.api.dominio.DTOs.CambiosFestivoDto;
+import festivos.api.dominio.DTOs.FestivoDto;
+import festivos.api.dominio.DTOs.ImportacionFestivoDto;
+import festivos.api.dominio.DTOs.PaginaDto;
+import festivos.api.dominio.DTOs.PaginacionDto;
+import festivos.api.dominio.DTOs.ReglaFestivoDto;
+import festivos.api.dominio.DTOs.ResultadoImportacionDto;
+import festivos.api.dominio.DTOs.SugerenciaDto;
+import festivos.api.dominio.DTOs.VerificacionDto;
 import festivos.api.dominio.entidades.Festivo;
 import festivos.api.dominio.entidades.Pais;
 import festivos.api.dominio.entidades.Tipo;
+import festivos.api.infraestructura.invalidacion.ICanalInvalidaciones;
+import festivos.api.infraestructura.invalidacion.Invalidacion;
 import festivos.api.infraestructura.repositorios.IFestivoRepositorio;
 
 @ExtendWith(MockitoExtension.class)
@@ -28,15 +51,20 @@ class FestivoServicioTest {
     @Mock
     private IFestivoRepositorio repositorio;
 
-    @InjectMocks
+    @Mock
+    private ICanalInvalidaciones canal;
+
     private FestivoServicio festivoServicio;
 
     private Festivo festivo;
+    private ReglaFestivoDto regla;
     private Pais pais;
     private Tipo tipo;
 
     @BeforeEach
     void setUp() {
+        festivoServicio = new FestivoServicio(repositorio, new CacheCalendarios(16), new RegistroTiposRegla());
+
         pais = new Pais();
         pais.setId(1);
         pais.setNombre("Colombia");
@@ -52,13 +80,15 @@ class FestivoServicioTest {
         festivo.setMes(1);
         festivo.setPais(pais);
         festivo.setTipo(tipo);
+
+        regla = new ReglaFestivoDto(1, "Año Nuevo", 1, 1, 0, 1);
     }
 
     @Test
     void testListar() {
         // Given
         List<Festivo> festivos = Arrays.asList(festivo);
-        when(repositorio.findAll(Sort.by(Sort.Direction.ASC, "nombre"))).thenReturn(festivos);
+        when(repositorio.listarTodos()).thenReturn(festivos);
 
         // When
         List<Festivo> resultado = festivoServicio.listar();
@@ -67,13 +97,13 @@ class FestivoServicioTest {
         assertNotNull(resultado);
         assertEquals(1, resultado.size());
         assertEquals("Año Nuevo", resultado.get(0).getNombre());
-        verify(repositorio).findAll(Sort.by(Sort.Direction.ASC, "nombre"));
+        verify(repositorio).listarTodos();
     }
 
     @Test
     void testObtenerExistente() {
         // Given
-        when(repositorio.findById(1)).thenReturn(Optional.of(festivo));
+        when(repositorio.obtener(1)).thenReturn(Optional.of(festivo));
 
         // When
         Festivo resultado = festivoServicio.obtener(1);
@@ -81,35 +111,67 @@ class FestivoServicioTest {
         // Then
         assertNotNull(resultado);
         assertEquals("Año Nuevo", resultado.getNombre());
-        verify(repositorio, times(2)).findById(1);
+        verify(repositorio).obtener(1);
+        verify(repositorio, never()).findById(anyInt());
     }
 
     @Test
     void testObtenerNoExistente() {
         // Given
-        when(repositorio.findById(99)).thenReturn(Optional.empty());
+        when(repositorio.obtener(99)).thenReturn(Optional.empty());
 
         // When
         Festivo resultado = festivoServicio.obtener(99);
 
         // Then
         assertNull(resultado);
-        verify(repositorio).findById(99);
+        verify(repositorio).obtener(99);
     }
 
     @Test
     void testBuscar() {
         // Given
         List<Festivo> festivos = Arrays.asList(festivo);
-        when(repositorio.buscar("Año")).thenReturn(festivos);
+        when(repositorio.listarNombres()).thenReturn(List.of(new SugerenciaDto(1, "Año Nuevo"), new SugerenciaDto(2, "Navidad")));
+        when(repositorio.listarPorIds(List.of(1))).thenReturn(festivos);
 
         // When
-        List<Festivo> resultado = festivoServicio.buscar("Año");
+        List<Festivo> resultado = festivoServicio.buscar("ANO");
 
         // Then
         assertNotNull(resultado);
         assertEquals(1, resultado.size());
-        verify(repositorio).buscar("Año");
+        verify(repositorio).listarPorIds(List.of(1));
+        verify(repositorio, never()).buscar(anyString());
+    }
+
+    @Test
+    void testBuscarSinCoincidenciasNoConsultaFilas() {
+        // Given
+        when(repositorio.listarNombres()).thenReturn(List.of(new SugerenciaDto(1, "Año Nuevo")));
+
+        // When
+        List<Festivo> resultado = festivoServicio.buscar("Pascua");
+
+        // Then
+        assertTrue(resultado.isEmpty());
+        verify(repositorio, never()).listarPorIds(any());
+        verify(repositorio, never()).buscar(anyString());
+    }
+
+    @Test
+    void testEliminarQuitaDelIndice() {
+        // Given
+        when(repositorio.listarNombres()).thenReturn(List.of(new SugerenciaDto(1, "Año Nuevo")));
+        when(repositorio.findById(1)).thenReturn(Optional.of(festivo));
+        festivoServicio.autocompletar("a", 10);
+
+        // When
+        festivoServicio.eliminar(1);
+
+        // Then
+        assertTrue(festivoServicio.autocompletar("a", 10).isEmpty());
+        verify(repositorio, times(1)).listarNombres();
     }
 
     @Test
@@ -131,8 +193,7 @@ class FestivoServicioTest {
     @Test
     void testModificarExistente() {
         // Given
-        when(repositorio.findById(1)).thenReturn(Optional.of(festivo));
-        when(repositorio.save(festivo)).thenReturn(festivo);
+        when(repositorio.modificar(eq(1), any(), eq(1))).thenReturn(1);
 
         // When
         Festivo resultado = festivoServicio.modificar(festivo);
@@ -140,8 +201,9 @@ class FestivoServicioTest {
         // Then
         assertNotNull(resultado);
         assertEquals("Año Nuevo", resultado.getNombre());
-        verify(repositorio).findById(1);
-        verify(repositorio).save(festivo);
+        assertEquals(1, resultado.getVersion());
+        verify(repositorio, never()).findById(anyInt());
+        verify(repositorio, never()).save(any());
     }
 
     @Test
@@ -159,6 +221,141 @@ class FestivoServicioTest {
         verify(repositorio, never()).save(any());
     }
 
+    @Test
+    void testModificarConVersionVieja() {
+        // Given
+        Festivo actual = new Festivo(1, "Año Nuevo", 1, 1, 0, pais, tipo);
+        actual.setVersion(2);
+        when(repositorio.findById(1)).thenReturn(Optional.of(actual));
+
+        // When & Then
+        assertThrows(OptimisticLockingFailureException.class, () -> festivoServicio.modificar(festivo));
+        verify(repositorio, times(1)).modificar(anyInt(), any(), any());
+    }
+
+    @Test
+    void testModificarCambiaDePaisInvalidaAmbos() {
+        // Given
+        Pais ecuador = new Pais(10, "Ecuador");
+        festivo.setPais(ecuador);
+        when(repositorio.findById(1)).thenReturn(Optional.of(new Festivo(1, "Año Nuevo", 1, 1, 0, pais, tipo)));
+        when(repositorio.modificar(eq(1), any(), eq(10))).thenReturn(0); // sigue en Colombia
+        when(repositorio.modificar(eq(1), any(), eq(1))).thenReturn(1);
+        when(repositorio.listarReglasPorPais(anyInt())).thenReturn(Arrays.asList(regla));
+        festivoServicio.verificar(1, LocalDate.of(2024, 1, 1));
+        festivoServicio.verificar(10, LocalDate.of(2024, 1, 1));
+
+        // When
+        festivoServicio.modificar(festivo);
+        festivoServicio.verificar(1, LocalDate.of(2024, 1, 1));
+        festivoServicio.verificar(10, LocalDate.of(2024, 1, 1));
+
+        // Then
+        verify(repositorio, times(2)).listarReglasPorPais(1);
+        verify(repositorio, times(2)).listarReglasPorPais(10);
+    }
+
+    @Test
+    void testModificarCambiaDePaisPublicaAmbos() {
+        // Given
+        var servicio = new FestivoServicio(repositorio, new CacheCalendarios(16), new RegistroTiposRegla(), canal, null);
+        festivo.setPais(new Pais(10, "Ecuador"));
+        when(repositorio.findById(1)).thenReturn(Optional.of(new Festivo(1, "Año Nuevo", 1, 1, 0, pais, tipo)));
+        when(repositorio.modificar(eq(1), any(), eq(10))).thenReturn(0);
+        when(repositorio.modificar(eq(1), any(), eq(1))).thenReturn(1);
+
+        // When
+        servicio.modificar(festivo);
+
+        // Then
+        verify(canal).publicar(Invalidacion.festivo(1, 1));
+        verify(canal).publicar(Invalidacion.festivo(1, 10));
+        verify(canal, times(2)).publicar(any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testInvalidacionRemotaSoloDescartaElPais() {
+        // Given
+        var servicio = new FestivoServicio(repositorio, new CacheCalendarios(16), new RegistroTiposRegla(), canal, null);
+        ArgumentCaptor<Consumer<Invalidacion>> suscriptor = ArgumentCaptor.forClass(Consumer.class);
+        verify(canal).suscribir(suscriptor.capture());
+        when(repositorio.listarReglasPorPais(anyInt())).thenReturn(Arrays.asList(regla));
+        servicio.verificar(1, LocalDate.of(2024, 1, 1));
+        servicio.verificar(10, LocalDate.of(2024, 1, 1));
+
+        // When
+        suscriptor.getValue().accept(Invalidacion.festivo(7, 10));
+        servicio.verificar(1, LocalDate.of(2024, 1, 1));
+        servicio.verificar(10, LocalDate.of(2024, 1, 1));
+
+        // Then
+        verify(repositorio, times(1)).listarReglasPorPais(1);
+        verify(repositorio, times(2)).listarReglasPorPais(10);
+        verify(repositorio, never()).obtener(anyInt()); // el índice no estaba cargado
+        verify(canal, never()).publicar(any());
+    }
+
+    @Test
+    void testModificarParcialSinVersion() {
+        assertThrows(IllegalArgumentException.class,
+                () -> festivoServicio.modificar(1, new CambiosFestivoDto(null, "Año nuevo", null, null, null, null, null)));
+        verify(repositorio, never()).modificar(anyInt(), any(), any());
+    }
+
+    @Test
+    void testModificarParcialActualizaIndice() {
+        // Given
+        when(repositorio.listarNombres()).thenReturn(List.of(new SugerenciaDto(1, "Año Nuevo")));
+        festivoServicio.autocompletar("a", 10);
+        CambiosFestivoDto cambios = new CambiosFestivoDto(4, "Primero de enero", null, null, null, null, null);
+        when(repositorio.obtenerIdPais(1)).thenReturn(Optional.of(1));
+        when(repositorio.modificar(1, cambios, 1)).thenReturn(1);
+
+        // When
+        Integer version = festivoServicio.modificar(1, cambios);
+
+        // Then
+        assertEquals(5, version);
+        assertEquals("Primero de enero", festivoServicio.autocompletar("prim", 10).get(0).getNombre());
+    }
+
+    @Test
+    void testModificarParcialSinPaisSoloInvalidaSuPais() {
+        // Given
+        var servicio = new FestivoServicio(repositorio, new CacheCalendarios(16), new RegistroTiposRegla(), canal, null);
+        CambiosFestivoDto cambios = new CambiosFestivoDto(0, null, 2, null, null, null, null);
+        when(repositorio.obtenerIdPais(1)).thenReturn(Optional.of(10));
+        when(repositorio.modificar(1, cambios, 10)).thenReturn(1);
+        when(repositorio.listarReglasPorPais(anyInt())).thenReturn(Arrays.asList(regla));
+        servicio.verificar(1, LocalDate.of(2024, 1, 1));
+        servicio.verificar(10, LocalDate.of(2024, 1, 1));
+
+        // When
+        servicio.modificar(1, cambios);
+        servicio.verificar(1, LocalDate.of(2024, 1, 1));
+        servicio.verificar(10, LocalDate.of(2024, 1, 1));
+
+        // Then
+        verify(repositorio, times(1)).listarReglasPorPais(1);
+        verify(repositorio, times(2)).listarReglasPorPais(10);
+        verify(canal).publicar(Invalidacion.festivo(1, 10));
+        verify(canal, times(1)).publicar(any());
+    }
+
+    @Test
+    void testModificarParcialDeFestivoInexistente() {
+        // Given
+        when(repositorio.obtenerIdPais(99)).thenReturn(Optional.empty());
+
+        // When
+        Integer version = festivoServicio.modificar(99, new CambiosFestivoDto(0, "X", null, null, null, null, null));
+
+        // Then
+        assertNull(version);
+        verify(repositorio, never()).modificar(anyInt(), any(), any());
+    }
+
     @Test
     void testEliminarExitoso() {
         // Given
@@ -189,29 +386,328 @@ class FestivoServicioTest {
     void testVerificarFechaEsFestivo() {
         // Given
         LocalDate fecha = LocalDate.of(2024, 1, 1);
-        List<Festivo> festivos = Arrays.asList(festivo);
-        when(repositorio.listarPorPais(1)).thenReturn(festivos);
+        List<ReglaFestivoDto> reglas = Arrays.asList(regla);
+        when(repositorio.listarReglasPorPais(1)).thenReturn(reglas);
 
         // When
         boolean resultado = festivoServicio.verificar(1, fecha);
 
         // Then
         assertTrue(resultado);
-        verify(repositorio).listarPorPais(1);
+        verify(repositorio).listarReglasPorPais(1);
     }
 
     @Test
     void testVerificarFechaNoEsFestivo() {
         // Given
         LocalDate fecha = LocalDate.of(2024, 12, 25);
-        List<Festivo> festivos = Arrays.asList(festivo);
-        when(repositorio.listarPorPais(1)).thenReturn(festivos);
+        List<ReglaFestivoDto> reglas = Arrays.asList(regla);
+        when(repositorio.listarReglasPorPais(1)).thenReturn(reglas);
 
         // When
         boolean resultado = festivoServicio.verificar(1, fecha);
 
         // Then
         assertFalse(resultado);
-        verify(repositorio).listarPorPais(1);
+        verify(repositorio).listarReglasPorPais(1);
+    }
+
+    @Test
+    void testAñosFueraDelRangoAdmitidoSeRechazanSinCalcular() {
+        // When & Then
+        assertThrows(DateTimeException.class,
+                () -> festivoServicio.verificar(1, LocalDate.of(IFestivoServicio.AÑO_MAX + 1, 1, 1)));
+        assertThrows(DateTimeException.class, () -> festivoServicio.listar(1, IFestivoServicio.AÑO_MIN - 1));
+        assertThrows(DateTimeException.class, () -> festivoServicio.verificar(
+                List.of(new VerificacionDto(1, LocalDate.of(Integer.MAX_VALUE / 10000 + 1, 1, 1), false))));
+        assertThrows(DateTimeException.class, () -> festivoServicio.listar(1,
+                LocalDate.of(IFestivoServicio.AÑO_MAX, 1, 1), LocalDate.of(IFestivoServicio.AÑO_MAX + 1, 1, 1)));
+        verifyNoInteractions(repositorio);
+    }
+
+    @Test
+    void testVerificarUsaCalendarioEnCache() {
+        // Given
+        when(repositorio.listarReglasPorPais(1)).thenReturn(Arrays.asList(regla));
+
+        // When
+        festivoServicio.verificar(1, LocalDate.of(2024, 1, 1));
+        festivoServicio.verificar(1, LocalDate.of(2024, 12, 25));
+        festivoServicio.listar(1, 2024);
+
+        // Then
+        verify(repositorio, times(1)).listarReglasPorPais(1);
+    }
+
+    @Test
+    void testModificarInvalidaCalendarioDelPais() {
+        // Given
+        when(repositorio.listarReglasPorPais(1)).thenReturn(Arrays.asList(regla));
+        when(repositorio.modificar(eq(1), any(), eq(1))).thenReturn(1);
+        festivoServicio.verificar(1, LocalDate.of(2024, 1, 1));
+
+        // When
+        festivoServicio.modificar(festivo);
+        festivoServicio.verificar(1, LocalDate.of(2024, 1, 1));
+
+        // Then
+        verify(repositorio, times(2)).listarReglasPorPais(1);
+    }
+
+    @Test
+    void testVerificarLoteCompilaReglasUnaVez() {
+        // Given
+        when(repositorio.listarReglasPorPais(1)).thenReturn(Arrays.asList(regla));
+        List<VerificacionDto> consultas = Arrays.asList(
+                new VerificacionDto(1, LocalDate.of(2024, 1, 1)),
+                new VerificacionDto(1, LocalDate.of(2024, 1, 2)),
+                new VerificacionDto(1, LocalDate.of(2025, 1, 1)));
+
+        // When
+        List<VerificacionDto> resultado = festivoServicio.verificar(consultas);
+
+        // Then
+        assertEquals(3, resultado.size());
+        assertTrue(resultado.get(0).getEsFestivo());
+        assertFalse(resultado.get(1).getEsFestivo());
+        assertTrue(resultado.get(2).getEsFestivo());
+        verify(repositorio, times(1)).listarReglasPorPais(1);
+    }
+
+    @Test
+    void testListarRangoLeeReglasUnaVez() {
+        // Given
+        ReglaFestivoDto navidad = new ReglaFestivoDto(2, "Navidad", 25, 12, 0, 1);
+        when(repositorio.listarReglasPorPais(1)).thenReturn(Arrays.asList(navidad, regla));
+
+        // When
+        List<FestivoDto> resultado = festivoServicio.listar(1, LocalDate.of(2000, 6, 1), LocalDate.of(2030, 1, 1));
+
+        // Then
+        assertEquals(60, resultado.size());
+        assertEquals(LocalDate.of(2000, 12, 25), resultado.get(0).getFecha());
+        assertEquals(LocalDate.of(2001, 1, 1), resultado.get(1).getFecha());
+        assertEquals(LocalDate.of(2030, 1, 1), resultado.get(59).getFecha());
+        verify(repositorio, times(1)).listarReglasPorPais(1);
+    }
+
+    @Test
+    void testListarRangoParaleloQuedaEnOrdenDeFecha() {
+        // Given: el 29 de diciembre con puente al lunes a veces cae en enero del año siguiente
+        ReglaFestivoDto fiesta = new ReglaFestivoDto(2, "Fiesta", 29, 12, 0, 2);
+        when(repositorio.listarReglasPorPais(1)).thenReturn(Arrays.asList(fiesta, regla));
+        LocalDate desde = LocalDate.of(1990, 1, 2);
+        LocalDate hasta = LocalDate.of(2100, 12, 31);
+        List<LocalDate> esperadas = new ArrayList<>();
+        for (int año = 1989; año <= 2100; año++)
+            for (FestivoDto f : festivoServicio.listar(1, año))
+                if (!f.getFecha().isBefore(desde) && !f.getFecha().isAfter(hasta))
+                    esperadas.add(f.getFecha());
+        esperadas.sort(null);
+
+        // When
+        List<FestivoDto> resultado = festivoServicio.listar(1, desde, hasta);
+
+        // Then
+        assertEquals(esperadas, resultado.stream().map(FestivoDto::getFecha).toList());
+    }
+
+    @Test
+    void testListarRangoLargoNoVaciaLaCache() {
+        // Given
+        CacheCalendarios cache = new CacheCalendarios(512);
+        FestivoServicio servicio = new FestivoServicio(repositorio, cache, new RegistroTiposRegla());
+        when(repositorio.listarReglasPorPais(anyInt())).thenReturn(Arrays.asList(regla));
+        servicio.verificar(2, LocalDate.of(LocalDate.now().getYear() - 20, 1, 1));
+
+        // When
+        List<FestivoDto> resultado = servicio.listar(1, LocalDate.of(1700, 1, 1), LocalDate.of(2199, 12, 31));
+
+        // Then
+        assertEquals(500, resultado.size());
+        assertEquals(0, cache.getDesalojos());
+        assertEquals(2 * CacheCalendarios.VENTANA_CALIENTE + 2, cache.tamaño());
+    }
+
+    @Test
+    void testListarRangoIncluyeTrasladoHaciaAtrasDelAñoSiguiente() {
+        // Given: tipo 5 lleva el sábado 1 de enero de 2022 al viernes 31 de diciembre
+        ReglaFestivoDto añoNuevo = new ReglaFestivoDto(1, "Año Nuevo", 1, 1, 0, 5);
+        ReglaFestivoDto navidad = new ReglaFestivoDto(2, "Navidad", 25, 12, 0, 1);
+        when(repositorio.listarReglasPorPais(1)).thenReturn(Arrays.asList(añoNuevo, navidad));
+        List<LocalDate> recorridas = new ArrayList<>();
+
+        // When
+        List<FestivoDto> resultado = festivoServicio.listar(1, LocalDate.of(2021, 12, 1), LocalDate.of(2021, 12, 31));
+        festivoServicio.recorrer(1, LocalDate.of(2021, 12, 1), LocalDate.of(2021, 12, 31),
+                (nombre, diaEpoca) -> recorridas.add(LocalDate.ofEpochDay(diaEpoca)));
+
+        // Then
+        assertEquals(List.of(LocalDate.of(2021, 12, 25), LocalDate.of(2021, 12, 31)),
+                resultado.stream().map(FestivoDto::getFecha).toList());
+        assertEquals(List.of(LocalDate.of(2021, 12, 25), LocalDate.of(2021, 12, 31)), recorridas);
+    }
+
+    @Test
+    void testListarRangoIncluyeReglaDePascuaDelAñoSiguiente() {
+        // Given: Pascua de 2008 fue el 23 de marzo; 100 días antes cae en 2007
+        ReglaFestivoDto adviento = new ReglaFestivoDto(4, "Adviento", 0, 0, -100, 3);
+        when(repositorio.listarReglasPorPais(1)).thenReturn(Arrays.asList(adviento));
+
+        // When
+        List<FestivoDto> resultado = festivoServicio.listar(1, LocalDate.of(2007, 12, 1), LocalDate.of(2007, 12, 31));
+
+        // Then
+        assertEquals(List.of(LocalDate.of(2007, 12, 14)), resultado.stream().map(FestivoDto::getFecha).toList());
+    }
+
+    @Test
+    void testIdsDePaisInventadosNoCrecenLaCache() {
+        // Given
+        CacheCalendarios cache = new CacheCalendarios(512);
+        FestivoServicio servicio = new FestivoServicio(repositorio, cache, new RegistroTiposRegla());
+
+        // When
+        for (int idPais = 1000; idPais < 3000; idPais++) {
+            servicio.verificar(idPais, LocalDate.of(2024, 1, 1));
+            servicio.listar(idPais, 2023);
+        }
+
+        // Then
+        assertEquals(0, cache.cantidadPaises());
+        assertEquals(0, cache.tamaño());
+    }
+
+    @Test
+    void testListarRangoInvertido() {
+        assertThrows(IllegalArgumentException.class,
+                () -> festivoServicio.listar(1, LocalDate.of(2024, 2, 1), LocalDate.of(2024, 1, 1)));
+        verify(repositorio, never()).listarReglasPorPais(anyInt());
+    }
+
+    @Test
+    void testEscriturasCambianVersionYUltimaModificacion() {
+        // Given
+        long version = festivoServicio.getVersion();
+        long ultimaModificacion = festivoServicio.getUltimaModificacion();
+        when(repositorio.save(festivo)).thenReturn(festivo);
+
+        // When
+        festivoServicio.agregar(festivo);
+
+        // Then
+        assertNotEquals(version, festivoServicio.getVersion());
+        assertTrue(festivoServicio.getUltimaModificacion() >= ultimaModificacion + 1000);
+    }
+
+    @Test
+    void testBuscarPorLlave() {
+        // Given
+        when(repositorio.buscarDespuesDe("o", "Año Nuevo", 1, PageRequest.of(0, 50)))
+                .thenReturn(new SliceImpl<>(List.of(), PageRequest.of(0, 50), false));
+
+        // When
+        PaginaDto<Festivo> resultado = festivoServicio.buscar("o", new PaginacionDto("Año Nuevo", 1, null));
+
+        // Then
+        assertTrue(resultado.getContenido().isEmpty());
+        assertNull(resultado.getDespuesNombre());
+        verify(repositorio).buscarDespuesDe("o", "Año Nuevo", 1, PageRequest.of(0, 50));
+    }
+
+    @Test
+    void testImportarRechazaFilasInvalidasYNormalizaLasDemas() {
+        // Given
+        List<ImportacionFestivoDto> escritas = new ArrayList<>();
+        doAnswer(invocacion -> {
+            Iterator<ImportacionFestivoDto> filas = invocacion.getArgument(0);
+            filas.forEachRemaining(escritas::add);
+            return null;
+        }).when(repositorio).importar(any(), any());
+        List<ImportacionFestivoDto> filas = List.of(
+                new ImportacionFestivoDto(1, "  Navidad ", 25, 12, null, 1, 1),
+                new ImportacionFestivoDto(2, "Sin mes", 1, null, null, 1, 1),
+                new ImportacionFestivoDto(3, "Jueves Santo", 5, 5, -3, 1, 3),
+                new ImportacionFestivoDto(4, "Tipo raro", 1, 1, 0, 1, 99),
+                new ImportacionFestivoDto(5, "31 de abril", 31, 4, 0, 1, 2));
+
+        // When
+        ResultadoImportacionDto resultado = festivoServicio.importar(filas.iterator());
+
+        // Then
+        assertEquals(2, escritas.size());
+        assertEquals("Navidad", escritas.get(0).getNombre());
+        assertEquals(0, escritas.get(0).getDiasPascua());
+        assertEquals(0, escritas.get(1).getDia());
+        assertEquals(-3, escritas.get(1).getDiasPascua());
+        assertEquals(3, resultado.getRechazadas());
+        assertEquals(List.of(2, 4, 5), resultado.getErrores().stream().map(e -> e.getFila()).toList());
+    }
+
+    @Test
+    void testImportarInvalidaCalendarios() {
+        // Given
+        when(repositorio.listarReglasPorPais(1)).thenReturn(Arrays.asList(regla));
+        festivoServicio.verificar(1, LocalDate.of(2024, 1, 1));
+        long version = festivoServicio.getVersion();
+
+        // When
+        festivoServicio.importar(List.<ImportacionFestivoDto>of().iterator());
+        festivoServicio.verificar(1, LocalDate.of(2024, 1, 1));
+
+        // Then
+        verify(repositorio, times(2)).listarReglasPorPais(1);
+        assertNotEquals(version, festivoServicio.getVersion());
+    }
+
+    @Test
+    void testRecorrerEntregaSoloElRango() {
+        // Given
+        ReglaFestivoDto navidad = new ReglaFestivoDto(3, "Navidad", 25, 12, 0, 1);
+        when(repositorio.listarReglasPorPais(1)).thenReturn(Arrays.asList(navidad, regla));
+        List<LocalDate> fechas = new ArrayList<>();
+
+        // When
+        festivoServicio.recorrer(1, LocalDate.of(2023, 12, 25), LocalDate.of(2025, 1, 1),
+                (nombre, diaEpoca) -> fechas.add(LocalDate.ofEpochDay(diaEpoca)));
+
+        // Then
+        assertEquals(List.of(LocalDate.of(2023, 12, 25), LocalDate.of(2024, 1, 1), LocalDate.of(2024, 12, 25),
+                LocalDate.of(2025, 1, 1)), fechas);
+        verify(repositorio, times(1)).listarReglasPorPais(1);
+    }
+
+    @Test
+    void testRecorrerDesacoplaCadaFestivoYCierraElStream() {
+        // Given
+        Festivo otro = new Festivo(2, "Navidad", 25, 12, 0, pais, tipo);
+        AtomicBoolean cerrado = new AtomicBoolean();
+        when(repositorio.recorrerPorPais(1)).thenReturn(Stream.of(festivo, otro).onClose(() -> cerrado.set(true)));
+        List<String> visitados = new ArrayList<>();
+
+        // When
+        festivoServicio.recorrer(1, f -> visitados.add(f.getNombre()));
+
+        // Then
+        assertEquals(List.of(festivo.getNombre(), "Navidad"), visitados);
+        assertTrue(cerrado.get());
+        InOrder orden = inOrder(repositorio);
+        orden.verify(repositorio).desacoplar(festivo);
+        orden.verify(repositorio).desacoplar(otro);
+        verify(repositorio, never()).recorrerTodos();
+    }
+
+    @Test
+    void testRecorrerSinPaisRecorreTodos() {
+        // Given
+        when(repositorio.recorrerTodos()).thenReturn(Stream.of(festivo));
+        List<Festivo> visitados = new ArrayList<>();
+
+        // When
+        festivoServicio.recorrer(null, visitados::add);
+
+        // Then
+        assertEquals(List.of(festivo), visitados);
+        verify(repositorio).desacoplar(festivo);
     }
 }
@@ -0,0 +1,118 @@
+package festivos.api.aplicacion.servicios;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Clock;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import festivos.api.aplicacion.calendario.RegistroTiposRegla;
+import festivos.api.dominio.DTOs.ReglaFestivoDto;
+import festivos.api.dominio.entidades.FestivoFecha;
+import festivos.api.infraestructura.repositorios.IFestivoFechaRepositorio;
+import festivos.api.infraestructura.repositorios.IFestivoRepositorio;
+
+@ExtendWith(MockitoExtension.class)
+class MaterializadorFechasTest {
+
+    @Mock
+    private IFestivoRepositorio festivos;
+
+    @Mock
+    private IFestivoFechaRepositorio fechas;
+
+    @Mock
+    private PlatformTransactionManager transacciones;
+
+    private MaterializadorFechas materializador;
+
+    @BeforeEach
+    void setUp() {
+        Clock reloj = Clock.fixed(Instant.parse("2024-06-01T00:00:00Z"), ZoneOffset.UTC);
+        materializador = new MaterializadorFechas(festivos, fechas, new RegistroTiposRegla(),
+                new TransactionTemplate(transacciones), 1, 1, reloj);
+        when(festivos.listarReglasPorPais(1)).thenReturn(List.of(new ReglaFestivoDto(7, "Año Nuevo", 1, 1, 0, 1)));
+    }
+
+    @Test
+    void testRefrescarSoloTocaLasFilasQueDifieren() {
+        // Given
+        var vigente = new FestivoFecha(1, LocalDate.of(2024, 1, 1), 7);
+        var fueraDeVentana = new FestivoFecha(1, LocalDate.of(2020, 1, 1), 7);
+        when(fechas.listarPorPais(1)).thenReturn(List.of(vigente, fueraDeVentana));
+
+        // When
+        int cambios = materializador.refrescar(1);
+
+        // Then
+        assertEquals(3, cambios);
+        verify(fechas).deleteAll(List.of(fueraDeVentana));
+        verify(fechas).saveAll(argThat((List<FestivoFecha> nuevas) -> nuevas.size() == 2
+                && nuevas.stream().allMatch(f -> f.getIdFestivo() == 7 && f.getFecha().getDayOfYear() == 1)
+                && nuevas.stream().noneMatch(f -> f.getFecha().getYear() == 2024)));
+    }
+
+    @Test
+    void testRefrescarCambiaElFestivoDeUnaFechaGuardada() {
+        // Given
+        var guardadas = List.of(new FestivoFecha(1, LocalDate.of(2023, 1, 1), 7),
+                new FestivoFecha(1, LocalDate.of(2024, 1, 1), 3),
+                new FestivoFecha(1, LocalDate.of(2025, 1, 1), 7));
+        when(fechas.listarPorPais(1)).thenReturn(guardadas);
+
+        // When
+        int cambios = materializador.refrescar(1);
+
+        // Then
+        assertEquals(1, cambios);
+        assertEquals(7, guardadas.get(1).getIdFestivo());
+        verify(fechas).saveAll(List.of());
+    }
+
+    @Test
+    void testRefrescarConErrorNoPropagaLaExcepcion() {
+        // Given
+        when(fechas.listarPorPais(1)).thenThrow(new RuntimeException("Sin conexión"));
+
+        // When
+        int cambios = materializador.refrescar(1);
+
+        // Then
+        assertEquals(-1, cambios);
+        verify(fechas, never()).saveAll(any());
+    }
+
+    @Test
+    void testRefrescarTodoAislaElPaisQueFallaYLoReintenta() {
+        // Given
+        when(festivos.listarIdsPaises()).thenReturn(List.of(1, 2));
+        when(fechas.listarPaises()).thenReturn(List.of());
+        when(fechas.listarPorPais(1)).thenReturn(List.of());
+        when(festivos.listarReglasPorPais(2))
+                .thenThrow(new DateTimeException("Fecha inválida"))
+                .thenReturn(List.of());
+        when(fechas.listarPorPais(2)).thenReturn(List.of());
+
+        // When
+        materializador.refrescarTodo();
+
+        // Then
+        verify(fechas).saveAll(argThat((List<FestivoFecha> nuevas) -> nuevas.size() == 3));
+        assertEquals(1, materializador.getPendientes());
+
+        materializador.reintentar();
+        assertEquals(0, materializador.getPendientes());
+    }
+}
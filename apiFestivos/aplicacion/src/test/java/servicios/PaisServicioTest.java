@@ -7,16 +7,27 @@ import static org.mockito.Mockito.*;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Sort;
-
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import festivos.api.dominio.DTOs.PaginaDto;
+import festivos.api.dominio.DTOs.PaginacionDto;
+import festivos.api.dominio.DTOs.SugerenciaDto;
 import festivos.api.dominio.entidades.Pais;
+import festivos.api.infraestructura.invalidacion.ICanalInvalidaciones;
+import festivos.api.infraestructura.invalidacion.Invalidacion;
 import festivos.api.infraestructura.repositorios.IPaisRepositorio;
 
 @ExtendWith(MockitoExtension.class)
@@ -25,6 +36,9 @@ class PaisServicioTest {
     @Mock
     private IPaisRepositorio repositorio;
 
+    @Mock
+    private ICanalInvalidaciones canal;
+
     @InjectMocks
     private PaisServicio paisServicio;
 
@@ -64,7 +78,7 @@ class PaisServicioTest {
         // Then
         assertNotNull(resultado);
         assertEquals("Colombia", resultado.getNombre());
-        verify(repositorio, times(2)).findById(1);
+        verify(repositorio, times(1)).findById(1);
     }
 
     @Test
@@ -84,15 +98,52 @@ class PaisServicioTest {
     void testBuscar() {
         // Given
         List<Pais> paises = Arrays.asList(pais);
-        when(repositorio.buscar("Colombia")).thenReturn(paises);
+        when(repositorio.listarNombres()).thenReturn(List.of(new SugerenciaDto(1, "COLOMBIA"), new SugerenciaDto(14, "MÉXICO")));
+        when(repositorio.listarPorIds(List.of(14))).thenReturn(paises);
 
         // When
-        List<Pais> resultado = paisServicio.buscar("Colombia");
+        List<Pais> resultado = paisServicio.buscar("mexi");
 
         // Then
         assertNotNull(resultado);
         assertEquals(1, resultado.size());
-        verify(repositorio).buscar("Colombia");
+        verify(repositorio).listarPorIds(List.of(14));
+        verify(repositorio, never()).buscar(anyString());
+    }
+
+    @Test
+    void testBuscarSinIndiceNormalizaIgual() {
+        // Given
+        List<Pais> paises = Arrays.asList(pais);
+        when(repositorio.listarNombres()).thenThrow(new RuntimeException("Sin conexión"))
+                .thenReturn(List.of(new SugerenciaDto(1, "COLOMBIA"), new SugerenciaDto(14, "MÉXICO")));
+        when(repositorio.listarPorIds(List.of(14))).thenReturn(paises);
+
+        // When
+        List<Pais> resultado = paisServicio.buscar("mexico");
+
+        // Then
+        assertEquals(1, resultado.size());
+        verify(repositorio, never()).buscar(anyString());
+    }
+
+    @Test
+    void testAutocompletarReflejaEscrituras() {
+        // Given
+        when(repositorio.listarNombres()).thenReturn(List.of(new SugerenciaDto(1, "COLOMBIA")));
+        Pais nuevo = new Pais(2, "Costa Rica");
+        when(repositorio.save(nuevo)).thenReturn(nuevo);
+        paisServicio.autocompletar("co", 10);
+
+        // When
+        paisServicio.agregar(nuevo);
+        List<SugerenciaDto> resultado = paisServicio.autocompletar("co", 10);
+
+        // Then
+        assertEquals(2, resultado.size());
+        assertEquals("COLOMBIA", resultado.get(0).getNombre());
+        assertEquals("Costa Rica", resultado.get(1).getNombre());
+        assertEquals(1, paisServicio.autocompletar("ric", 10).size());
     }
 
     @Test
@@ -114,8 +165,7 @@ class PaisServicioTest {
     @Test
     void testModificarExistente() {
         // Given
-        when(repositorio.findById(1)).thenReturn(Optional.of(pais));
-        when(repositorio.save(pais)).thenReturn(pais);
+        when(repositorio.modificar(1, 0, "Colombia")).thenReturn(1);
 
         // When
         Pais resultado = paisServicio.modificar(pais);
@@ -123,25 +173,59 @@ class PaisServicioTest {
         // Then
         assertNotNull(resultado);
         assertEquals("Colombia", resultado.getNombre());
-        verify(repositorio).findById(1);
-        verify(repositorio).save(pais);
+        assertEquals(1, resultado.getVersion());
+        verify(repositorio, never()).findById(anyInt());
+        verify(repositorio, never()).save(any());
+        verify(canal).publicar(Invalidacion.pais(1));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testInvalidacionRemotaReleeSoloEseNombre() {
+        // Given
+        ArgumentCaptor<Consumer<Invalidacion>> suscriptor = ArgumentCaptor.forClass(Consumer.class);
+        verify(canal).suscribir(suscriptor.capture());
+        when(repositorio.listarNombres()).thenReturn(List.of(new SugerenciaDto(1, "COLOMBIA"), new SugerenciaDto(14, "MÉXICO")));
+        paisServicio.autocompletar("co", 10);
+        when(repositorio.findById(1)).thenReturn(Optional.of(new Pais(1, "Colombia Renombrada")));
+
+        // When
+        suscriptor.getValue().accept(Invalidacion.pais(1));
+        suscriptor.getValue().accept(Invalidacion.tipo(1));
+
+        // Then
+        assertEquals("Colombia Renombrada", paisServicio.autocompletar("co", 10).get(0).getNombre());
+        assertEquals(1, paisServicio.autocompletar("mex", 10).size());
+        verify(repositorio).listarNombres();
+        verify(canal, never()).publicar(any());
     }
 
     @Test
     void testModificarNoExistente() {
         // Given
         pais.setId(99);
-        when(repositorio.findById(99)).thenReturn(Optional.empty());
+        when(repositorio.existsById(99)).thenReturn(false);
 
         // When
         Pais resultado = paisServicio.modificar(pais);
 
         // Then
         assertNull(resultado);
-        verify(repositorio).findById(99);
+        verify(repositorio).modificar(99, 0, "Colombia");
         verify(repositorio, never()).save(any());
     }
 
+    @Test
+    void testModificarConVersionVieja() {
+        // Given
+        pais.setVersion(3);
+        when(repositorio.existsById(1)).thenReturn(true);
+
+        // When & Then
+        assertThrows(OptimisticLockingFailureException.class, () -> paisServicio.modificar(pais));
+        assertEquals(3, pais.getVersion());
+    }
+
     @Test
     void testEliminarExitoso() {
         // Given
@@ -167,4 +251,62 @@ class PaisServicioTest {
         assertFalse(resultado);
         verify(repositorio).deleteById(1);
     }
+
+    @Test
+    void testSoloLasEscriturasExitosasCambianLaVersion() {
+        // Given
+        when(repositorio.modificar(1, 0, "Colombia")).thenReturn(1);
+        doThrow(new RuntimeException("Error")).when(repositorio).deleteById(99);
+        when(canal.getVersion(Invalidacion.Catalogo.PAISES)).thenReturn(7L);
+
+        // When
+        paisServicio.modificar(pais);
+        pais.setId(99);
+        paisServicio.modificar(pais);
+        paisServicio.eliminar(99);
+
+        // Then: la versión es la del canal, que avanza con cada publicación
+        verify(canal, times(1)).publicar(any());
+        assertEquals(7L, paisServicio.getVersion());
+    }
+
+    @Test
+    void testListarPorLlave() {
+        // Given
+        when(repositorio.listarDespuesDe("Argentina", 3, PageRequest.of(0, 1)))
+                .thenReturn(new SliceImpl<>(List.of(pais), PageRequest.of(0, 1), true));
+
+        // When
+        PaginaDto<Pais> resultado = paisServicio.listar(new PaginacionDto("Argentina", 3, 1));
+
+        // Then
+        assertEquals(1, resultado.getContenido().size());
+        assertTrue(resultado.isHayMas());
+        assertEquals(pais.getNombre(), resultado.getDespuesNombre());
+        assertEquals(1, resultado.getDespuesId());
+        verify(repositorio, never()).listar(any());
+    }
+
+    @Test
+    void testBuscarPorPaginaAcotaElLimite() {
+        // Given
+        when(repositorio.buscar(eq("a"), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(), PageRequest.of(2, 500), false));
+
+        // When
+        PaginaDto<Pais> resultado = paisServicio.buscar("a", new PaginacionDto(2, 100000));
+
+        // Then
+        assertTrue(resultado.getContenido().isEmpty());
+        assertFalse(resultado.isHayMas());
+        verify(repositorio).buscar("a", PageRequest.of(2, 500));
+    }
+
+    @Test
+    void testPaginacionInvalida() {
+        assertThrows(IllegalArgumentException.class, () -> paisServicio.listar(new PaginacionDto(0, 0)));
+        assertThrows(IllegalArgumentException.class, () -> paisServicio.listar(new PaginacionDto(-1, 10)));
+        assertThrows(IllegalArgumentException.class, () -> paisServicio.listar(new PaginacionDto("Colombia", null, 10)));
+        verifyNoInteractions(repositorio);
+    }
 }
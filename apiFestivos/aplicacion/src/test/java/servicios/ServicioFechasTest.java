@@ -0,0 +1,98 @@
+package festivos.api.aplicacion.servicios;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.DateTimeException;
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.Test;
+
+import festivos.api.aplicacion.calendario.DiasHabiles;
+import festivos.api.core.servicios.IFestivoServicio;
+
+class ServicioFechasTest {
+
+    @Test
+    void testDiaEpocaCoincideConLocalDate() {
+        for (LocalDate fecha = LocalDate.of(1583, 1, 1); fecha.getYear() <= 2400; fecha = fecha.plusDays(1)) {
+            int diaEpoca = (int) fecha.toEpochDay();
+            assertEquals(diaEpoca, ServicioFechas.diaEpoca(fecha.getYear(), fecha.getMonthValue(), fecha.getDayOfMonth()));
+            assertEquals(fecha.getYear() * 10000 + fecha.getMonthValue() * 100 + fecha.getDayOfMonth(),
+                    ServicioFechas.empaquetar(diaEpoca));
+            assertEquals(fecha.getDayOfYear(), ServicioFechas.diaDelAño(diaEpoca));
+            assertEquals(fecha.getDayOfWeek().getValue(), ServicioFechas.diaSemana(diaEpoca));
+            assertEquals(ServicioFechas.siguienteLunes(fecha).toEpochDay(), ServicioFechas.siguienteLunes(diaEpoca));
+        }
+    }
+
+    @Test
+    void testPascuaPrimitivaCoincideConLocalDate() {
+        for (int año = 1900; año <= 2099; año++)
+            assertEquals(ServicioFechas.getPascua(año).toEpochDay(), ServicioFechas.getPascuaDiaEpoca(año));
+        assertEquals(LocalDate.of(2024, 3, 31), ServicioFechas.getPascua(2024));
+    }
+
+    @Test
+    void testTablaPascuaCoincideConAlgoritmo() {
+        for (int año = ServicioFechas.AÑO_MIN_PASCUA; año <= ServicioFechas.AÑO_MAX_PASCUA; año++) {
+            assertEquals(ServicioFechas.calcularPascuaDiaEpoca(año), ServicioFechas.getPascuaDiaEpoca(año));
+            assertEquals(pascuaOudin(año), ServicioFechas.getPascua(año), "Pascua " + año);
+        }
+    }
+
+    @Test
+    void testPascuaFechasConocidas() {
+        assertEquals(LocalDate.of(1818, 3, 22), ServicioFechas.getPascua(1818));
+        assertEquals(LocalDate.of(1981, 4, 19), ServicioFechas.getPascua(1981));
+        assertEquals(LocalDate.of(2019, 4, 21), ServicioFechas.getPascua(2019));
+        assertEquals(LocalDate.of(2038, 4, 25), ServicioFechas.getPascua(2038));
+        assertEquals(LocalDate.of(2049, 4, 18), ServicioFechas.getPascua(2049));
+        assertEquals(LocalDate.of(2024, 3, 24), ServicioFechas.getInicioSemanaSanta(2024));
+    }
+
+    @Test
+    void testPascuaFueraDeLaTabla() {
+        assertEquals(pascuaOudin(4100), ServicioFechas.getPascua(4100));
+        assertEquals(pascuaOudin(1582), ServicioFechas.getPascua(1582));
+    }
+
+    /** Algoritmo de Oudin (1940), independiente del usado en producción. */
+    private static LocalDate pascuaOudin(int año) {
+        int g = año % 19;
+        int c = año / 100;
+        int h = (c - c / 4 - (8 * c + 13) / 25 + 19 * g + 15) % 30;
+        int i = h - (h / 28) * (1 - (29 / (h + 1)) * ((21 - g) / 11));
+        int j = (año + año / 4 + i + 2 - c + c / 4) % 7;
+        int l = i - j;
+        int mes = 3 + (l + 40) / 44;
+        int dia = l + 28 - 31 * (mes / 4);
+        return LocalDate.of(año, mes, dia);
+    }
+
+    @Test
+    void testEmpaquetarYDesempaquetar() {
+        int diaEpoca = ServicioFechas.desempaquetar(20240229);
+        assertEquals(LocalDate.of(2024, 2, 29).toEpochDay(), diaEpoca);
+        assertEquals(20240229, ServicioFechas.empaquetar(diaEpoca));
+    }
+
+    @Test
+    void testBordesDelRangoAdmitidoNoSeDesbordan() {
+        // El año máximo más un recorrido completo todavía se empaqueta en un int
+        for (int año : new int[] { IFestivoServicio.AÑO_MIN, IFestivoServicio.AÑO_MAX + DiasHabiles.MAXIMO_AÑOS }) {
+            for (var fecha : new LocalDate[] { LocalDate.of(año, 1, 1), LocalDate.of(año, 12, 31) }) {
+                int diaEpoca = ServicioFechas.diaEpoca(año, fecha.getMonthValue(), fecha.getDayOfMonth());
+                assertEquals(fecha.toEpochDay(), diaEpoca);
+                assertEquals(año * 10000 + fecha.getMonthValue() * 100 + fecha.getDayOfMonth(),
+                        ServicioFechas.empaquetar(diaEpoca));
+                assertEquals(año, ServicioFechas.año(diaEpoca));
+            }
+        }
+    }
+
+    @Test
+    void testDiaEpocaFechaInexistente() {
+        assertThrows(DateTimeException.class, () -> ServicioFechas.diaEpoca(2023, 2, 29));
+        assertThrows(DateTimeException.class, () -> ServicioFechas.diaEpoca(2024, 13, 1));
+    }
+}
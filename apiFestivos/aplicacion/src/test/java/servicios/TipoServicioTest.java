@@ -15,8 +15,16 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.dao.OptimisticLockingFailureException;
 
+import festivos.api.dominio.DTOs.PaginaDto;
+import festivos.api.dominio.DTOs.PaginacionDto;
 import festivos.api.dominio.entidades.Tipo;
+import festivos.api.infraestructura.invalidacion.ICanalInvalidaciones;
+import festivos.api.infraestructura.invalidacion.Invalidacion;
 import festivos.api.infraestructura.repositorios.ITipoRepositorio;
 
 @ExtendWith(MockitoExtension.class)
@@ -25,6 +33,9 @@ class TipoServicioTest {
     @Mock
     private ITipoRepositorio repositorio;
 
+    @Mock
+    private ICanalInvalidaciones canal;
+
     @InjectMocks
     private TipoServicio tipoServicio;
 
@@ -64,7 +75,7 @@ class TipoServicioTest {
         // Then
         assertNotNull(resultado);
         assertEquals("Fijo", resultado.getNombre());
-        verify(repositorio, times(2)).findById(1);
+        verify(repositorio, times(1)).findById(1);
     }
 
     @Test
@@ -114,8 +125,7 @@ class TipoServicioTest {
     @Test
     void testModificarExistente() {
         // Given
-        when(repositorio.findById(1)).thenReturn(Optional.of(tipo));
-        when(repositorio.save(tipo)).thenReturn(tipo);
+        when(repositorio.modificar(1, 0, "Fijo")).thenReturn(1);
 
         // When
         Tipo resultado = tipoServicio.modificar(tipo);
@@ -123,25 +133,38 @@ class TipoServicioTest {
         // Then
         assertNotNull(resultado);
         assertEquals("Fijo", resultado.getNombre());
-        verify(repositorio).findById(1);
-        verify(repositorio).save(tipo);
+        assertEquals(1, resultado.getVersion());
+        verify(repositorio, never()).findById(anyInt());
+        verify(repositorio, never()).save(any());
+        verify(canal).publicar(Invalidacion.tipo(1));
     }
 
     @Test
     void testModificarNoExistente() {
         // Given
         tipo.setId(99);
-        when(repositorio.findById(99)).thenReturn(Optional.empty());
+        when(repositorio.existsById(99)).thenReturn(false);
 
         // When
         Tipo resultado = tipoServicio.modificar(tipo);
 
         // Then
         assertNull(resultado);
-        verify(repositorio).findById(99);
+        verify(repositorio).modificar(99, 0, "Fijo");
         verify(repositorio, never()).save(any());
     }
 
+    @Test
+    void testModificarConVersionVieja() {
+        // Given
+        tipo.setVersion(3);
+        when(repositorio.existsById(1)).thenReturn(true);
+
+        // When & Then
+        assertThrows(OptimisticLockingFailureException.class, () -> tipoServicio.modificar(tipo));
+        assertEquals(3, tipo.getVersion());
+    }
+
     @Test
     void testEliminarExitoso() {
         // Given
@@ -167,4 +190,54 @@ class TipoServicioTest {
         assertFalse(resultado);
         verify(repositorio).deleteById(1);
     }
+
+    @Test
+    void testSoloLasEscriturasExitosasCambianLaVersion() {
+        // Given
+        when(repositorio.modificar(1, 0, "Fijo")).thenReturn(1);
+        doThrow(new RuntimeException("Error")).when(repositorio).deleteById(99);
+        when(canal.getVersion(Invalidacion.Catalogo.TIPOS)).thenReturn(7L);
+
+        // When
+        tipoServicio.modificar(tipo);
+        tipo.setId(99);
+        tipoServicio.modificar(tipo);
+        tipoServicio.eliminar(99);
+
+        // Then: la versión es la del canal, que avanza con cada publicación
+        verify(canal, times(1)).publicar(any());
+        assertEquals(7L, tipoServicio.getVersion());
+    }
+
+    @Test
+    void testListarPorLlave() {
+        // Given
+        when(repositorio.listarDespuesDe("Argentina", 3, PageRequest.of(0, 1)))
+                .thenReturn(new SliceImpl<>(List.of(tipo), PageRequest.of(0, 1), true));
+
+        // When
+        PaginaDto<Tipo> resultado = tipoServicio.listar(new PaginacionDto("Argentina", 3, 1));
+
+        // Then
+        assertEquals(1, resultado.getContenido().size());
+        assertTrue(resultado.isHayMas());
+        assertEquals(tipo.getNombre(), resultado.getDespuesNombre());
+        assertEquals(1, resultado.getDespuesId());
+        verify(repositorio, never()).listar(any());
+    }
+
+    @Test
+    void testBuscarPorPaginaAcotaElLimite() {
+        // Given
+        when(repositorio.buscar(eq("a"), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(), PageRequest.of(2, 500), false));
+
+        // When
+        PaginaDto<Tipo> resultado = tipoServicio.buscar("a", new PaginacionDto(2, 100000));
+
+        // Then
+        assertTrue(resultado.getContenido().isEmpty());
+        assertFalse(resultado.isHayMas());
+        verify(repositorio).buscar("a", PageRequest.of(2, 500));
+    }
 }
@@ -0,0 +1,34 @@
+package festivos.api.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Punto de entrada de {@code benchmarks.jar}. Acepta las mismas opciones que
+ * la línea de comandos de JMH y agrega siempre el perfilador de GC, para
+ * reportar {@code gc.alloc.rate.norm} (bytes asignados por operación).
+ *
+ * <pre>
+ * mvn -pl benchmarks -am package -DskipTests
+ * java -jar benchmarks/target/benchmarks.jar                 # todos
+ * java -jar benchmarks/target/benchmarks.jar FestivoServicio # por nombre
+ * </pre>
+ */
+public final class Benchmarks {
+
+    private Benchmarks() {
+    }
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        var linea = new CommandLineOptions(args);
+        var opciones = new OptionsBuilder()
+                .parent(linea)
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(opciones).run();
+    }
+}
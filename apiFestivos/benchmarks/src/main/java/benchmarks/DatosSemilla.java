@@ -0,0 +1,51 @@
+package festivos.api.benchmarks;
+
+import java.util.List;
+import java.util.Map;
+
+import festivos.api.dominio.DTOs.ReglaFestivoDto;
+
+/**
+ * Reglas de festivos de Colombia y Ecuador tal como quedan en
+ * {@code bd/DML - Festivos.sql}, para no depender de la base de datos.
+ */
+final class DatosSemilla {
+
+    static final int COLOMBIA = 1;
+    static final int ECUADOR = 10;
+
+    static final Map<Integer, List<ReglaFestivoDto>> REGLAS = Map.of(
+            COLOMBIA, List.of(
+                    new ReglaFestivoDto(1, "Año nuevo", 1, 1, 0, 1),
+                    new ReglaFestivoDto(2, "Santos Reyes", 6, 1, 0, 2),
+                    new ReglaFestivoDto(3, "San José", 19, 3, 0, 2),
+                    new ReglaFestivoDto(4, "Jueves Santo", 0, 0, -3, 3),
+                    new ReglaFestivoDto(5, "Viernes Santo", 0, 0, -2, 3),
+                    new ReglaFestivoDto(6, "Domingo de Pascua", 0, 0, 0, 3),
+                    new ReglaFestivoDto(7, "Día del Trabajo", 1, 5, 0, 1),
+                    new ReglaFestivoDto(8, "Ascensión del Señor", 0, 0, 40, 4),
+                    new ReglaFestivoDto(9, "Corpus Christi", 0, 0, 61, 4),
+                    new ReglaFestivoDto(10, "Sagrado Corazón de Jesús", 0, 0, 68, 4),
+                    new ReglaFestivoDto(11, "San Pedro y San Pablo", 29, 6, 0, 2),
+                    new ReglaFestivoDto(12, "Independencia Colombia", 20, 7, 0, 1),
+                    new ReglaFestivoDto(13, "Batalla de Boyacá", 7, 8, 0, 1),
+                    new ReglaFestivoDto(14, "Asunción de la Virgen", 15, 8, 0, 2),
+                    new ReglaFestivoDto(15, "Día de la Raza", 12, 10, 0, 2),
+                    new ReglaFestivoDto(16, "Todos los santos", 1, 11, 0, 2),
+                    new ReglaFestivoDto(17, "Independencia de Cartagena", 11, 11, 0, 2),
+                    new ReglaFestivoDto(18, "Inmaculada Concepción", 8, 12, 0, 1),
+                    new ReglaFestivoDto(19, "Navidad", 25, 12, 0, 1)),
+            ECUADOR, List.of(
+                    new ReglaFestivoDto(20, "Año nuevo", 1, 1, 0, 1),
+                    new ReglaFestivoDto(21, "Carnaval 1", 0, 0, -43, 3),
+                    new ReglaFestivoDto(22, "Carnaval 2", 0, 0, -42, 3),
+                    new ReglaFestivoDto(23, "Viernes Santo", 0, 0, -2, 3),
+                    new ReglaFestivoDto(24, "Día del Trabajo", 1, 5, 0, 5),
+                    new ReglaFestivoDto(25, "Batalla de Pichincha", 24, 5, 0, 1),
+                    new ReglaFestivoDto(26, "Primer Grito de Independencia", 10, 8, 0, 5),
+                    new ReglaFestivoDto(27, "Independencia de Guayaquil", 9, 10, 0, 5),
+                    new ReglaFestivoDto(28, "Día de los Difuntos", 2, 11, 0, 5)));
+
+    private DatosSemilla() {
+    }
+}
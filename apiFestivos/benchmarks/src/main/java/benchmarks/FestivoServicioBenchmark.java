@@ -0,0 +1,124 @@
+package festivos.api.benchmarks;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import festivos.api.aplicacion.calendario.CacheCalendarios;
+import festivos.api.aplicacion.calendario.RegistroTiposRegla;
+import festivos.api.aplicacion.servicios.FestivoServicio;
+import festivos.api.dominio.DTOs.FestivoDto;
+import festivos.api.dominio.DTOs.VerificacionDto;
+
+/**
+ * Caminos calientes de {@link FestivoServicio}: festivos de un año (con y sin
+ * cache), verificación de una fecha y de un lote. Los métodos
+ * {@code *Concurrente} repiten el caso con todos los núcleos disponibles
+ * contra el mismo servicio.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FestivoServicioBenchmark {
+
+    /** Servicio compartido por todos los hilos, con la cache ya caliente. */
+    @State(Scope.Benchmark)
+    public static class Compartido {
+        FestivoServicio servicio;
+        List<VerificacionDto> lote;
+
+        @Setup(Level.Trial)
+        public void preparar() {
+            servicio = new FestivoServicio(RepositorioEnMemoria.crear(DatosSemilla.REGLAS),
+                    new CacheCalendarios(512), new RegistroTiposRegla());
+            lote = new ArrayList<>();
+            var fecha = LocalDate.of(2024, 1, 1);
+            for (int i = 0; i < 1000; i++)
+                lote.add(new VerificacionDto(i % 2 == 0 ? DatosSemilla.COLOMBIA : DatosSemilla.ECUADOR,
+                        fecha.plusDays(i)));
+            servicio.verificar(lote);
+        }
+    }
+
+    /** Servicio propio de cada hilo cuya cache se vacía antes de cada llamada. */
+    @State(Scope.Thread)
+    public static class SinCache {
+        FestivoServicio servicio;
+        CacheCalendarios cache;
+
+        @Setup(Level.Trial)
+        public void preparar() {
+            cache = new CacheCalendarios(512);
+            servicio = new FestivoServicio(RepositorioEnMemoria.crear(DatosSemilla.REGLAS),
+                    cache, new RegistroTiposRegla());
+        }
+
+        @Setup(Level.Invocation)
+        public void vaciar() {
+            cache.invalidarTodo();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Consulta {
+        int año = 2024;
+        LocalDate fecha = LocalDate.of(2024, 6, 3);
+    }
+
+    @Benchmark
+    public List<FestivoDto> getFechasFestivos(Compartido estado, Consulta consulta) {
+        return estado.servicio.listar(DatosSemilla.COLOMBIA, consulta.año);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public List<FestivoDto> getFechasFestivosConcurrente(Compartido estado, Consulta consulta) {
+        return estado.servicio.listar(DatosSemilla.COLOMBIA, consulta.año);
+    }
+
+    /** Incluye la compilación de reglas y la evaluación del año. */
+    @Benchmark
+    public List<FestivoDto> getFechasFestivosSinCache(SinCache estado, Consulta consulta) {
+        return estado.servicio.listar(DatosSemilla.COLOMBIA, consulta.año);
+    }
+
+    @Benchmark
+    public boolean verificar(Compartido estado, Consulta consulta) {
+        return estado.servicio.verificar(DatosSemilla.COLOMBIA, consulta.fecha);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public boolean verificarConcurrente(Compartido estado, Consulta consulta) {
+        return estado.servicio.verificar(DatosSemilla.COLOMBIA, consulta.fecha);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<VerificacionDto> verificarLote(Compartido estado) {
+        return estado.servicio.verificar(estado.lote);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<VerificacionDto> verificarLoteConcurrente(Compartido estado) {
+        return estado.servicio.verificar(estado.lote);
+    }
+}
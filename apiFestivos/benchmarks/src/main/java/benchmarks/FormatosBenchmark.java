@@ -0,0 +1,81 @@
+package festivos.api.benchmarks;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+
+import festivos.api.aplicacion.calendario.CacheCalendarios;
+import festivos.api.aplicacion.calendario.RegistroTiposRegla;
+import festivos.api.aplicacion.servicios.FestivoServicio;
+import festivos.api.dominio.DTOs.FestivoDto;
+import festivos.api.dominio.serializacion.ModuloFechasEpoca;
+
+/**
+ * JSON contra CBOR para una década de {@link FestivoDto}, con cada mapper
+ * configurado como en la API: JSON con fechas ISO-8601 y CBOR con días desde
+ * 1970-01-01. El tamaño de cada carga se imprime al preparar el estado.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FormatosBenchmark {
+
+    private static final TypeReference<List<FestivoDto>> LISTA = new TypeReference<>() {
+    };
+
+    @Param({ "json", "cbor" })
+    public String formato;
+
+    private ObjectWriter escritor;
+    private ObjectReader lector;
+    private List<FestivoDto> decada;
+    private byte[] carga;
+
+    @Setup
+    public void preparar() throws IOException {
+        ObjectMapper mapper = formato.equals("cbor")
+                ? CBORMapper.builder().findAndAddModules().addModule(new ModuloFechasEpoca()).build()
+                : JsonMapper.builder().findAndAddModules().disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build();
+        escritor = mapper.writerFor(LISTA);
+        lector = mapper.readerFor(LISTA);
+        var servicio = new FestivoServicio(RepositorioEnMemoria.crear(DatosSemilla.REGLAS),
+                new CacheCalendarios(512), new RegistroTiposRegla());
+        decada = servicio.listar(DatosSemilla.COLOMBIA, LocalDate.of(2020, 1, 1), LocalDate.of(2029, 12, 31));
+        carga = escritor.writeValueAsBytes(decada);
+        System.out.printf("%n%s: %d festivos, %d bytes%n", formato, decada.size(), carga.length);
+    }
+
+    @Benchmark
+    public byte[] codificar() throws IOException {
+        return escritor.writeValueAsBytes(decada);
+    }
+
+    @Benchmark
+    public List<FestivoDto> decodificar() throws IOException {
+        return lector.readValue(carga);
+    }
+}
@@ -0,0 +1,39 @@
+package festivos.api.benchmarks;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Map;
+
+import festivos.api.dominio.DTOs.ReglaFestivoDto;
+import festivos.api.infraestructura.repositorios.IFestivoRepositorio;
+
+/**
+ * {@link IFestivoRepositorio} sin base de datos: solo responde
+ * {@code listarReglasPorPais}, que es lo único que usa el cálculo de
+ * calendarios. Cualquier otro método lanza {@link UnsupportedOperationException}.
+ */
+final class RepositorioEnMemoria {
+
+    private RepositorioEnMemoria() {
+    }
+
+    static IFestivoRepositorio crear(Map<Integer, List<ReglaFestivoDto>> reglas) {
+        return (IFestivoRepositorio) Proxy.newProxyInstance(
+                IFestivoRepositorio.class.getClassLoader(),
+                new Class<?>[] { IFestivoRepositorio.class },
+                (proxy, metodo, args) -> {
+                    switch (metodo.getName()) {
+                        case "listarReglasPorPais":
+                            return reglas.getOrDefault((Integer) args[0], List.of());
+                        case "toString":
+                            return "RepositorioEnMemoria" + reglas.keySet();
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "equals":
+                            return proxy == args[0];
+                        default:
+                            throw new UnsupportedOperationException(metodo.getName());
+                    }
+                });
+    }
+}
@@ -0,0 +1,75 @@
+package festivos.api.benchmarks;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+
+import festivos.api.aplicacion.calendario.CacheCalendarios;
+import festivos.api.aplicacion.calendario.RegistroTiposRegla;
+import festivos.api.aplicacion.servicios.FestivoServicio;
+import festivos.api.dominio.DTOs.FestivoDto;
+
+/**
+ * Serialización JSON de listas de {@link FestivoDto} con la misma
+ * configuración de fechas que usa la API (ISO-8601, sin timestamps).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializacionBenchmark {
+
+    private ObjectWriter escritor;
+    private List<FestivoDto> año;
+    private List<FestivoDto> decada;
+
+    @Setup
+    public void preparar() {
+        escritor = JsonMapper.builder()
+                .findAndAddModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build()
+                .writerFor(new TypeReference<List<FestivoDto>>() {
+                });
+        var servicio = new FestivoServicio(RepositorioEnMemoria.crear(DatosSemilla.REGLAS),
+                new CacheCalendarios(512), new RegistroTiposRegla());
+        año = servicio.listar(DatosSemilla.COLOMBIA, 2024);
+        decada = servicio.listar(DatosSemilla.COLOMBIA, LocalDate.of(2020, 1, 1), LocalDate.of(2029, 12, 31));
+    }
+
+    @Benchmark
+    public byte[] serializarAnual() throws JsonProcessingException {
+        return escritor.writeValueAsBytes(año);
+    }
+
+    @Benchmark
+    public byte[] serializarDecada() throws JsonProcessingException {
+        return escritor.writeValueAsBytes(decada);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public byte[] serializarAnualConcurrente() throws JsonProcessingException {
+        return escritor.writeValueAsBytes(año);
+    }
+}
@@ -0,0 +1,64 @@
+package festivos.api.benchmarks;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import festivos.api.aplicacion.servicios.ServicioFechas;
+
+/**
+ * Aritmética de fechas de las reglas: variantes {@link LocalDate} (borde de
+ * la API) frente a días época en {@code int}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ServicioFechasBenchmark {
+
+    // No final: evita que el JIT pliegue las constantes
+    private int año = 2024;
+    private LocalDate fecha = LocalDate.of(2024, 8, 15);
+    private int diaEpoca = (int) fecha.toEpochDay();
+
+    @Benchmark
+    public LocalDate getPascua() {
+        return ServicioFechas.getPascua(año);
+    }
+
+    @Benchmark
+    public int getPascuaDiaEpoca() {
+        return ServicioFechas.getPascuaDiaEpoca(año);
+    }
+
+    @Benchmark
+    public LocalDate siguienteLunes() {
+        return ServicioFechas.siguienteLunes(fecha);
+    }
+
+    @Benchmark
+    public int siguienteLunesDiaEpoca() {
+        return ServicioFechas.siguienteLunes(diaEpoca);
+    }
+
+    @Benchmark
+    public int diaEpoca() {
+        return ServicioFechas.diaEpoca(año, 8, 15);
+    }
+
+    @Benchmark
+    public int empaquetar() {
+        return ServicioFechas.empaquetar(diaEpoca);
+    }
+}
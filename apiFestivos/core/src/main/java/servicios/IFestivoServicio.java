@@ -1,27 +1,90 @@
 package festivos.api.core.servicios;
 
+import java.time.DayOfWeek;
 import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.ObjIntConsumer;
 
-import festivos.api.dominio.DTOs.FestivoDto;
+import festivos.api.dominio.DTOs.*;
 import festivos.api.dominio.entidades.*;
 
 public interface IFestivoServicio {
 
+    /**
+     * Años admitidos en las consultas por fecha. Fuera de este rango los
+     * cálculos en días época ({@code int}) y las fechas empaquetadas
+     * {@code aaaammdd} se desbordan; el tope deja margen para los recorridos
+     * de varios años.
+     */
+    public static final int AÑO_MIN = 1;
+    public static final int AÑO_MAX = 200000;
+
     public List<Festivo> listar();
 
+    /**
+     * Entrega los festivos de un país, o todos si {@code idPais} es
+     * {@code null}, uno por uno a {@code visitante} en una transacción de
+     * solo lectura, sin cargarlos todos en memoria. Cada festivo deja de estar
+     * administrado después de la visita, así que no se debe guardar.
+     */
+    public void recorrer(Integer idPais, Consumer<Festivo> visitante);
+
     public Festivo obtener(int id);
 
     public List<Festivo> buscar(String nombre);
 
+    public PaginaDto<Festivo> listar(PaginacionDto paginacion);
+
+    public PaginaDto<Festivo> buscar(String nombre, PaginacionDto paginacion);
+
+    public List<SugerenciaDto> autocompletar(String prefijo, int limite);
+
     public Festivo agregar(Festivo festivo);
 
     public Festivo modificar(Festivo festivo);
 
+    /**
+     * Aplica los campos no nulos de {@code cambios} si la versión coincide.
+     * Devuelve la nueva versión, o {@code null} si el festivo no existe; lanza
+     * {@code OptimisticLockingFailureException} si otra escritura se adelantó.
+     */
+    public Integer modificar(int id, CambiosFestivoDto cambios);
+
     public boolean eliminar(int id);
 
+    /**
+     * Inserta o actualiza festivos en lote, con (país, nombre) como llave, en
+     * una sola transacción. Las filas inválidas no se escriben y se reportan
+     * con su número en el resultado.
+     */
+    public ResultadoImportacionDto importar(Iterator<ImportacionFestivoDto> filas);
+
     public boolean verificar(int idPais, LocalDate fecha);
 
+    public List<VerificacionDto> verificar(List<VerificacionDto> consultas);
+
     public List<FestivoDto> listar(int idPais, int año);
 
+    public List<FestivoDto> listar(int idPais, LocalDate desde, LocalDate hasta);
+
+    /**
+     * Como {@link #listar(int, LocalDate, LocalDate)}, pero entrega cada
+     * festivo a {@code visitante} (nombre y día época) a medida que se
+     * calcula, sin armar la lista, en orden de fecha.
+     */
+    public void recorrer(int idPais, LocalDate desde, LocalDate hasta, ObjIntConsumer<String> visitante);
+
+    public LocalDate agregarDiasHabiles(int idPais, LocalDate fecha, int dias, Collection<DayOfWeek> finesDeSemana);
+
+    public int contarDiasHabiles(int idPais, LocalDate desde, LocalDate hasta, Collection<DayOfWeek> finesDeSemana);
+
+    /** Cambia con cada escritura; identifica la versión de los datos (ETag). */
+    public long getVersion();
+
+    /** Momento de la última escritura, en milisegundos desde la época. */
+    public long getUltimaModificacion();
+
 }
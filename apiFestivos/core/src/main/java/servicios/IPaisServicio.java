@@ -1,6 +1,7 @@
 package festivos.api.core.servicios;
 
 import java.util.List;
+import festivos.api.dominio.DTOs.*;
 import festivos.api.dominio.entidades.*;
 
 
@@ -12,10 +13,20 @@ public interface IPaisServicio {
 
     public List<Pais> buscar(String nombre);
 
+    public PaginaDto<Pais> listar(PaginacionDto paginacion);
+
+    public PaginaDto<Pais> buscar(String nombre, PaginacionDto paginacion);
+
+    public List<SugerenciaDto> autocompletar(String prefijo, int limite);
+
     public Pais agregar(Pais pais);
 
     public Pais modificar(Pais pais);
 
     public boolean eliminar(int id);
 
+    public long getVersion();
+
+    public long getUltimaModificacion();
+
 }
@@ -1,6 +1,7 @@
 package festivos.api.core.servicios;
 
 import java.util.List;
+import festivos.api.dominio.DTOs.*;
 import festivos.api.dominio.entidades.*;
 
 public interface ITipoServicio {
@@ -11,9 +12,18 @@ public interface ITipoServicio {
 
     public List<Tipo> buscar(String nombre);
 
+    public PaginaDto<Tipo> listar(PaginacionDto paginacion);
+
+    public PaginaDto<Tipo> buscar(String nombre, PaginacionDto paginacion);
+
     public Tipo agregar(Tipo tipo);
 
     public Tipo modificar(Tipo tipo);
 
     public boolean eliminar(int id);
-}
\ No newline at end of file
+
+    public long getVersion();
+
+    public long getUltimaModificacion();
+
+}
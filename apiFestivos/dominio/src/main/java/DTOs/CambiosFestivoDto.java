@@ -0,0 +1,87 @@
+package festivos.api.dominio.DTOs;
+
+/**
+ * Modificación parcial de un festivo: los campos nulos no cambian.
+ * {@code version} es obligatoria y debe ser la que el cliente leyó.
+ */
+public class CambiosFestivoDto {
+
+    private Integer version;
+    private String nombre;
+    private Integer dia;
+    private Integer mes;
+    private Integer diasPascua;
+    private Integer idPais;
+    private Integer idTipo;
+
+    public CambiosFestivoDto() {
+    }
+
+    public CambiosFestivoDto(Integer version, String nombre, Integer dia, Integer mes, Integer diasPascua,
+            Integer idPais, Integer idTipo) {
+        this.version = version;
+        this.nombre = nombre;
+        this.dia = dia;
+        this.mes = mes;
+        this.diasPascua = diasPascua;
+        this.idPais = idPais;
+        this.idTipo = idTipo;
+    }
+
+    public Integer getVersion() {
+        return version;
+    }
+
+    public void setVersion(Integer version) {
+        this.version = version;
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    public void setNombre(String nombre) {
+        this.nombre = nombre;
+    }
+
+    public Integer getDia() {
+        return dia;
+    }
+
+    public void setDia(Integer dia) {
+        this.dia = dia;
+    }
+
+    public Integer getMes() {
+        return mes;
+    }
+
+    public void setMes(Integer mes) {
+        this.mes = mes;
+    }
+
+    public Integer getDiasPascua() {
+        return diasPascua;
+    }
+
+    public void setDiasPascua(Integer diasPascua) {
+        this.diasPascua = diasPascua;
+    }
+
+    public Integer getIdPais() {
+        return idPais;
+    }
+
+    public void setIdPais(Integer idPais) {
+        this.idPais = idPais;
+    }
+
+    public Integer getIdTipo() {
+        return idTipo;
+    }
+
+    public void setIdTipo(Integer idTipo) {
+        this.idTipo = idTipo;
+    }
+
+}
@@ -0,0 +1,100 @@
+package festivos.api.dominio.DTOs;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+/**
+ * Una fila de la importación masiva de festivos. Los campos numéricos pueden
+ * faltar: la validación los reporta en el resultado junto con {@code fila}.
+ */
+public class ImportacionFestivoDto {
+
+    private int fila;
+    private String nombre;
+    private Integer dia;
+    private Integer mes;
+    private Integer diasPascua;
+    private Integer idPais;
+    private Integer idTipo;
+    @JsonIgnore
+    private String error;
+
+    public ImportacionFestivoDto() {
+    }
+
+    public ImportacionFestivoDto(int fila, String nombre, Integer dia, Integer mes, Integer diasPascua, Integer idPais,
+            Integer idTipo) {
+        this.fila = fila;
+        this.nombre = nombre;
+        this.dia = dia;
+        this.mes = mes;
+        this.diasPascua = diasPascua;
+        this.idPais = idPais;
+        this.idTipo = idTipo;
+    }
+
+    public int getFila() {
+        return fila;
+    }
+
+    public void setFila(int fila) {
+        this.fila = fila;
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    public void setNombre(String nombre) {
+        this.nombre = nombre;
+    }
+
+    public Integer getDia() {
+        return dia;
+    }
+
+    public void setDia(Integer dia) {
+        this.dia = dia;
+    }
+
+    public Integer getMes() {
+        return mes;
+    }
+
+    public void setMes(Integer mes) {
+        this.mes = mes;
+    }
+
+    public Integer getDiasPascua() {
+        return diasPascua;
+    }
+
+    public void setDiasPascua(Integer diasPascua) {
+        this.diasPascua = diasPascua;
+    }
+
+    public Integer getIdPais() {
+        return idPais;
+    }
+
+    public void setIdPais(Integer idPais) {
+        this.idPais = idPais;
+    }
+
+    public Integer getIdTipo() {
+        return idTipo;
+    }
+
+    public void setIdTipo(Integer idTipo) {
+        this.idTipo = idTipo;
+    }
+
+    /** Error de formato detectado al leer la fila (por ejemplo, un número mal escrito en el CSV). */
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+}
@@ -0,0 +1,58 @@
+package festivos.api.dominio.DTOs;
+
+import java.util.List;
+
+/**
+ * Una página de resultados. {@code despuesNombre} y {@code despuesId} son la
+ * llave del último elemento, para pedir la siguiente página por llave.
+ */
+public class PaginaDto<T> {
+
+    private List<T> contenido;
+    private boolean hayMas;
+    private String despuesNombre;
+    private Integer despuesId;
+
+    public PaginaDto() {
+    }
+
+    public PaginaDto(List<T> contenido, boolean hayMas, String despuesNombre, Integer despuesId) {
+        this.contenido = contenido;
+        this.hayMas = hayMas;
+        this.despuesNombre = despuesNombre;
+        this.despuesId = despuesId;
+    }
+
+    public List<T> getContenido() {
+        return contenido;
+    }
+
+    public void setContenido(List<T> contenido) {
+        this.contenido = contenido;
+    }
+
+    public boolean isHayMas() {
+        return hayMas;
+    }
+
+    public void setHayMas(boolean hayMas) {
+        this.hayMas = hayMas;
+    }
+
+    public String getDespuesNombre() {
+        return despuesNombre;
+    }
+
+    public void setDespuesNombre(String despuesNombre) {
+        this.despuesNombre = despuesNombre;
+    }
+
+    public Integer getDespuesId() {
+        return despuesId;
+    }
+
+    public void setDespuesId(Integer despuesId) {
+        this.despuesId = despuesId;
+    }
+
+}
@@ -0,0 +1,70 @@
+package festivos.api.dominio.DTOs;
+
+/**
+ * Parámetros de paginación de un listado. Por número de página
+ * ({@code pagina}, {@code limite}) o por llave ({@code despuesNombre},
+ * {@code despuesId}, {@code limite}): la llave continúa justo después del
+ * último elemento recibido y no depende de cuántas filas hay antes.
+ */
+public class PaginacionDto {
+
+    private Integer pagina;
+    private Integer limite;
+    private String despuesNombre;
+    private Integer despuesId;
+
+    public PaginacionDto() {
+    }
+
+    public PaginacionDto(Integer pagina, Integer limite) {
+        this.pagina = pagina;
+        this.limite = limite;
+    }
+
+    public PaginacionDto(String despuesNombre, Integer despuesId, Integer limite) {
+        this.despuesNombre = despuesNombre;
+        this.despuesId = despuesId;
+        this.limite = limite;
+    }
+
+    public boolean esPaginada() {
+        return pagina != null || limite != null || despuesNombre != null || despuesId != null;
+    }
+
+    public boolean esPorLlave() {
+        return despuesNombre != null || despuesId != null;
+    }
+
+    public Integer getPagina() {
+        return pagina;
+    }
+
+    public void setPagina(Integer pagina) {
+        this.pagina = pagina;
+    }
+
+    public Integer getLimite() {
+        return limite;
+    }
+
+    public void setLimite(Integer limite) {
+        this.limite = limite;
+    }
+
+    public String getDespuesNombre() {
+        return despuesNombre;
+    }
+
+    public void setDespuesNombre(String despuesNombre) {
+        this.despuesNombre = despuesNombre;
+    }
+
+    public Integer getDespuesId() {
+        return despuesId;
+    }
+
+    public void setDespuesId(Integer despuesId) {
+        this.despuesId = despuesId;
+    }
+
+}
@@ -0,0 +1,50 @@
+package festivos.api.dominio.DTOs;
+
+/**
+ * Datos de un festivo necesarios para calcular sus fechas, sin país ni tipo
+ * completos. Se carga con una proyección de una sola consulta.
+ */
+public class ReglaFestivoDto {
+
+    private final int id;
+    private final String nombre;
+    private final int dia;
+    private final int mes;
+    private final int diasPascua;
+    private final int idTipo;
+
+    public ReglaFestivoDto(int id, String nombre, int dia, int mes, int diasPascua, int idTipo) {
+        this.id = id;
+        this.nombre = nombre;
+        this.dia = dia;
+        this.mes = mes;
+        this.diasPascua = diasPascua;
+        this.idTipo = idTipo;
+    }
+
+    /** Festivo del que sale la regla: cada fecha calculada lo conserva. */
+    public int getId() {
+        return id;
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    public int getDia() {
+        return dia;
+    }
+
+    public int getMes() {
+        return mes;
+    }
+
+    public int getDiasPascua() {
+        return diasPascua;
+    }
+
+    public int getIdTipo() {
+        return idTipo;
+    }
+
+}
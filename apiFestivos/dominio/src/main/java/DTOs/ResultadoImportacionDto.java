@@ -0,0 +1,69 @@
+package festivos.api.dominio.DTOs;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Resumen de una importación masiva. Se guardan a lo sumo
+ * {@link #MAXIMO_ERRORES} errores; {@code rechazadas} las cuenta todas.
+ */
+public class ResultadoImportacionDto {
+
+    public static final int MAXIMO_ERRORES = 1000;
+
+    private int insertadas;
+    private int actualizadas;
+    private int rechazadas;
+    private List<ErrorFila> errores = new ArrayList<>();
+
+    public void contarInsertada() {
+        insertadas++;
+    }
+
+    public void contarActualizada() {
+        actualizadas++;
+    }
+
+    public void rechazar(int fila, String error) {
+        rechazadas++;
+        if (errores.size() < MAXIMO_ERRORES)
+            errores.add(new ErrorFila(fila, error));
+    }
+
+    public int getInsertadas() {
+        return insertadas;
+    }
+
+    public int getActualizadas() {
+        return actualizadas;
+    }
+
+    public int getRechazadas() {
+        return rechazadas;
+    }
+
+    public List<ErrorFila> getErrores() {
+        return errores;
+    }
+
+    public static class ErrorFila {
+
+        private final int fila;
+        private final String error;
+
+        public ErrorFila(int fila, String error) {
+            this.fila = fila;
+            this.error = error;
+        }
+
+        public int getFila() {
+            return fila;
+        }
+
+        public String getError() {
+            return error;
+        }
+
+    }
+
+}
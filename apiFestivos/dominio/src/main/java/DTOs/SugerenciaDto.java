@@ -0,0 +1,32 @@
+package festivos.api.dominio.DTOs;
+
+public class SugerenciaDto {
+
+    private int id;
+    private String nombre;
+
+    public SugerenciaDto() {
+    }
+
+    public SugerenciaDto(int id, String nombre) {
+        this.id = id;
+        this.nombre = nombre;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public void setId(int id) {
+        this.id = id;
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    public void setNombre(String nombre) {
+        this.nombre = nombre;
+    }
+
+}
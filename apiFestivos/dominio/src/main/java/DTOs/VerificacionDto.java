@@ -0,0 +1,49 @@
+package festivos.api.dominio.DTOs;
+
+import java.time.LocalDate;
+
+public class VerificacionDto {
+
+    private int idPais;
+    private LocalDate fecha;
+    private Boolean esFestivo;
+
+    public VerificacionDto() {
+    }
+
+    public VerificacionDto(int idPais, LocalDate fecha) {
+        this.idPais = idPais;
+        this.fecha = fecha;
+    }
+
+    public VerificacionDto(int idPais, LocalDate fecha, Boolean esFestivo) {
+        this.idPais = idPais;
+        this.fecha = fecha;
+        this.esFestivo = esFestivo;
+    }
+
+    public int getIdPais() {
+        return idPais;
+    }
+
+    public void setIdPais(int idPais) {
+        this.idPais = idPais;
+    }
+
+    public LocalDate getFecha() {
+        return fecha;
+    }
+
+    public void setFecha(LocalDate fecha) {
+        this.fecha = fecha;
+    }
+
+    public Boolean getEsFestivo() {
+        return esFestivo;
+    }
+
+    public void setEsFestivo(Boolean esFestivo) {
+        this.esFestivo = esFestivo;
+    }
+
+}
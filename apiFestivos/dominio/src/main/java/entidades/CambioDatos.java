@@ -0,0 +1,81 @@
+package festivos.api.dominio.entidades;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+/**
+ * Registro de una escritura, para que las demás instancias invaliden lo que
+ * tienen en memoria. Las filas viejas se borran solas (ver
+ * {@code festivos.invalidacion.retencion}).
+ */
+@Entity
+@Table(name = "cambiodatos", indexes = @Index(name = "ixcambiodatos_creado", columnList = "creado"))
+public class CambioDatos {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private long id;
+
+    // FESTIVOS, PAISES o TIPOS
+    @Column(name = "catalogo", length = 10, nullable = false)
+    private String catalogo;
+
+    // null: varios registros (importación masiva)
+    @Column(name = "idregistro")
+    private Integer idRegistro;
+
+    // Solo festivos: el calendario afectado; null si no se sabe cuál
+    @Column(name = "idpais")
+    private Integer idPais;
+
+    // Instancia que escribió; ella ya invalidó lo suyo
+    @Column(name = "origen", length = 36, nullable = false)
+    private String origen;
+
+    @Column(name = "creado", nullable = false)
+    private Instant creado;
+
+    public CambioDatos() {
+    }
+
+    public CambioDatos(String catalogo, Integer idRegistro, Integer idPais, String origen, Instant creado) {
+        this.catalogo = catalogo;
+        this.idRegistro = idRegistro;
+        this.idPais = idPais;
+        this.origen = origen;
+        this.creado = creado;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public String getCatalogo() {
+        return catalogo;
+    }
+
+    public Integer getIdRegistro() {
+        return idRegistro;
+    }
+
+    public Integer getIdPais() {
+        return idPais;
+    }
+
+    public String getOrigen() {
+        return origen;
+    }
+
+    public Instant getCreado() {
+        return creado;
+    }
+
+}
@@ -1,9 +1,12 @@
 package festivos.api.dominio.entidades;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.GenericGenerator;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
@@ -11,17 +14,23 @@ import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import jakarta.persistence.Version;
 
 @Entity
-@Table(name = "festivo")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "festivos")
+// (país, nombre) es la llave de la importación masiva
+@Table(name = "festivo", uniqueConstraints = @UniqueConstraint(name = "ukfestivo_pais_nombre", columnNames = { "idpais", "nombre" }))
 public class Festivo {
 
     @Id
     @GeneratedValue(strategy = GenerationType.AUTO, generator = "secuencia_festivo")
-    @SequenceGenerator(name = "secuencia_festivo", sequenceName = "secuensecuencia_festivocia_pais", allocationSize = 1)
+    // allocationSize > 1 usa el optimizador pooled: un nextval por cada 50 ids.
+    // La secuencia en la base de datos debe tener INCREMENT 50 (ver bd/init.sql).
+    @SequenceGenerator(name = "secuencia_festivo", sequenceName = "secuencia_festivo", allocationSize = 50)
     @Column(name = "id")
     private int id;
-    @Column(name = "nombre", length = 100, unique = true)
+    @Column(name = "nombre", length = 100)
     private String nombre;
     @Column(name = "dia")
     private int dia;
@@ -30,11 +39,16 @@ public class Festivo {
     @Column(name = "diaspascua")
     private int diasPascua;
 
-    @ManyToOne
+    // Control de concurrencia optimista: modificar exige la versión leída
+    @Version
+    @Column(name = "version")
+    private int version;
+
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "idpais", referencedColumnName = "id")
     private Pais pais;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "idtipo", referencedColumnName = "id")
     private Tipo tipo;
 
@@ -107,4 +121,12 @@ public class Festivo {
         this.tipo = tipo;
     }
 
+    public int getVersion() {
+        return version;
+    }
+
+    public void setVersion(int version) {
+        this.version = version;
+    }
+
 }
@@ -0,0 +1,75 @@
+package festivos.api.dominio.entidades;
+
+import java.time.LocalDate;
+
+import org.springframework.data.domain.Persistable;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+
+/**
+ * Fecha concreta en que cae un festivo, ya calculada desde su regla, para
+ * que los reportes crucen fechas en SQL. Una fila por país y día: si dos
+ * festivos coinciden, queda el primero del calendario. Es una copia que la
+ * aplicación recalcula; la fuente sigue siendo {@link Festivo}.
+ */
+@Entity
+@Table(name = "festivo_fecha")
+public class FestivoFecha implements Persistable<FestivoFechaId> {
+
+    @EmbeddedId
+    private FestivoFechaId id;
+
+    @Column(name = "idfestivo", nullable = false)
+    private int idFestivo;
+
+    // La llave es asignada: sin esto save() haría un SELECT antes de cada INSERT
+    @Transient
+    private boolean nueva = true;
+
+    public FestivoFecha() {
+    }
+
+    public FestivoFecha(int idPais, LocalDate fecha, int idFestivo) {
+        this.id = new FestivoFechaId(idPais, fecha);
+        this.idFestivo = idFestivo;
+    }
+
+    @PostLoad
+    @PostPersist
+    void guardada() {
+        nueva = false;
+    }
+
+    @Override
+    public FestivoFechaId getId() {
+        return id;
+    }
+
+    @Override
+    public boolean isNew() {
+        return nueva;
+    }
+
+    public int getIdPais() {
+        return id.getIdPais();
+    }
+
+    public LocalDate getFecha() {
+        return id.getFecha();
+    }
+
+    public int getIdFestivo() {
+        return idFestivo;
+    }
+
+    public void setIdFestivo(int idFestivo) {
+        this.idFestivo = idFestivo;
+    }
+
+}
@@ -0,0 +1,45 @@
+package festivos.api.dominio.entidades;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Objects;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+
+@Embeddable
+public class FestivoFechaId implements Serializable {
+
+    @Column(name = "idpais")
+    private int idPais;
+
+    @Column(name = "fecha")
+    private LocalDate fecha;
+
+    public FestivoFechaId() {
+    }
+
+    public FestivoFechaId(int idPais, LocalDate fecha) {
+        this.idPais = idPais;
+        this.fecha = fecha;
+    }
+
+    public int getIdPais() {
+        return idPais;
+    }
+
+    public LocalDate getFecha() {
+        return fecha;
+    }
+
+    @Override
+    public boolean equals(Object otro) {
+        return otro instanceof FestivoFechaId o && idPais == o.idPais && Objects.equals(fecha, o.fecha);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(idPais, fecha);
+    }
+
+}
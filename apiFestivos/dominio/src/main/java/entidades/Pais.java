@@ -1,5 +1,10 @@
 package festivos.api.dominio.entidades;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
@@ -7,8 +12,12 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 
 @Entity
+// Dato de referencia: se lee en casi cada petición y casi nunca cambia
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "paises")
+@JsonIgnoreProperties({ "hibernateLazyInitializer", "handler" })
 @Table(name = "pais")
 public class Pais {
 
@@ -20,6 +29,10 @@ public class Pais {
     @Column(name = "nombre", length = 100, unique = true)
     private String nombre;
 
+    @Version
+    @Column(name = "version")
+    private int version;
+
     public Pais(int id, String nombre) {
         this.id = id;
         this.nombre = nombre;
@@ -44,4 +57,12 @@ public class Pais {
         this.nombre = nombre;
     }
 
+    public int getVersion() {
+        return version;
+    }
+
+    public void setVersion(int version) {
+        this.version = version;
+    }
+
 }
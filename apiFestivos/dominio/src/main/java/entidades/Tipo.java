@@ -1,5 +1,10 @@
 package festivos.api.dominio.entidades;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
@@ -7,8 +12,12 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 
 @Entity
+// Dato de referencia: se lee en casi cada petición y casi nunca cambia
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "tipos")
+@JsonIgnoreProperties({ "hibernateLazyInitializer", "handler" })
 @Table(name = "tipo")
 public class Tipo {
 
@@ -21,6 +30,10 @@ public class Tipo {
     @Column(name = "tipo", unique = true, nullable = false)
     private String nombre;
 
+    @Version
+    @Column(name = "version")
+    private int version;
+
     public Tipo() {
     }
 
@@ -44,5 +57,13 @@ public class Tipo {
     public void setNombre(String nombre) {
         this.nombre = nombre;
     }
-}
 
+    public int getVersion() {
+        return version;
+    }
+
+    public void setVersion(int version) {
+        this.version = version;
+    }
+
+}
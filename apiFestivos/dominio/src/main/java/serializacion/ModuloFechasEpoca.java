@@ -0,0 +1,45 @@
+package festivos.api.dominio.serializacion;
+
+import java.io.IOException;
+import java.time.LocalDate;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+
+/**
+ * Escribe cada {@link LocalDate} como el número de días desde 1970-01-01
+ * ({@link LocalDate#toEpochDay()}). Es el formato de fechas de las
+ * representaciones binarias: un entero corto en lugar de un texto ISO-8601
+ * que el cliente tiene que volver a interpretar.
+ */
+public class ModuloFechasEpoca extends SimpleModule {
+
+    public ModuloFechasEpoca() {
+        super("ModuloFechasEpoca");
+        addSerializer(LocalDate.class, new Serializador());
+        addDeserializer(LocalDate.class, new Deserializador());
+    }
+
+    private static final class Serializador extends JsonSerializer<LocalDate> {
+        @Override
+        public void serialize(LocalDate fecha, JsonGenerator generador, SerializerProvider proveedor)
+                throws IOException {
+            generador.writeNumber(fecha.toEpochDay());
+        }
+    }
+
+    private static final class Deserializador extends JsonDeserializer<LocalDate> {
+        @Override
+        public LocalDate deserialize(JsonParser lector, DeserializationContext contexto) throws IOException {
+            if (lector.currentToken() != JsonToken.VALUE_NUMBER_INT)
+                return (LocalDate) contexto.handleUnexpectedToken(LocalDate.class, lector);
+            return LocalDate.ofEpochDay(lector.getLongValue());
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package festivos.api.infraestructura.configuracion;
+
+import javax.sql.DataSource;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Réplica de lectura. Con {@code festivos.datasource.replica.jdbc-url}
+ * definido, las transacciones {@code @Transactional(readOnly = true)} leen de
+ * la réplica y el resto va a la primaria, cada una con su pool de Hikari
+ * ({@code hikaricp.*} con {@code pool=primaria} o {@code pool=replica}).
+ *
+ * La conexión se elige al ejecutar la primera sentencia, no al abrir la
+ * transacción: para entonces Spring ya marcó la conexión como de solo
+ * lectura. Sin la propiedad no se crea nada y Boot configura una sola base.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "festivos.datasource.replica", name = "jdbc-url")
+public class ConfiguracionReplica {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource fuentePrimaria(DataSourceProperties propiedades) {
+        HikariDataSource fuente = propiedades.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        fuente.setPoolName("primaria");
+        return fuente;
+    }
+
+    /** jdbc-url, username, password y el resto de propiedades de Hikari, con su propio tamaño de pool. */
+    @Bean
+    @ConfigurationProperties("festivos.datasource.replica")
+    public HikariDataSource fuenteReplica() {
+        HikariDataSource fuente = new HikariDataSource();
+        fuente.setPoolName("replica");
+        fuente.setReadOnly(true);
+        return fuente;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource fuentePrimaria, HikariDataSource fuenteReplica) {
+        var fuente = new LazyConnectionDataSourceProxy(fuentePrimaria);
+        fuente.setReadOnlyDataSource(fuenteReplica);
+        return fuente;
+    }
+}
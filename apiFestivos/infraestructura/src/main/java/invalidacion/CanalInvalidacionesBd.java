@@ -0,0 +1,269 @@
+package festivos.api.infraestructura.invalidacion;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+import javax.sql.DataSource;
+
+import org.hibernate.SessionFactory;
+import org.postgresql.PGConnection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import jakarta.persistence.EntityManagerFactory;
+
+import festivos.api.dominio.entidades.*;
+import festivos.api.infraestructura.repositorios.ICambioDatosRepositorio;
+
+/**
+ * Canal de invalidaciones sobre la base de datos compartida. Publicar inserta
+ * una fila en {@code cambiodatos} (dentro de la transacción del llamador, si
+ * la hay); un hilo de cada instancia lee las filas nuevas de las demás,
+ * descarta esas entidades de la cache de segundo nivel y avisa a los
+ * suscriptores.
+ *
+ * En PostgreSQL el hilo hace {@code LISTEN festivos_invalidacion} y el trigger
+ * de la tabla (ver bd/init.sql) lo despierta al confirmarse el insert; sin
+ * notificación (H2, o sin el trigger) revisa la tabla cada
+ * {@code festivos.invalidacion.intervalo}, que acota el retraso.
+ *
+ * La versión de cada catálogo es el id de su último cambio (ver
+ * {@link VersionDatos}): al arrancar se lee de la tabla, que siempre conserva
+ * el último de cada catálogo, y luego avanza con cada fila leída o publicada.
+ */
+@Component
+public class CanalInvalidacionesBd implements ICanalInvalidaciones, SmartLifecycle {
+
+    static final String CANAL_NOTIFICACIONES = "festivos_invalidacion";
+    // Un id menor que el último leído puede aparecer tarde: lo tomó una transacción que confirmó después
+    private static final Duration ESPERA_HUECOS = Duration.ofMinutes(1);
+    private static final int MAXIMO_HUECOS = 1000;
+
+    private static final Logger log = LoggerFactory.getLogger(CanalInvalidacionesBd.class);
+
+    private final ICambioDatosRepositorio repositorio;
+    private final DataSource dataSource;
+    private final EntityManagerFactory entityManagerFactory;
+    private final Duration intervalo;
+    private final Duration retencion;
+    private final String origen = UUID.randomUUID().toString();
+    private final List<Consumer<Invalidacion>> suscriptores = new CopyOnWriteArrayList<>();
+    private final Map<Invalidacion.Catalogo, VersionDatos> versiones = new EnumMap<>(Invalidacion.Catalogo.class);
+
+    // Solo los usa el hilo del canal
+    private final NavigableMap<Long, Instant> huecos = new TreeMap<>();
+    private long ultimo;
+    private Instant ultimaLimpieza = Instant.MIN;
+    private Connection escucha;
+    private boolean soloSondeo;
+
+    private volatile Thread hilo;
+
+    public CanalInvalidacionesBd(ICambioDatosRepositorio repositorio, DataSource dataSource,
+            EntityManagerFactory entityManagerFactory,
+            @Value("${festivos.invalidacion.intervalo:1s}") Duration intervalo,
+            @Value("${festivos.invalidacion.retencion:1h}") Duration retencion) {
+        this.repositorio = repositorio;
+        this.dataSource = dataSource;
+        this.entityManagerFactory = entityManagerFactory;
+        this.intervalo = intervalo;
+        this.retencion = retencion;
+        for (var catalogo : Invalidacion.Catalogo.values())
+            versiones.put(catalogo, new VersionDatos());
+    }
+
+    @Override
+    public void publicar(Invalidacion invalidacion) {
+        var version = versiones.get(invalidacion.getCatalogo());
+        try {
+            var cambio = repositorio.save(new CambioDatos(invalidacion.getCatalogo().name(), invalidacion.getId(),
+                    invalidacion.getIdPais(), origen, Instant.now()));
+            version.avanzar(cambio.getId(), cambio.getCreado().toEpochMilli());
+        } catch (RuntimeException e) {
+            // La escritura ya se hizo: no se deshace porque el aviso falle, y el ETag de aquí igual cambia
+            log.warn("No se pudo publicar la invalidación {}", invalidacion, e);
+            version.incrementar(System.currentTimeMillis());
+        }
+    }
+
+    @Override
+    public long getVersion(Invalidacion.Catalogo catalogo) {
+        return versiones.get(catalogo).getVersion();
+    }
+
+    @Override
+    public long getUltimaModificacion(Invalidacion.Catalogo catalogo) {
+        return versiones.get(catalogo).getUltimaModificacion();
+    }
+
+    @Override
+    public void suscribir(Consumer<Invalidacion> suscriptor) {
+        suscriptores.add(suscriptor);
+    }
+
+    @Override
+    public synchronized void start() {
+        if (hilo != null)
+            return;
+        // Lo anterior al arranque ya está en la base: la cache se llena desde ahí
+        ultimo = repositorio.ultimoId().orElse(0L);
+        for (var catalogo : Invalidacion.Catalogo.values())
+            repositorio.ultimoDe(catalogo.name()).ifPresent(this::avanzar);
+        hilo = new Thread(this::ejecutar, "festivos-invalidaciones");
+        hilo.setDaemon(true);
+        hilo.start();
+    }
+
+    @Override
+    public synchronized void stop() {
+        var actual = hilo;
+        if (actual == null)
+            return;
+        hilo = null;
+        actual.interrupt();
+        try {
+            actual.join(intervalo.toMillis() * 2);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return hilo != null;
+    }
+
+    private void ejecutar() {
+        try {
+            while (hilo == Thread.currentThread()) {
+                try {
+                    esperar();
+                    revisar();
+                } catch (InterruptedException e) {
+                    return;
+                } catch (RuntimeException e) {
+                    log.warn("Fallo al leer las invalidaciones; se reintenta en {}", intervalo, e);
+                }
+            }
+        } finally {
+            cerrarEscucha();
+        }
+    }
+
+    /** Hasta una notificación de PostgreSQL o, como mucho, un intervalo. */
+    private void esperar() throws InterruptedException {
+        try {
+            if (escucha == null && !soloSondeo)
+                escuchar();
+            if (escucha != null) {
+                escucha.unwrap(PGConnection.class).getNotifications((int) intervalo.toMillis());
+                if (Thread.interrupted())
+                    throw new InterruptedException();
+                return;
+            }
+        } catch (SQLException e) {
+            // Conexión caída: se sigue por sondeo y se vuelve a escuchar en la siguiente vuelta
+            cerrarEscucha();
+        }
+        Thread.sleep(intervalo.toMillis());
+    }
+
+    /**
+     * Reserva una conexión del pool para LISTEN mientras viva la instancia.
+     * En otras bases se devuelve la conexión y ya no se vuelve a intentar.
+     */
+    private void escuchar() throws SQLException {
+        var conexion = dataSource.getConnection();
+        if (!conexion.isWrapperFor(PGConnection.class)) {
+            conexion.close();
+            soloSondeo = true;
+            return;
+        }
+        try (var sentencia = conexion.createStatement()) {
+            sentencia.execute("LISTEN " + CANAL_NOTIFICACIONES);
+        } catch (SQLException e) {
+            conexion.close();
+            throw e;
+        }
+        escucha = conexion;
+    }
+
+    private void cerrarEscucha() {
+        if (escucha == null)
+            return;
+        try {
+            escucha.close();
+        } catch (SQLException e) {
+            // Ya estaba cerrada
+        }
+        escucha = null;
+    }
+
+    /** Aplica las filas nuevas de otras instancias y las que llenan huecos anteriores. */
+    private void revisar() {
+        var ahora = Instant.now();
+        long desde = huecos.isEmpty() ? ultimo : Math.min(ultimo, huecos.firstKey() - 1);
+        for (var cambio : repositorio.listarDespuesDe(desde)) {
+            long id = cambio.getId();
+            if (id > ultimo) {
+                for (long hueco = Math.max(ultimo + 1, id - MAXIMO_HUECOS); hueco < id; hueco++)
+                    huecos.put(hueco, ahora);
+                ultimo = id;
+            } else if (huecos.remove(id) == null) {
+                continue;
+            }
+            if (!origen.equals(cambio.getOrigen()))
+                aplicar(new Invalidacion(Invalidacion.Catalogo.valueOf(cambio.getCatalogo()),
+                        cambio.getIdRegistro(), cambio.getIdPais()));
+            // Después de invalidar: un ETag nuevo nunca acompaña datos viejos
+            avanzar(cambio);
+        }
+        huecos.values().removeIf(visto -> visto.isBefore(ahora.minus(ESPERA_HUECOS)));
+        if (ultimaLimpieza.isBefore(ahora.minus(retencion.dividedBy(4)))) {
+            repositorio.borrarAnterioresA(ahora.minus(retencion));
+            ultimaLimpieza = ahora;
+        }
+    }
+
+    private void avanzar(CambioDatos cambio) {
+        versiones.get(Invalidacion.Catalogo.valueOf(cambio.getCatalogo()))
+                .avanzar(cambio.getId(), cambio.getCreado().toEpochMilli());
+    }
+
+    private void aplicar(Invalidacion invalidacion) {
+        var cache = entityManagerFactory.getCache();
+        var clase = switch (invalidacion.getCatalogo()) {
+            case FESTIVOS -> Festivo.class;
+            case PAISES -> Pais.class;
+            case TIPOS -> Tipo.class;
+        };
+        if (invalidacion.getId() == null)
+            cache.evict(clase);
+        else
+            cache.evict(clase, invalidacion.getId());
+        // Las consultas cacheadas solo se invalidan solas con escrituras de esta instancia
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictDefaultQueryRegion();
+
+        for (var suscriptor : suscriptores) {
+            try {
+                suscriptor.accept(invalidacion);
+            } catch (RuntimeException e) {
+                log.warn("Fallo al aplicar la invalidación {}", invalidacion, e);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,35 @@
+package festivos.api.infraestructura.invalidacion;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/** Sin otras instancias a quién avisar: pruebas y benchmarks. Solo lleva las versiones. */
+final class CanalInvalidacionesLocal implements ICanalInvalidaciones {
+
+    private final Map<Invalidacion.Catalogo, VersionDatos> versiones = new EnumMap<>(Invalidacion.Catalogo.class);
+
+    CanalInvalidacionesLocal() {
+        for (var catalogo : Invalidacion.Catalogo.values())
+            versiones.put(catalogo, new VersionDatos());
+    }
+
+    @Override
+    public void publicar(Invalidacion invalidacion) {
+        versiones.get(invalidacion.getCatalogo()).incrementar(System.currentTimeMillis());
+    }
+
+    @Override
+    public void suscribir(Consumer<Invalidacion> suscriptor) {
+    }
+
+    @Override
+    public long getVersion(Invalidacion.Catalogo catalogo) {
+        return versiones.get(catalogo).getVersion();
+    }
+
+    @Override
+    public long getUltimaModificacion(Invalidacion.Catalogo catalogo) {
+        return versiones.get(catalogo).getUltimaModificacion();
+    }
+}
@@ -0,0 +1,35 @@
+package festivos.api.infraestructura.invalidacion;
+
+import java.util.function.Consumer;
+
+/**
+ * Avisa a las demás instancias de la aplicación de una escritura, para que
+ * descarten lo que tengan en memoria de ese registro, y lleva la versión de
+ * cada catálogo que resulta de esos avisos.
+ */
+public interface ICanalInvalidaciones {
+
+    /** Sin otras instancias a quién avisar: pruebas y benchmarks. */
+    public static ICanalInvalidaciones local() {
+        return new CanalInvalidacionesLocal();
+    }
+
+    /**
+     * La instancia que escribe ya invalidó lo suyo; no recibe su propio aviso.
+     * Al volver, la versión del catálogo ya cambió.
+     */
+    public void publicar(Invalidacion invalidacion);
+
+    /** Recibe los avisos de las otras instancias, en el hilo del canal. */
+    public void suscribir(Consumer<Invalidacion> suscriptor);
+
+    /**
+     * Versión de los datos del catálogo para ETag: cambia con cada escritura,
+     * propia o de otra instancia, después de que se invalidó lo guardado.
+     */
+    public long getVersion(Invalidacion.Catalogo catalogo);
+
+    /** Milisegundos (en segundos enteros) del último cambio conocido; 0 si no hay ninguno. */
+    public long getUltimaModificacion(Invalidacion.Catalogo catalogo);
+
+}
@@ -0,0 +1,66 @@
+package festivos.api.infraestructura.invalidacion;
+
+import java.util.Objects;
+
+/**
+ * Qué dejó de ser válido tras una escritura. Un id {@code null} significa
+ * "varios registros del catálogo"; en festivos, un país {@code null} significa
+ * "cualquier calendario".
+ */
+public final class Invalidacion {
+
+    public enum Catalogo {
+        FESTIVOS, PAISES, TIPOS
+    }
+
+    private final Catalogo catalogo;
+    private final Integer id;
+    private final Integer idPais;
+
+    public Invalidacion(Catalogo catalogo, Integer id, Integer idPais) {
+        this.catalogo = catalogo;
+        this.id = id;
+        this.idPais = idPais;
+    }
+
+    public static Invalidacion festivo(Integer id, Integer idPais) {
+        return new Invalidacion(Catalogo.FESTIVOS, id, idPais);
+    }
+
+    public static Invalidacion pais(int id) {
+        return new Invalidacion(Catalogo.PAISES, id, null);
+    }
+
+    public static Invalidacion tipo(int id) {
+        return new Invalidacion(Catalogo.TIPOS, id, null);
+    }
+
+    public Catalogo getCatalogo() {
+        return catalogo;
+    }
+
+    public Integer getId() {
+        return id;
+    }
+
+    public Integer getIdPais() {
+        return idPais;
+    }
+
+    @Override
+    public boolean equals(Object otro) {
+        return otro instanceof Invalidacion o && catalogo == o.catalogo
+                && Objects.equals(id, o.id) && Objects.equals(idPais, o.idPais);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(catalogo, id, idPais);
+    }
+
+    @Override
+    public String toString() {
+        return catalogo + "(" + id + ", país " + idPais + ")";
+    }
+
+}
@@ -0,0 +1,42 @@
+package festivos.api.infraestructura.invalidacion;
+
+/**
+ * Versión de los datos de un catálogo, para ETag y Last-Modified.
+ *
+ * Con la tabla {@code cambiodatos} la versión sale del id del último cambio,
+ * así todas las instancias (y los reinicios) entregan la misma para los
+ * mismos datos. El id va en los bits altos: si un cambio no se pudo publicar,
+ * {@link #incrementar} sube solo los bajos y el siguiente cambio compartido
+ * sigue siendo mayor. La última modificación se guarda en segundos enteros,
+ * la resolución de Last-Modified.
+ */
+final class VersionDatos {
+
+    private static final int BITS_LOCALES = 16;
+
+    private long version;
+    private long ultimaModificacion;
+
+    /** Cambio con id en {@code cambiodatos}; nunca retrocede. */
+    synchronized void avanzar(long idCambio, long momento) {
+        long compartida = idCambio << BITS_LOCALES;
+        if (compartida <= version)
+            return;
+        version = compartida;
+        ultimaModificacion = Math.max(ultimaModificacion, momento / 1000 * 1000);
+    }
+
+    /** Cambio sin id compartido; avanza al menos un segundo. */
+    synchronized void incrementar(long momento) {
+        version++;
+        ultimaModificacion = Math.max(momento / 1000 * 1000, ultimaModificacion + 1000);
+    }
+
+    synchronized long getVersion() {
+        return version;
+    }
+
+    synchronized long getUltimaModificacion() {
+        return ultimaModificacion;
+    }
+}
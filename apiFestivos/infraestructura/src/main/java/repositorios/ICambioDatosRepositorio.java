@@ -0,0 +1,35 @@
+package festivos.api.infraestructura.repositorios;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import festivos.api.dominio.entidades.CambioDatos;
+
+// Se lee siempre en la primaria: en la réplica los cambios llegarían con retraso
+@Repository
+@Transactional
+public interface ICambioDatosRepositorio extends JpaRepository<CambioDatos, Long> {
+
+    @Query("SELECT MAX(c.id) FROM CambioDatos c")
+    public Optional<Long> ultimoId();
+
+    @Query("SELECT c FROM CambioDatos c WHERE c.id = (SELECT MAX(d.id) FROM CambioDatos d WHERE d.catalogo = ?1)")
+    public Optional<CambioDatos> ultimoDe(String catalogo);
+
+    @Query("SELECT c FROM CambioDatos c WHERE c.id > ?1 ORDER BY c.id ASC")
+    public List<CambioDatos> listarDespuesDe(long id);
+
+    // El último de cada catálogo se conserva: de él sale la versión al arrancar
+    @Modifying
+    @Query("DELETE FROM CambioDatos c WHERE c.creado < ?1 "
+            + "AND c.id NOT IN (SELECT MAX(d.id) FROM CambioDatos d GROUP BY d.catalogo)")
+    public int borrarAnterioresA(Instant limite);
+
+}
@@ -0,0 +1,16 @@
+package festivos.api.infraestructura.repositorios;
+
+/**
+ * Control del contexto de persistencia para recorridos largos; fragmento de
+ * {@link IFestivoRepositorio}.
+ */
+public interface IContextoPersistencia {
+
+    /**
+     * Saca la entidad del contexto de persistencia. Al recorrer un
+     * {@code Stream} de entidades, desacoplar cada una después de usarla evita
+     * que el contexto crezca con el tamaño de la tabla.
+     */
+    public void desacoplar(Object entidad);
+
+}
@@ -0,0 +1,16 @@
+package festivos.api.infraestructura.repositorios;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+public class IContextoPersistenciaImpl implements IContextoPersistencia {
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Override
+    public void desacoplar(Object entidad) {
+        em.detach(entidad);
+    }
+
+}
@@ -0,0 +1,20 @@
+package festivos.api.infraestructura.repositorios;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import festivos.api.dominio.entidades.*;
+
+@Repository
+public interface IFestivoFechaRepositorio extends JpaRepository<FestivoFecha, FestivoFechaId> {
+
+    @Query("SELECT ff FROM FestivoFecha ff WHERE ff.id.idPais = ?1")
+    public List<FestivoFecha> listarPorPais(int idPais);
+
+    @Query("SELECT DISTINCT ff.id.idPais FROM FestivoFecha ff")
+    public List<Integer> listarPaises();
+
+}
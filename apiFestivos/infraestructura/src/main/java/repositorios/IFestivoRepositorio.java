@@ -1,20 +1,118 @@
 package festivos.api.infraestructura.repositorios;
 
+import static org.hibernate.jpa.HibernateHints.HINT_CACHE_MODE;
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import jakarta.persistence.QueryHint;
 
+import festivos.api.dominio.DTOs.CambiosFestivoDto;
+import festivos.api.dominio.DTOs.ReglaFestivoDto;
+import festivos.api.dominio.DTOs.SugerenciaDto;
 import festivos.api.dominio.entidades.*;
 
 @Repository
-public interface IFestivoRepositorio extends JpaRepository<Festivo, Integer> {
+public interface IFestivoRepositorio extends JpaRepository<Festivo, Integer>, IImportadorFestivos, IContextoPersistencia {
+
+    // modificar y eliminar leen aquí el país a invalidar. Como transacción de escritura
+    // va a la base primaria; dentro de una de solo lectura del servicio, a la réplica
+    @Override
+    @Transactional
+    public Optional<Festivo> findById(Integer id);
+
+    @Query("SELECT f FROM Festivo f JOIN FETCH f.pais JOIN FETCH f.tipo ORDER BY f.nombre ASC")
+    public List<Festivo> listarTodos();
+
+    // Recorridos sin cargar la tabla completa: el driver trae las filas de a 500
+    // (en PostgreSQL solo dentro de una transacción) y las entidades son de solo
+    // lectura, sin copia para detectar cambios. No se guardan en la cache de segundo
+    // nivel: recorrer la tabla la vaciaría. Hay que cerrar el Stream.
+    @QueryHints({ @QueryHint(name = HINT_FETCH_SIZE, value = "500"), @QueryHint(name = HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HINT_CACHE_MODE, value = "GET") })
+    @Query("SELECT f FROM Festivo f JOIN FETCH f.pais JOIN FETCH f.tipo ORDER BY f.nombre ASC")
+    public Stream<Festivo> recorrerTodos();
 
-    @Query("SELECT f FROM Festivo f WHERE f.nombre LIKE '%' || ?1 || '%' ORDER BY f.nombre ASC")
+    @QueryHints({ @QueryHint(name = HINT_FETCH_SIZE, value = "500"), @QueryHint(name = HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HINT_CACHE_MODE, value = "GET") })
+    @Query("SELECT f FROM Festivo f JOIN FETCH f.pais JOIN FETCH f.tipo WHERE f.pais.id=:idPais ORDER BY f.nombre ASC")
+    public Stream<Festivo> recorrerPorPais(int idPais);
+
+    @Query("SELECT f FROM Festivo f JOIN FETCH f.pais JOIN FETCH f.tipo WHERE f.id=:id")
+    public Optional<Festivo> obtener(int id);
+
+    @Query("SELECT f FROM Festivo f JOIN FETCH f.pais JOIN FETCH f.tipo WHERE f.nombre LIKE '%' || ?1 || '%' ORDER BY f.nombre ASC")
     public List<Festivo> buscar(String nombre);
 
-    @Query("SELECT f FROM Festivo f WHERE f.pais.id=:idPais ORDER BY f.nombre ASC")
+    // Para el índice de búsqueda en memoria
+    @Query("SELECT new festivos.api.dominio.DTOs.SugerenciaDto(f.id, f.nombre) FROM Festivo f")
+    public List<SugerenciaDto> listarNombres();
+
+    @Query("SELECT f.pais.id FROM Festivo f WHERE f.id = ?1")
+    public Optional<Integer> obtenerIdPais(int id);
+
+    @Query("SELECT DISTINCT f.pais.id FROM Festivo f")
+    public List<Integer> listarIdsPaises();
+
+    @Query("SELECT f FROM Festivo f JOIN FETCH f.pais JOIN FETCH f.tipo WHERE f.id IN :ids ORDER BY f.nombre ASC, f.id ASC")
+    public List<Festivo> listarPorIds(Collection<Integer> ids);
+
+    // Paginación: el orden (nombre, id) es total, así la llave (despuesNombre, despuesId) es estable
+    @Query("SELECT f FROM Festivo f JOIN FETCH f.pais JOIN FETCH f.tipo ORDER BY f.nombre ASC, f.id ASC")
+    public Slice<Festivo> listar(Pageable pagina);
+
+    @Query("SELECT f FROM Festivo f JOIN FETCH f.pais JOIN FETCH f.tipo "
+            + "WHERE f.nombre > :despuesNombre OR (f.nombre = :despuesNombre AND f.id > :despuesId) "
+            + "ORDER BY f.nombre ASC, f.id ASC")
+    public Slice<Festivo> listarDespuesDe(String despuesNombre, int despuesId, Pageable pagina);
+
+    @Query("SELECT f FROM Festivo f JOIN FETCH f.pais JOIN FETCH f.tipo WHERE f.nombre LIKE '%' || :nombre || '%' "
+            + "ORDER BY f.nombre ASC, f.id ASC")
+    public Slice<Festivo> buscar(String nombre, Pageable pagina);
+
+    @Query("SELECT f FROM Festivo f JOIN FETCH f.pais JOIN FETCH f.tipo WHERE f.nombre LIKE '%' || :nombre || '%' "
+            + "AND (f.nombre > :despuesNombre OR (f.nombre = :despuesNombre AND f.id > :despuesId)) "
+            + "ORDER BY f.nombre ASC, f.id ASC")
+    public Slice<Festivo> buscarDespuesDe(String nombre, String despuesNombre, int despuesId, Pageable pagina);
+
+    @Query("SELECT f FROM Festivo f JOIN FETCH f.pais JOIN FETCH f.tipo WHERE f.pais.id=:idPais ORDER BY f.nombre ASC")
     public List<Festivo> listarPorPais(int idPais);
 
+    // Solo lo necesario para calcular fechas; f.tipo.id se lee de la llave foránea sin join
+    @Query("SELECT new festivos.api.dominio.DTOs.ReglaFestivoDto(f.id, f.nombre, f.dia, f.mes, f.diasPascua, f.tipo.id) "
+            + "FROM Festivo f WHERE f.pais.id=:idPais ORDER BY f.nombre ASC")
+    public List<ReglaFestivoDto> listarReglasPorPais(int idPais);
+
+    /**
+     * Un solo UPDATE condicionado a la versión; los campos nulos de
+     * {@code cambios} se conservan. Con {@code idPaisActual} además exige que
+     * el festivo siga en ese país, así quien llama sabe qué calendario
+     * invalidar. Devuelve 0 si no existe, si la versión cambió o si está en
+     * otro país.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE Festivo f SET f.nombre = COALESCE(:#{#cambios.nombre}, f.nombre), "
+            + "f.dia = COALESCE(:#{#cambios.dia}, f.dia), f.mes = COALESCE(:#{#cambios.mes}, f.mes), "
+            + "f.diasPascua = COALESCE(:#{#cambios.diasPascua}, f.diasPascua), "
+            + "f.pais.id = COALESCE(:#{#cambios.idPais}, f.pais.id), f.tipo.id = COALESCE(:#{#cambios.idTipo}, f.tipo.id), "
+            + "f.version = f.version + 1 "
+            + "WHERE f.id = :id AND f.version = :#{#cambios.version} "
+            + "AND (:idPaisActual IS NULL OR f.pais.id = :idPaisActual)")
+    public int modificar(int id, @Param("cambios") CambiosFestivoDto cambios, Integer idPaisActual);
+
 }
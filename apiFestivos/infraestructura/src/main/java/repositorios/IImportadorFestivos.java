@@ -0,0 +1,20 @@
+package festivos.api.infraestructura.repositorios;
+
+import java.util.Iterator;
+
+import festivos.api.dominio.DTOs.ImportacionFestivoDto;
+import festivos.api.dominio.DTOs.ResultadoImportacionDto;
+
+/**
+ * Escritura masiva de festivos; fragmento de {@link IFestivoRepositorio}.
+ */
+public interface IImportadorFestivos {
+
+    /**
+     * Inserta o actualiza las filas, tomando (país, nombre) como llave, en una
+     * sola transacción. Las filas con país o tipo inexistente se reportan en
+     * {@code resultado} y no se escriben.
+     */
+    public void importar(Iterator<ImportacionFestivoDto> filas, ResultadoImportacionDto resultado);
+
+}
@@ -0,0 +1,133 @@
+package festivos.api.infraestructura.repositorios;
+
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+import festivos.api.dominio.DTOs.ImportacionFestivoDto;
+import festivos.api.dominio.DTOs.ResultadoImportacionDto;
+import festivos.api.dominio.entidades.*;
+
+/**
+ * Las inserciones pasan por {@code persist}: los ids salen del optimizador
+ * pooled de {@code secuencia_festivo} y Hibernate las envía en lotes JDBC
+ * ({@code hibernate.jdbc.batch_size}). Las actualizaciones no leen la fila:
+ * van en un lote JDBC propio por id. Cada {@link #TAMAÑO_LOTE} filas se vacía
+ * y limpia el contexto de persistencia, así la memoria no crece con el archivo.
+ */
+public class IImportadorFestivosImpl implements IImportadorFestivos {
+
+    private static final int TAMAÑO_LOTE = 500;
+    private static final String ACTUALIZAR = "UPDATE festivo SET dia = ?, mes = ?, diaspascua = ?, idtipo = ?, version = version + 1 WHERE id = ?";
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Override
+    @Transactional
+    public void importar(Iterator<ImportacionFestivoDto> filas, ResultadoImportacionDto resultado) {
+        // Miles de festivos recién escritos no deben desplazar de la cache de segundo nivel lo que se lee
+        var sesion = em.unwrap(Session.class);
+        var modoAnterior = sesion.getCacheMode();
+        sesion.setCacheMode(CacheMode.IGNORE);
+        try {
+            cargar(filas, resultado);
+        } finally {
+            sesion.setCacheMode(modoAnterior);
+        }
+        // Las actualizaciones van por JDBC, fuera de Hibernate: la región se descarta al terminar la
+        // transacción, no antes, para que otra lectura no vuelva a guardar la versión vieja
+        if (resultado.getActualizadas() > 0)
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int estado) {
+                    em.getEntityManagerFactory().getCache().evict(Festivo.class);
+                }
+            });
+    }
+
+    private void cargar(Iterator<ImportacionFestivoDto> filas, ResultadoImportacionDto resultado) {
+        Set<Integer> paises = new HashSet<>(em.createQuery("SELECT p.id FROM Pais p", Integer.class).getResultList());
+        Set<Integer> tipos = new HashSet<>(em.createQuery("SELECT t.id FROM Tipo t", Integer.class).getResultList());
+        Map<String, Integer> existentes = new HashMap<>();
+        for (var f : em.createQuery("SELECT f.id, f.pais.id, f.nombre FROM Festivo f", Object[].class).getResultList())
+            existentes.put(llave((Integer) f[1], (String) f[2]), (Integer) f[0]);
+
+        List<ImportacionFestivoDto> actualizaciones = new ArrayList<>();
+        List<Integer> idsActualizaciones = new ArrayList<>();
+        int pendientes = 0;
+        while (filas.hasNext()) {
+            var fila = filas.next();
+            if (!paises.contains(fila.getIdPais())) {
+                resultado.rechazar(fila.getFila(), "País inexistente: " + fila.getIdPais());
+                continue;
+            }
+            if (!tipos.contains(fila.getIdTipo())) {
+                resultado.rechazar(fila.getFila(), "Tipo inexistente: " + fila.getIdTipo());
+                continue;
+            }
+            var llave = llave(fila.getIdPais(), fila.getNombre());
+            var id = existentes.get(llave);
+            if (id == null) {
+                var festivo = new Festivo(0, fila.getNombre(), fila.getDia(), fila.getMes(), fila.getDiasPascua(),
+                        em.getReference(Pais.class, fila.getIdPais()), em.getReference(Tipo.class, fila.getIdTipo()));
+                em.persist(festivo);
+                // Una fila repetida más adelante en el mismo archivo actualiza esta
+                existentes.put(llave, festivo.getId());
+                resultado.contarInsertada();
+            } else {
+                actualizaciones.add(fila);
+                idsActualizaciones.add(id);
+                resultado.contarActualizada();
+            }
+            if (++pendientes == TAMAÑO_LOTE) {
+                escribir(actualizaciones, idsActualizaciones);
+                pendientes = 0;
+            }
+        }
+        escribir(actualizaciones, idsActualizaciones);
+    }
+
+    private void escribir(List<ImportacionFestivoDto> actualizaciones, List<Integer> ids) {
+        // Primero las inserciones pendientes: una actualización puede referirse a una de ellas
+        em.flush();
+        em.clear();
+        if (actualizaciones.isEmpty())
+            return;
+        em.unwrap(Session.class).doWork(conexion -> {
+            try (PreparedStatement sentencia = conexion.prepareStatement(ACTUALIZAR)) {
+                for (int i = 0; i < actualizaciones.size(); i++) {
+                    var fila = actualizaciones.get(i);
+                    sentencia.setInt(1, fila.getDia());
+                    sentencia.setInt(2, fila.getMes());
+                    sentencia.setInt(3, fila.getDiasPascua());
+                    sentencia.setInt(4, fila.getIdTipo());
+                    sentencia.setInt(5, ids.get(i));
+                    sentencia.addBatch();
+                }
+                sentencia.executeBatch();
+            }
+        });
+        actualizaciones.clear();
+        ids.clear();
+    }
+
+    private static String llave(int idPais, String nombre) {
+        return idPais + ":" + nombre;
+    }
+
+}
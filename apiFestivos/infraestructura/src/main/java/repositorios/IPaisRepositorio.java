@@ -1,17 +1,68 @@
 package festivos.api.infraestructura.repositorios;
 
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+
+import java.util.Collection;
 import java.util.List;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import jakarta.persistence.QueryHint;
 
+import festivos.api.dominio.DTOs.SugerenciaDto;
 import festivos.api.dominio.entidades.*;
 
 @Repository
 public interface IPaisRepositorio extends JpaRepository<Pais, Integer> {
 
+    // Distingue 404 de 409 después de un UPDATE sin filas: se lee en la primaria,
+    // donde la réplica podría no tener todavía la fila recién creada
+    @Override
+    @Transactional
+    public boolean existsById(Integer id);
+
+    // En la cache de consultas: se invalida sola cuando algo escribe en la tabla
+    @Override
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
+    public List<Pais> findAll(Sort orden);
+
     @Query("SELECT p FROM Pais p WHERE p.nombre LIKE '%' || ?1 || '%' ORDER BY p.nombre ASC")
     public List<Pais> buscar(String nombre);
 
+    // Para el índice de búsqueda en memoria
+    @Query("SELECT new festivos.api.dominio.DTOs.SugerenciaDto(p.id, p.nombre) FROM Pais p")
+    public List<SugerenciaDto> listarNombres();
+
+    @Query("SELECT p FROM Pais p WHERE p.id IN :ids ORDER BY p.nombre ASC, p.id ASC")
+    public List<Pais> listarPorIds(Collection<Integer> ids);
+
+    @Query("SELECT p FROM Pais p ORDER BY p.nombre ASC, p.id ASC")
+    public Slice<Pais> listar(Pageable pagina);
+
+    @Query("SELECT p FROM Pais p WHERE p.nombre > :despuesNombre OR (p.nombre = :despuesNombre AND p.id > :despuesId) "
+            + "ORDER BY p.nombre ASC, p.id ASC")
+    public Slice<Pais> listarDespuesDe(String despuesNombre, int despuesId, Pageable pagina);
+
+    @Query("SELECT p FROM Pais p WHERE p.nombre LIKE '%' || :nombre || '%' ORDER BY p.nombre ASC, p.id ASC")
+    public Slice<Pais> buscar(String nombre, Pageable pagina);
+
+    @Query("SELECT p FROM Pais p WHERE p.nombre LIKE '%' || :nombre || '%' "
+            + "AND (p.nombre > :despuesNombre OR (p.nombre = :despuesNombre AND p.id > :despuesId)) "
+            + "ORDER BY p.nombre ASC, p.id ASC")
+    public Slice<Pais> buscarDespuesDe(String nombre, String despuesNombre, int despuesId, Pageable pagina);
+
+    // Un solo UPDATE condicionado a la versión; 0 filas si no existe o la versión cambió
+    @Transactional
+    @Modifying
+    @Query("UPDATE Pais p SET p.nombre = :nombre, p.version = p.version + 1 WHERE p.id = :id AND p.version = :version")
+    public int modificar(int id, int version, String nombre);
+
 }
@@ -1,17 +1,59 @@
 package festivos.api.infraestructura.repositorios;
 
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+
 import java.util.List;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import jakarta.persistence.QueryHint;
 
 import festivos.api.dominio.entidades.*;
 
 @Repository
 public interface ITipoRepositorio extends JpaRepository<Tipo, Integer> {
 
+    // Distingue 404 de 409 después de un UPDATE sin filas: se lee en la primaria,
+    // donde la réplica podría no tener todavía la fila recién creada
+    @Override
+    @Transactional
+    public boolean existsById(Integer id);
+
+    // En la cache de consultas: se invalida sola cuando algo escribe en la tabla
+    @Override
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
+    public List<Tipo> findAll(Sort orden);
+
     @Query("SELECT t FROM Tipo t WHERE t.nombre LIKE '%' || ?1 || '%' ORDER BY t.nombre ASC")
     public List<Tipo> buscar(String nombre);
 
+    @Query("SELECT t FROM Tipo t ORDER BY t.nombre ASC, t.id ASC")
+    public Slice<Tipo> listar(Pageable pagina);
+
+    @Query("SELECT t FROM Tipo t WHERE t.nombre > :despuesNombre OR (t.nombre = :despuesNombre AND t.id > :despuesId) "
+            + "ORDER BY t.nombre ASC, t.id ASC")
+    public Slice<Tipo> listarDespuesDe(String despuesNombre, int despuesId, Pageable pagina);
+
+    @Query("SELECT t FROM Tipo t WHERE t.nombre LIKE '%' || :nombre || '%' ORDER BY t.nombre ASC, t.id ASC")
+    public Slice<Tipo> buscar(String nombre, Pageable pagina);
+
+    @Query("SELECT t FROM Tipo t WHERE t.nombre LIKE '%' || :nombre || '%' "
+            + "AND (t.nombre > :despuesNombre OR (t.nombre = :despuesNombre AND t.id > :despuesId)) "
+            + "ORDER BY t.nombre ASC, t.id ASC")
+    public Slice<Tipo> buscarDespuesDe(String nombre, String despuesNombre, int despuesId, Pageable pagina);
+
+    // Un solo UPDATE condicionado a la versión; 0 filas si no existe o la versión cambió
+    @Transactional
+    @Modifying
+    @Query("UPDATE Tipo t SET t.nombre = :nombre, t.version = t.version + 1 WHERE t.id = :id AND t.version = :version")
+    public int modificar(int id, int version, String nombre);
+
 }
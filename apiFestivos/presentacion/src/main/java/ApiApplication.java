@@ -2,8 +2,14 @@ package festivos.api;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import festivos.api.presentacion.configuracion.PistasNativas;
 
 @SpringBootApplication
+@EnableScheduling
+@ImportRuntimeHints(PistasNativas.class)
 public class ApiApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,119 @@
+package festivos.api.presentacion.arranque;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import festivos.api.core.servicios.*;
+import festivos.api.dominio.DTOs.VerificacionDto;
+import festivos.api.dominio.entidades.Pais;
+
+/**
+ * Calienta la instancia antes de que el balanceador le mande tráfico: carga
+ * países, tipos y el índice de nombres, calcula los calendarios de todos los
+ * países entre {@code ventana-atras} y {@code ventana-adelante} años del
+ * actual y repite durante {@code duracion} lo que hacen verificar y listar,
+ * incluida la serialización, para que el JIT compile esos caminos.
+ *
+ * Corre en el hilo principal al recibir {@link ApplicationReadyEvent}; Spring
+ * Boot publica {@code ReadinessState.ACCEPTING_TRAFFIC} cuando terminan esos
+ * oyentes, así que {@code /actuator/health/readiness} responde
+ * OUT_OF_SERVICE hasta entonces mientras {@code /actuator/health/liveness}
+ * ya está UP. Si algo falla se registra y la instancia queda lista igual,
+ * solo que fría.
+ */
+@Component
+public class Calentamiento {
+
+    private static final Logger log = LoggerFactory.getLogger(Calentamiento.class);
+    private static final int TAMAÑO_LOTE = 32;
+    private static final TypeReference<List<VerificacionDto>> LISTA_VERIFICACIONES = new TypeReference<>() {
+    };
+
+    private final IFestivoServicio festivos;
+    private final IPaisServicio paises;
+    private final ITipoServicio tipos;
+    private final ObjectMapper json;
+    private final int añosAtras;
+    private final int añosAdelante;
+    private final Duration duracion;
+    private final Clock reloj;
+
+    @Autowired
+    public Calentamiento(IFestivoServicio festivos, IPaisServicio paises, ITipoServicio tipos, ObjectMapper json,
+            @Value("${festivos.calentamiento.ventana-atras:1}") int añosAtras,
+            @Value("${festivos.calentamiento.ventana-adelante:1}") int añosAdelante,
+            @Value("${festivos.calentamiento.duracion:5s}") Duration duracion) {
+        this(festivos, paises, tipos, json, añosAtras, añosAdelante, duracion, Clock.systemDefaultZone());
+    }
+
+    Calentamiento(IFestivoServicio festivos, IPaisServicio paises, ITipoServicio tipos, ObjectMapper json,
+            int añosAtras, int añosAdelante, Duration duracion, Clock reloj) {
+        this.festivos = festivos;
+        this.paises = paises;
+        this.tipos = tipos;
+        this.json = json;
+        this.añosAtras = añosAtras;
+        this.añosAdelante = añosAdelante;
+        this.duracion = duracion;
+        this.reloj = reloj;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void calentar() {
+        long inicio = System.nanoTime();
+        try {
+            tipos.listar();
+            festivos.autocompletar("a", 1);
+            paises.autocompletar("a", 1);
+            List<Integer> ids = paises.listar().stream().map(Pais::getId).toList();
+            int actual = LocalDate.now(reloj).getYear();
+            for (int idPais : ids)
+                for (int año = actual - añosAtras; año <= actual + añosAdelante; año++)
+                    festivos.listar(idPais, año);
+
+            int vueltas = 0;
+            if (!ids.isEmpty()) {
+                long limite = inicio + duracion.toNanos();
+                do {
+                    ejercitar(ids.get(vueltas % ids.size()), actual + vueltas % (añosAtras + añosAdelante + 1) - añosAtras,
+                            vueltas);
+                    vueltas++;
+                } while (System.nanoTime() - limite < 0);
+            }
+            log.info("Calentamiento de {} países en {} ms ({} vueltas)", ids.size(),
+                    (System.nanoTime() - inicio) / 1_000_000, vueltas);
+        } catch (RuntimeException | IOException e) {
+            log.warn("Falló el calentamiento; la instancia atiende sin él", e);
+        }
+    }
+
+    /** Una vuelta de lo que hacen GET verificar, POST verificar y GET listar con JSON. */
+    private void ejercitar(int idPais, int año, int vuelta) throws IOException {
+        var inicioAño = LocalDate.of(año, 1, 1);
+        festivos.verificar(idPais, inicioAño.plusDays(vuelta % 365));
+
+        List<VerificacionDto> lote = new ArrayList<>(TAMAÑO_LOTE);
+        for (int i = 0; i < TAMAÑO_LOTE; i++)
+            lote.add(new VerificacionDto(idPais, inicioAño.plusDays((vuelta + i * 11) % 365)));
+        var consultas = json.readValue(json.writeValueAsBytes(lote), LISTA_VERIFICACIONES);
+        json.writeValueAsBytes(festivos.verificar(consultas));
+
+        json.writeValueAsBytes(festivos.listar(idPais, año));
+    }
+
+}
@@ -0,0 +1,39 @@
+package festivos.api.presentacion.configuracion;
+
+import java.util.List;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+
+import festivos.api.dominio.serializacion.ModuloFechasEpoca;
+
+/**
+ * Representación CBOR ({@code Accept: application/cbor}) de las respuestas,
+ * con las fechas como días desde 1970-01-01. Usa la misma configuración de
+ * Jackson que el JSON, que sigue siendo el formato por defecto: el convertidor
+ * va al final de la lista, así que solo se elige cuando el cliente lo pide.
+ */
+@Configuration
+public class ConfiguracionFormatos implements WebMvcConfigurer {
+
+    private final Jackson2ObjectMapperBuilder jackson;
+
+    public ConfiguracionFormatos(Jackson2ObjectMapperBuilder jackson) {
+        this.jackson = jackson;
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> convertidores) {
+        // Spring registra uno propio al encontrar CBOR en el classpath, con fechas como arreglos
+        convertidores.removeIf(MappingJackson2CborHttpMessageConverter.class::isInstance);
+        convertidores.add(new MappingJackson2CborHttpMessageConverter(jackson
+                .factory(new CBORFactory())
+                .postConfigurer(mapper -> mapper.registerModule(new ModuloFechasEpoca()))
+                .build()));
+    }
+}
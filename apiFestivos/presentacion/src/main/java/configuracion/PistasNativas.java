@@ -0,0 +1,30 @@
+package festivos.api.presentacion.configuracion;
+
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+
+import festivos.api.dominio.entidades.*;
+
+/**
+ * Lo que la imagen nativa no descubre sola: Spring AOT ya registra entidades,
+ * repositorios y los tipos de entrada y salida de los controladores, pero no
+ * lo que se carga por nombre desde la configuración ni lo que se serializa
+ * dentro de un {@code StreamingResponseBody}.
+ */
+public class PistasNativas implements RuntimeHintsRegistrar {
+
+    // spring.jpa.properties.hibernate.javax.cache.provider
+    static final String PROVEEDOR_CACHE = "com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider";
+
+    @Override
+    public void registerHints(RuntimeHints pistas, ClassLoader cargador) {
+        // spring.jpa.properties.hibernate.javax.cache.uri
+        pistas.resources().registerPattern("cache-hibernate.conf");
+        pistas.reflection().registerType(TypeReference.of(PROVEEDOR_CACHE), MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+        // /api/festivos/listar/flujo escribe festivos con un ObjectWriter propio
+        new BindingReflectionHintsRegistrar().registerReflectionHints(pistas.reflection(), Festivo.class);
+    }
+}
@@ -0,0 +1,131 @@
+package festivos.api.presentacion.controladores;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Escribe festivos como eventos de día completo de iCalendar (RFC 5545)
+ * directamente en la respuesta. Nada se escribe hasta el primer evento (o el
+ * cierre), así un error previo todavía puede responderse con otro estado.
+ *
+ * El UID depende solo del país, la fecha y el nombre, y DTSTAMP es la última
+ * modificación de los datos: la misma versión produce siempre los mismos
+ * bytes, que es lo que promete el ETag.
+ */
+final class EscritorIcs {
+
+    static final String TIPO_CONTENIDO = "text/calendar;charset=UTF-8";
+
+    private static final String FIN_LINEA = "\r\n";
+    private static final int OCTETOS_POR_LINEA = 75;
+    private static final DateTimeFormatter SELLO = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'")
+            .withZone(ZoneOffset.UTC);
+
+    private final HttpServletResponse respuesta;
+    private final int idPais;
+    private final String sello;
+    private final StringBuilder fecha = new StringBuilder(8);
+    private Writer salida;
+
+    EscritorIcs(HttpServletResponse respuesta, int idPais, long ultimaModificacion) {
+        this.respuesta = respuesta;
+        this.idPais = idPais;
+        this.sello = SELLO.format(Instant.ofEpochMilli(ultimaModificacion));
+    }
+
+    void evento(String nombre, int diaEpoca) {
+        try {
+            abrir();
+            String dia = fecha(diaEpoca);
+            linea("BEGIN:VEVENT");
+            linea("UID:" + idPais + "-" + dia + "-" + Integer.toHexString(nombre.hashCode()) + "@api-festivos");
+            linea("DTSTAMP:" + sello);
+            linea("DTSTART;VALUE=DATE:" + dia);
+            linea("DTEND;VALUE=DATE:" + fecha(diaEpoca + 1));
+            linea("SUMMARY:" + texto(nombre));
+            linea("TRANSP:TRANSPARENT");
+            linea("END:VEVENT");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    void cerrar() throws IOException {
+        abrir();
+        linea("END:VCALENDAR");
+        salida.flush();
+    }
+
+    private void abrir() throws IOException {
+        if (salida != null)
+            return;
+        respuesta.setContentType(TIPO_CONTENIDO);
+        salida = new BufferedWriter(new OutputStreamWriter(respuesta.getOutputStream(), StandardCharsets.UTF_8));
+        linea("BEGIN:VCALENDAR");
+        linea("VERSION:2.0");
+        linea("PRODID:-//api-festivos//ES");
+        linea("CALSCALE:GREGORIAN");
+        linea("METHOD:PUBLISH");
+        linea("X-WR-CALNAME:Festivos país " + idPais);
+    }
+
+    private String fecha(int diaEpoca) {
+        var dia = LocalDate.ofEpochDay(diaEpoca);
+        fecha.setLength(0);
+        fecha.append(dia.getYear());
+        if (dia.getMonthValue() < 10)
+            fecha.append('0');
+        fecha.append(dia.getMonthValue());
+        if (dia.getDayOfMonth() < 10)
+            fecha.append('0');
+        fecha.append(dia.getDayOfMonth());
+        return fecha.toString();
+    }
+
+    /** Escapa un valor TEXT: barra invertida, punto y coma, coma y saltos de línea. */
+    private static String texto(String valor) {
+        var escapado = new StringBuilder(valor.length() + 8);
+        for (int i = 0; i < valor.length(); i++) {
+            char c = valor.charAt(i);
+            switch (c) {
+                case '\\', ';', ',' -> escapado.append('\\').append(c);
+                case '\n' -> escapado.append("\\n");
+                case '\r' -> {
+                }
+                default -> escapado.append(c);
+            }
+        }
+        return escapado.toString();
+    }
+
+    /** Escribe una línea plegada a 75 octetos UTF-8, sin partir un carácter. */
+    private void linea(String contenido) throws IOException {
+        int octetos = 0;
+        for (int i = 0; i < contenido.length(); i++) {
+            char c = contenido.charAt(i);
+            boolean par = Character.isHighSurrogate(c) && i + 1 < contenido.length();
+            int largo = par ? 4 : c < 0x80 ? 1 : c < 0x800 ? 2 : 3;
+            if (octetos + largo > OCTETOS_POR_LINEA) {
+                salida.write(FIN_LINEA);
+                salida.write(' ');
+                octetos = 1;
+            }
+            salida.write(c);
+            if (par)
+                salida.write(contenido.charAt(++i));
+            octetos += largo;
+        }
+        salida.write(FIN_LINEA);
+    }
+
+}
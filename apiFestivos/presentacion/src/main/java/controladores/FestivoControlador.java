@@ -1,15 +1,43 @@
 package festivos.api.presentacion.controladores;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.time.DateTimeException;
+import java.time.DayOfWeek;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+
+import jakarta.servlet.http.HttpServletResponse;
 
 import festivos.api.dominio.entidades.*;
 import festivos.api.dominio.DTOs.*;
@@ -18,6 +46,15 @@ import festivos.api.core.servicios.*;
 @RestController
 @RequestMapping("/api/festivos")
 public class FestivoControlador {
+    private static final int TAMAÑO_LOTE = 1000;
+    private static final ObjectMapper JSON = JsonMapper.builder()
+            .findAndAddModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+    private static final ObjectReader LECTOR_VERIFICACION = JSON.readerFor(VerificacionDto.class);
+    private static final ObjectReader LECTOR_IMPORTACION = JSON.readerFor(ImportacionFestivoDto.class);
+    private static final ObjectWriter ESCRITOR_FESTIVOS = JSON.writerFor(Festivo.class);
+
     private IFestivoServicio servicio;
 
     public FestivoControlador(IFestivoServicio servicio) {
@@ -25,8 +62,45 @@ public class FestivoControlador {
     }
 
     @RequestMapping(value = "/listar", method = RequestMethod.GET)
-    public List<Festivo> listar() {
-        return servicio.listar();
+    public ResponseEntity<?> listar(PaginacionDto paginacion) {
+        if (!paginacion.esPaginada())
+            return ResponseEntity.ok(servicio.listar());
+        try {
+            return ResponseEntity.ok(servicio.listar(paginacion));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Paginación inválida: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Todos los festivos como un arreglo JSON escrito a medida que se leen de
+     * la base de datos: la memoria por petición no depende del tamaño de la
+     * tabla. Un error a mitad del recorrido corta la respuesta, porque el
+     * estado 200 ya se envió.
+     */
+    @RequestMapping(value = "/listar/flujo", method = RequestMethod.GET)
+    public ResponseEntity<StreamingResponseBody> listarEnFlujo() {
+        return enFlujo(null);
+    }
+
+    @RequestMapping(value = "/listar/flujo/{idPais}", method = RequestMethod.GET)
+    public ResponseEntity<StreamingResponseBody> listarEnFlujo(@PathVariable int idPais) {
+        return enFlujo(idPais);
+    }
+
+    private ResponseEntity<StreamingResponseBody> enFlujo(Integer idPais) {
+        StreamingResponseBody cuerpo = salida -> {
+            try (SequenceWriter escritor = ESCRITOR_FESTIVOS.writeValuesAsArray(salida)) {
+                servicio.recorrer(idPais, festivo -> {
+                    try {
+                        escritor.write(festivo);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(cuerpo);
     }
 
     @RequestMapping(value = "/obtener/{id}", method = RequestMethod.GET)
@@ -35,8 +109,20 @@ public class FestivoControlador {
     }
 
     @RequestMapping(value = "/buscar/{nombre}", method = RequestMethod.GET)
-    public List<Festivo> buscar(@PathVariable String nombre) {
-        return servicio.buscar(nombre);
+    public ResponseEntity<?> buscar(@PathVariable String nombre, PaginacionDto paginacion) {
+        if (!paginacion.esPaginada())
+            return ResponseEntity.ok(servicio.buscar(nombre));
+        try {
+            return ResponseEntity.ok(servicio.buscar(nombre, paginacion));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Paginación inválida: " + e.getMessage());
+        }
+    }
+
+    @RequestMapping(value = "/autocompletar/{prefijo}", method = RequestMethod.GET)
+    public List<SugerenciaDto> autocompletar(@PathVariable String prefijo,
+            @RequestParam(defaultValue = "10") int limite) {
+        return servicio.autocompletar(prefijo, limite);
     }
 
     @RequestMapping(value = "/agregar", method = RequestMethod.POST)
@@ -45,8 +131,30 @@ public class FestivoControlador {
     }
 
     @RequestMapping(value = "/modificar", method = RequestMethod.PUT)
-    public Festivo modificar(@RequestBody Festivo pais) {
-        return servicio.modificar(pais);
+    public ResponseEntity<?> modificar(@RequestBody Festivo festivo) {
+        try {
+            return ResponseEntity.ok(servicio.modificar(festivo));
+        } catch (OptimisticLockingFailureException e) {
+            return conflicto(festivo.getVersion());
+        }
+    }
+
+    /** Cambio parcial: solo los campos presentes. Devuelve la nueva versión. */
+    @RequestMapping(value = "/modificar/{id}", method = RequestMethod.PATCH)
+    public ResponseEntity<?> modificar(@PathVariable int id, @RequestBody CambiosFestivoDto cambios) {
+        try {
+            var version = servicio.modificar(id, cambios);
+            return version != null ? ResponseEntity.ok(version) : ResponseEntity.notFound().build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Cambio inválido: " + e.getMessage());
+        } catch (OptimisticLockingFailureException e) {
+            return conflicto(cambios.getVersion());
+        }
+    }
+
+    private static ResponseEntity<String> conflicto(Integer version) {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body("Conflicto de versión: el festivo cambió desde la versión " + version);
     }
 
     @RequestMapping(value = "/eliminar/{id}", method = RequestMethod.DELETE)
@@ -54,6 +162,63 @@ public class FestivoControlador {
         return servicio.eliminar(id);
     }
 
+    /**
+     * Importación masiva desde un arreglo JSON. El arreglo se lee elemento por
+     * elemento mientras se escribe; {@code fila} es la posición en el arreglo
+     * (desde 1). Un JSON mal formado deshace toda la importación.
+     */
+    @RequestMapping(value = "/importar", method = RequestMethod.POST, consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> importar(InputStream entrada) throws IOException {
+        try (MappingIterator<ImportacionFestivoDto> elementos = LECTOR_IMPORTACION.readValues(entrada)) {
+            return ResponseEntity.ok(servicio.importar(numerar(elementos)));
+        } catch (JsonProcessingException e) {
+            return ResponseEntity.badRequest().body("JSON inválido: " + e.getOriginalMessage());
+        } catch (UncheckedIOException e) {
+            if (e.getCause() instanceof JsonProcessingException json)
+                return ResponseEntity.badRequest().body("JSON inválido: " + json.getOriginalMessage());
+            throw e;
+        }
+    }
+
+    /** Variante CSV, con encabezado; {@code fila} es el número de línea. */
+    @RequestMapping(value = "/importar", method = RequestMethod.POST, consumes = "text/csv")
+    public ResponseEntity<?> importarCsv(InputStream entrada) throws IOException {
+        var lector = new BufferedReader(new InputStreamReader(entrada, StandardCharsets.UTF_8));
+        LectorCsvFestivos filas;
+        try {
+            filas = new LectorCsvFestivos(lector);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("CSV inválido: " + e.getMessage());
+        }
+        return ResponseEntity.ok(servicio.importar(filas));
+    }
+
+    private static Iterator<ImportacionFestivoDto> numerar(MappingIterator<ImportacionFestivoDto> elementos) {
+        return new Iterator<>() {
+            private int fila;
+
+            @Override
+            public boolean hasNext() {
+                try {
+                    return elementos.hasNextValue();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+
+            @Override
+            public ImportacionFestivoDto next() {
+                try {
+                    var elemento = elementos.nextValue();
+                    elemento.setFila(++fila);
+                    return elemento;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        };
+    }
+
     @RequestMapping(value = "/verificar/{idPais}/{año}/{mes}/{dia}", method = RequestMethod.GET)
     public ResponseEntity<?>  verificar(@PathVariable int idPais, @PathVariable int año, @PathVariable int mes,
             @PathVariable int dia) {
@@ -66,9 +231,153 @@ public class FestivoControlador {
         }
     }
 
+    @RequestMapping(value = "/verificar", method = RequestMethod.POST, consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> verificar(@RequestBody List<VerificacionDto> consultas) {
+        for (var consulta : consultas) {
+            // Como en la variante NDJSON: un elemento null es una consulta inválida, no un 500
+            if (consulta == null)
+                return ResponseEntity.badRequest().body("Consulta inválida");
+            if (!fechaAdmitida(consulta.getFecha()))
+                return ResponseEntity.badRequest().body("Fecha inválida para el país " + consulta.getIdPais());
+        }
+        return ResponseEntity.ok(servicio.verificar(consultas));
+    }
+
+    /**
+     * Variante NDJSON: lee una consulta por línea y escribe un resultado por
+     * línea en el mismo orden, procesando por lotes para no cargar el archivo
+     * completo en memoria. Las líneas inválidas producen una línea de error.
+     */
+    @RequestMapping(value = "/verificar", method = RequestMethod.POST, consumes = MediaType.APPLICATION_NDJSON_VALUE,
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void verificarFlujo(InputStream entrada, HttpServletResponse respuesta) throws IOException {
+        respuesta.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        respuesta.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        var lector = new BufferedReader(new InputStreamReader(entrada, StandardCharsets.UTF_8));
+        var salida = respuesta.getOutputStream();
+        try (SequenceWriter escritor = JSON.writer().withRootValueSeparator("\n").writeValues(salida)) {
+            List<VerificacionDto> lote = new ArrayList<>(TAMAÑO_LOTE);
+            String linea;
+            int numero = 0;
+            while ((linea = lector.readLine()) != null) {
+                numero++;
+                if (linea.isBlank())
+                    continue;
+                VerificacionDto consulta = null;
+                try {
+                    consulta = LECTOR_VERIFICACION.readValue(linea);
+                } catch (JsonProcessingException e) {
+                    // el error se reporta en su posición, después de lo ya leído
+                }
+                if (consulta == null || !fechaAdmitida(consulta.getFecha())) {
+                    escribirLote(escritor, lote);
+                    escritor.write(Map.of("linea", numero, "error", "Consulta inválida"));
+                    continue;
+                }
+                lote.add(consulta);
+                if (lote.size() == TAMAÑO_LOTE)
+                    escribirLote(escritor, lote);
+            }
+            escribirLote(escritor, lote);
+        }
+    }
+
+    private static boolean fechaAdmitida(LocalDate fecha) {
+        return fecha != null && fecha.getYear() >= IFestivoServicio.AÑO_MIN && fecha.getYear() <= IFestivoServicio.AÑO_MAX;
+    }
+
+    private void escribirLote(SequenceWriter escritor, List<VerificacionDto> lote) throws IOException {
+        if (lote.isEmpty())
+            return;
+        for (var resultado : servicio.verificar(lote))
+            escritor.write(resultado);
+        escritor.flush();
+        lote.clear();
+    }
+
     @RequestMapping(value = "/listar/{idPais}/{año}", method = RequestMethod.GET)
-    public List<FestivoDto> listar(@PathVariable int idPais, @PathVariable int año) {
-        return servicio.listar(idPais, año);
+    public ResponseEntity<?> listar(@PathVariable int idPais, @PathVariable int año, ServletWebRequest peticion) {
+        if (año < IFestivoServicio.AÑO_MIN || año > IFestivoServicio.AÑO_MAX)
+            return ResponseEntity.badRequest().body("Año inválido: " + año);
+        String etag = RespuestaCondicional.etag("festivos", servicio.getVersion()) + "-" + idPais + "-" + año;
+        if (RespuestaCondicional.noModificado(peticion, etag, servicio.getUltimaModificacion()))
+            return null;
+        return ResponseEntity.ok(servicio.listar(idPais, año));
+    }
+
+    @RequestMapping(value = "/listar/{idPais}/{añoDesde}/{añoHasta}", method = RequestMethod.GET)
+    public ResponseEntity<?> listar(@PathVariable int idPais, @PathVariable int añoDesde, @PathVariable int añoHasta) {
+        try {
+            return ResponseEntity.ok(servicio.listar(idPais, LocalDate.of(añoDesde, 1, 1), LocalDate.of(añoHasta, 12, 31)));
+        } catch (DateTimeException | IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Rango inválido: " + e.getMessage());
+        }
+    }
+
+    @RequestMapping(value = "/listar/{idPais}", method = RequestMethod.GET)
+    public ResponseEntity<?> listar(@PathVariable int idPais,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta) {
+        try {
+            return ResponseEntity.ok(servicio.listar(idPais, desde, hasta));
+        } catch (DateTimeException | IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Rango inválido: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Festivos del país en iCalendar, para suscribirse desde un calendario.
+     * Sin {@code desde}/{@code hasta} cubre del año anterior a dos años
+     * adelante. Los eventos se escriben a medida que se calculan.
+     */
+    @RequestMapping(value = "/ics/{idPais}", method = RequestMethod.GET)
+    public ResponseEntity<?> ics(@PathVariable int idPais,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta,
+            ServletWebRequest peticion, HttpServletResponse respuesta) throws IOException {
+        int año = LocalDate.now().getYear();
+        if (desde == null)
+            desde = LocalDate.of(año - 1, 1, 1);
+        if (hasta == null)
+            hasta = LocalDate.of(año + 2, 12, 31);
+        long ultimaModificacion = servicio.getUltimaModificacion();
+        String etag = RespuestaCondicional.etag("ics", servicio.getVersion()) + "-" + idPais + "-" + desde + "-" + hasta;
+        if (RespuestaCondicional.noModificado(peticion, etag, ultimaModificacion))
+            return null;
+
+        var escritor = new EscritorIcs(respuesta, idPais, ultimaModificacion);
+        try {
+            servicio.recorrer(idPais, desde, hasta, escritor::evento);
+        } catch (DateTimeException | IllegalArgumentException e) {
+            // El rango se valida antes del primer evento: aún no se ha escrito nada
+            return ResponseEntity.badRequest().body("Rango inválido: " + e.getMessage());
+        }
+        escritor.cerrar();
+        return null;
+    }
+
+    @RequestMapping(value = "/habiles/agregar/{idPais}", method = RequestMethod.GET)
+    public ResponseEntity<?> agregarDiasHabiles(@PathVariable int idPais,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fecha,
+            @RequestParam int dias,
+            @RequestParam(defaultValue = "SATURDAY,SUNDAY") List<DayOfWeek> finesDeSemana) {
+        try {
+            return ResponseEntity.ok(servicio.agregarDiasHabiles(idPais, fecha, dias, finesDeSemana));
+        } catch (DateTimeException | IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Consulta inválida: " + e.getMessage());
+        }
+    }
+
+    @RequestMapping(value = "/habiles/contar/{idPais}", method = RequestMethod.GET)
+    public ResponseEntity<?> contarDiasHabiles(@PathVariable int idPais,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta,
+            @RequestParam(defaultValue = "SATURDAY,SUNDAY") List<DayOfWeek> finesDeSemana) {
+        try {
+            return ResponseEntity.ok(servicio.contarDiasHabiles(idPais, desde, hasta, finesDeSemana));
+        } catch (DateTimeException | IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Consulta inválida: " + e.getMessage());
+        }
     }
 
 }
@@ -0,0 +1,139 @@
+package festivos.api.presentacion.controladores;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.NoSuchElementException;
+
+import festivos.api.dominio.DTOs.ImportacionFestivoDto;
+
+/**
+ * Lee un CSV de festivos línea por línea, sin cargarlo completo. La primera
+ * línea nombra las columnas ({@code nombre, dia, mes, diasPascua, idPais,
+ * idTipo}, en cualquier orden); los campos pueden ir entre comillas dobles.
+ * Un número mal escrito no detiene la lectura: la fila sale con su error.
+ */
+final class LectorCsvFestivos implements Iterator<ImportacionFestivoDto> {
+
+    private static final String[] COLUMNAS = { "nombre", "dia", "mes", "diaspascua", "idpais", "idtipo" };
+    private static final String[] OBLIGATORIAS = { "nombre", "idpais", "idtipo" };
+
+    private final BufferedReader lector;
+    private final int[] posiciones = new int[COLUMNAS.length];
+    private int linea = 1;
+    private ImportacionFestivoDto siguiente;
+
+    /** Lanza {@link IllegalArgumentException} si falta el encabezado o una columna obligatoria. */
+    LectorCsvFestivos(BufferedReader lector) throws IOException {
+        this.lector = lector;
+        var encabezado = lector.readLine();
+        if (encabezado == null)
+            throw new IllegalArgumentException("El CSV está vacío");
+        if (encabezado.startsWith("\uFEFF"))
+            encabezado = encabezado.substring(1);
+        var nombres = encabezados(campos(encabezado));
+        for (int i = 0; i < COLUMNAS.length; i++)
+            posiciones[i] = nombres.indexOf(COLUMNAS[i]);
+        for (var obligatoria : OBLIGATORIAS) {
+            if (!nombres.contains(obligatoria))
+                throw new IllegalArgumentException("Falta la columna " + obligatoria);
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (siguiente != null)
+            return true;
+        try {
+            String texto;
+            while ((texto = lector.readLine()) != null) {
+                linea++;
+                if (!texto.isBlank()) {
+                    siguiente = fila(campos(texto));
+                    return true;
+                }
+            }
+            return false;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public ImportacionFestivoDto next() {
+        if (!hasNext())
+            throw new NoSuchElementException();
+        var fila = siguiente;
+        siguiente = null;
+        return fila;
+    }
+
+    private ImportacionFestivoDto fila(List<String> campos) {
+        var fila = new ImportacionFestivoDto();
+        fila.setFila(linea);
+        fila.setNombre(campo(campos, 0));
+        fila.setDia(numero(fila, campos, 1));
+        fila.setMes(numero(fila, campos, 2));
+        fila.setDiasPascua(numero(fila, campos, 3));
+        fila.setIdPais(numero(fila, campos, 4));
+        fila.setIdTipo(numero(fila, campos, 5));
+        return fila;
+    }
+
+    private String campo(List<String> campos, int columna) {
+        int posicion = posiciones[columna];
+        if (posicion < 0 || posicion >= campos.size())
+            return null;
+        var valor = campos.get(posicion);
+        return valor.isBlank() ? null : valor;
+    }
+
+    private Integer numero(ImportacionFestivoDto fila, List<String> campos, int columna) {
+        var valor = campo(campos, columna);
+        if (valor == null)
+            return null;
+        try {
+            return Integer.valueOf(valor.strip());
+        } catch (NumberFormatException e) {
+            if (fila.getError() == null)
+                fila.setError("Número inválido en " + COLUMNAS[columna] + ": " + valor);
+            return null;
+        }
+    }
+
+    /** Separa una línea por comas; {@code ""} dentro de comillas es una comilla. */
+    private static List<String> campos(String linea) {
+        List<String> campos = new ArrayList<>();
+        var campo = new StringBuilder();
+        boolean entreComillas = false;
+        for (int i = 0; i < linea.length(); i++) {
+            char c = linea.charAt(i);
+            if (entreComillas) {
+                if (c != '"')
+                    campo.append(c);
+                else if (i + 1 < linea.length() && linea.charAt(i + 1) == '"')
+                    campo.append(linea.charAt(++i));
+                else
+                    entreComillas = false;
+            } else if (c == '"') {
+                entreComillas = true;
+            } else if (c == ',') {
+                campos.add(campo.toString());
+                campo.setLength(0);
+            } else {
+                campo.append(c);
+            }
+        }
+        campos.add(campo.toString());
+        return campos;
+    }
+
+    private static List<String> encabezados(List<String> campos) {
+        return campos.stream().map(c -> c.strip().toLowerCase(Locale.ROOT)).toList();
+    }
+
+}
@@ -2,12 +2,18 @@ package festivos.api.presentacion.controladores;
 
 import java.util.List;
 
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
 
+import festivos.api.dominio.DTOs.*;
 import festivos.api.dominio.entidades.*;
 import festivos.api.core.servicios.*;
 
@@ -22,8 +28,17 @@ public class PaisControlador {
     }
 
     @RequestMapping(value = "/listar", method = RequestMethod.GET)
-    public List<Pais> listar() {
-        return servicio.listar();
+    public ResponseEntity<?> listar(PaginacionDto paginacion, ServletWebRequest peticion) {
+        String etag = RespuestaCondicional.etag("paises", servicio.getVersion());
+        if (RespuestaCondicional.noModificado(peticion, etag, servicio.getUltimaModificacion()))
+            return null;
+        if (!paginacion.esPaginada())
+            return ResponseEntity.ok(servicio.listar());
+        try {
+            return ResponseEntity.ok(servicio.listar(paginacion));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Paginación inválida: " + e.getMessage());
+        }
     }
 
     @RequestMapping(value = "/obtener/{id}", method = RequestMethod.GET)
@@ -32,8 +47,20 @@ public class PaisControlador {
     }
 
     @RequestMapping(value = "/buscar/{nombre}", method = RequestMethod.GET)
-    public List<Pais> buscar(@PathVariable String nombre) {
-        return servicio.buscar(nombre);
+    public ResponseEntity<?> buscar(@PathVariable String nombre, PaginacionDto paginacion) {
+        if (!paginacion.esPaginada())
+            return ResponseEntity.ok(servicio.buscar(nombre));
+        try {
+            return ResponseEntity.ok(servicio.buscar(nombre, paginacion));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Paginación inválida: " + e.getMessage());
+        }
+    }
+
+    @RequestMapping(value = "/autocompletar/{prefijo}", method = RequestMethod.GET)
+    public List<SugerenciaDto> autocompletar(@PathVariable String prefijo,
+            @RequestParam(defaultValue = "10") int limite) {
+        return servicio.autocompletar(prefijo, limite);
     }
 
     @RequestMapping(value = "/agregar", method = RequestMethod.POST)
@@ -42,8 +69,13 @@ public class PaisControlador {
     }
 
     @RequestMapping(value = "/modificar", method = RequestMethod.PUT)
-    public Pais modificar(@RequestBody Pais pais) {
-        return servicio.modificar(pais);
+    public ResponseEntity<?> modificar(@RequestBody Pais pais) {
+        try {
+            return ResponseEntity.ok(servicio.modificar(pais));
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body("Conflicto de versión: el país cambió desde la versión " + pais.getVersion());
+        }
     }
 
     @RequestMapping(value = "/eliminar/{id}", method = RequestMethod.DELETE)
@@ -0,0 +1,68 @@
+package festivos.api.presentacion.controladores;
+
+import java.util.List;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Peticiones condicionales (If-None-Match / If-Modified-Since) sobre la
+ * versión de datos de un servicio. Se evalúa antes de consultar el servicio,
+ * así un 304 no toca la base de datos ni serializa nada.
+ */
+final class RespuestaCondicional {
+
+    /** El cliente puede guardar la respuesta pero debe revalidarla en cada uso. */
+    private static final String CACHE_CONTROL = CacheControl.noCache().getHeaderValue();
+    private static final MediaType CBOR = MediaType.APPLICATION_CBOR;
+
+    private RespuestaCondicional() {
+    }
+
+    static String etag(String recurso, long version) {
+        return recurso + "-" + Long.toHexString(version);
+    }
+
+    /**
+     * Agrega ETag, Last-Modified y Cache-Control. Devuelve {@code true} si el
+     * cliente ya tiene esta versión; en ese caso la respuesta queda en 304 y el
+     * controlador debe devolver {@code null}. JSON y CBOR tienen ETag
+     * distinto, porque son bytes distintos para la misma versión. Sin ningún
+     * cambio registrado ({@code ultimaModificacion} 0) solo se usa el ETag.
+     */
+    static boolean noModificado(ServletWebRequest peticion, String etag, long ultimaModificacion) {
+        HttpServletResponse respuesta = peticion.getResponse();
+        if (respuesta != null) {
+            respuesta.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+            respuesta.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        }
+        if (pideCbor(peticion.getHeader(HttpHeaders.ACCEPT)))
+            etag += "-cbor";
+        return peticion.checkNotModified(etag, ultimaModificacion > 0 ? ultimaModificacion : -1);
+    }
+
+    /** Si la negociación de contenido elegirá CBOR: el JSON gana los empates, como en los convertidores. */
+    private static boolean pideCbor(String accept) {
+        if (accept == null || !accept.contains(CBOR.getSubtype()))
+            return false;
+        try {
+            List<MediaType> tipos = MediaType.parseMediaTypes(accept);
+            MimeTypeUtils.sortBySpecificity(tipos);
+            for (MediaType tipo : tipos) {
+                if (tipo.isCompatibleWith(MediaType.APPLICATION_JSON))
+                    return false;
+                if (tipo.isCompatibleWith(CBOR))
+                    return true;
+            }
+            return false;
+        } catch (InvalidMediaTypeException e) {
+            return false;
+        }
+    }
+}
@@ -2,12 +2,17 @@ package festivos.api.presentacion.controladores;
 
 import java.util.List;
 
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
 
+import festivos.api.dominio.DTOs.*;
 import festivos.api.dominio.entidades.*;
 import festivos.api.core.servicios.*;
 
@@ -22,8 +27,17 @@ public class TipoControlador {
     }
 
     @RequestMapping(value = "/listar", method = RequestMethod.GET)
-    public List<Tipo> listar() {
-        return servicio.listar();
+    public ResponseEntity<?> listar(PaginacionDto paginacion, ServletWebRequest peticion) {
+        String etag = RespuestaCondicional.etag("tipos", servicio.getVersion());
+        if (RespuestaCondicional.noModificado(peticion, etag, servicio.getUltimaModificacion()))
+            return null;
+        if (!paginacion.esPaginada())
+            return ResponseEntity.ok(servicio.listar());
+        try {
+            return ResponseEntity.ok(servicio.listar(paginacion));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Paginación inválida: " + e.getMessage());
+        }
     }
 
     @RequestMapping(value = "/obtener/{id}", method = RequestMethod.GET)
@@ -32,8 +46,14 @@ public class TipoControlador {
     }
 
     @RequestMapping(value = "/buscar/{nombre}", method = RequestMethod.GET)
-    public List<Tipo> buscar(@PathVariable String nombre) {
-        return servicio.buscar(nombre);
+    public ResponseEntity<?> buscar(@PathVariable String nombre, PaginacionDto paginacion) {
+        if (!paginacion.esPaginada())
+            return ResponseEntity.ok(servicio.buscar(nombre));
+        try {
+            return ResponseEntity.ok(servicio.buscar(nombre, paginacion));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Paginación inválida: " + e.getMessage());
+        }
     }
 
     @RequestMapping(value = "/agregar", method = RequestMethod.POST)
@@ -42,8 +62,13 @@ public class TipoControlador {
     }
 
     @RequestMapping(value = "/modificar", method = RequestMethod.PUT)
-    public Tipo modificar(@RequestBody Tipo tipo) {
-        return servicio.modificar(tipo);
+    public ResponseEntity<?> modificar(@RequestBody Tipo tipo) {
+        try {
+            return ResponseEntity.ok(servicio.modificar(tipo));
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body("Conflicto de versión: el tipo cambió desde la versión " + tipo.getVersion());
+        }
     }
 
     @RequestMapping(value = "/eliminar/{id}", method = RequestMethod.DELETE)
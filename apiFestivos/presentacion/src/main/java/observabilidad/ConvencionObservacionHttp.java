@@ -0,0 +1,50 @@
+package festivos.api.presentacion.observabilidad;
+
+import java.util.Map;
+
+import org.springframework.http.server.observation.DefaultServerRequestObservationConvention;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.common.KeyValue;
+import io.micrometer.common.KeyValues;
+
+import festivos.api.aplicacion.calendario.CacheCalendarios;
+
+/**
+ * Agrega la etiqueta {@code pais} a {@code http.server.requests}. El endpoint
+ * ya viene en {@code uri} como plantilla, así que ambas etiquetas son acotadas.
+ */
+@Component
+public class ConvencionObservacionHttp extends DefaultServerRequestObservationConvention {
+
+    private static final String VARIABLE_PAIS = "idPais";
+    private static final KeyValue SIN_PAIS = KeyValue.of("pais", "ninguno");
+
+    private CacheCalendarios cache;
+
+    public ConvencionObservacionHttp(CacheCalendarios cache) {
+        this.cache = cache;
+    }
+
+    @Override
+    public KeyValues getLowCardinalityKeyValues(ServerRequestObservationContext context) {
+        return super.getLowCardinalityKeyValues(context).and(pais(context));
+    }
+
+    private KeyValue pais(ServerRequestObservationContext context) {
+        if (context.getCarrier() == null)
+            return SIN_PAIS;
+        @SuppressWarnings("unchecked")
+        var variables = (Map<String, String>) context.getCarrier()
+                .getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        if (variables == null || !variables.containsKey(VARIABLE_PAIS))
+            return SIN_PAIS;
+        try {
+            return KeyValue.of("pais", cache.etiquetaPais(Integer.parseInt(variables.get(VARIABLE_PAIS))));
+        } catch (NumberFormatException e) {
+            return KeyValue.of("pais", cache.etiquetaPais(-1));
+        }
+    }
+}
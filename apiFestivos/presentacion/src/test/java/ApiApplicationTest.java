@@ -1,15 +1,430 @@
 package festivos.api.presentacion;
 
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.jayway.jsonpath.JsonPath;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+import festivos.api.core.servicios.IFestivoServicio;
+import festivos.api.core.servicios.ITipoServicio;
+import festivos.api.dominio.entidades.CambioDatos;
+import festivos.api.dominio.entidades.Festivo;
+import festivos.api.dominio.entidades.FestivoFechaId;
+import festivos.api.dominio.entidades.Pais;
+import festivos.api.dominio.entidades.Tipo;
+import festivos.api.infraestructura.repositorios.ICambioDatosRepositorio;
+import festivos.api.infraestructura.repositorios.IFestivoFechaRepositorio;
+import festivos.api.infraestructura.repositorios.IFestivoRepositorio;
+import festivos.api.infraestructura.repositorios.IPaisRepositorio;
+import festivos.api.infraestructura.repositorios.ITipoRepositorio;
 
 @SpringBootTest
-@ActiveProfiles("test")
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+@ActiveProfiles({ "test", "estadisticas" })
 class ApiApplicationTest {
 
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Autowired
+    private IPaisRepositorio paisRepositorio;
+
+    @Autowired
+    private ITipoRepositorio tipoRepositorio;
+
+    @Autowired
+    private IFestivoRepositorio festivoRepositorio;
+
+    @Autowired
+    private ICambioDatosRepositorio cambioDatosRepositorio;
+
+    @Autowired
+    private IFestivoServicio festivoServicio;
+
+    @Autowired
+    private ITipoServicio tipoServicio;
+
+    @Autowired
+    private IFestivoFechaRepositorio festivoFechaRepositorio;
+
     @Test
     void contextLoads() {
         // Esta prueba verifica que el contexto de Spring Boot se carga correctamente
     }
+
+    @Test
+    void testRegistraMetricasDeEndpointYServicio() throws Exception {
+        // When
+        mockMvc.perform(get("/api/festivos/listar/1/2024")).andExpect(status().isOk());
+
+        // Then
+        assertEquals(1, registry.get("http.server.requests")
+                .tag("uri", "/api/festivos/listar/{idPais}/{año}")
+                .tag("pais", "otro") // el país 1 no tiene reglas en la base de pruebas
+                .timer().count());
+        assertEquals(1, registry.get("festivos.servicio")
+                .tag("class", "festivos.api.aplicacion.servicios.FestivoServicio")
+                .tag("method", "listar")
+                .timer().count());
+        assertNotNull(registry.get("http.server.requests.active").longTaskTimer());
+    }
+
+    @Test
+    void testExponeEndpointPrometheus() throws Exception {
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void testPaginaPaisesPorLlave() throws Exception {
+        // Given
+        for (String nombre : new String[] { "ZZ-C", "ZZ-A", "ZZ-B" }) {
+            Pais pais = new Pais();
+            pais.setNombre(nombre);
+            paisRepositorio.save(pais);
+        }
+
+        // When
+        String primera = mockMvc.perform(get("/api/paises/buscar/ZZ-").param("limite", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.contenido[0].nombre").value("ZZ-A"))
+                .andExpect(jsonPath("$.contenido[1].nombre").value("ZZ-B"))
+                .andExpect(jsonPath("$.hayMas").value(true))
+                .andReturn().getResponse().getContentAsString();
+        int despuesId = JsonPath.read(primera, "$.despuesId");
+
+        // Then
+        mockMvc.perform(get("/api/paises/buscar/ZZ-").param("limite", "2")
+                .param("despuesNombre", "ZZ-B").param("despuesId", String.valueOf(despuesId)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.contenido.length()").value(1))
+                .andExpect(jsonPath("$.contenido[0].nombre").value("ZZ-C"))
+                .andExpect(jsonPath("$.hayMas").value(false));
+    }
+
+    @Test
+    void testBuscarPaisSinTildes() throws Exception {
+        // Given
+        mockMvc.perform(post("/api/paises/agregar")
+                .contentType("application/json")
+                .content("{\"nombre\":\"YY-MÉXICO\"}"))
+                .andExpect(status().isOk());
+
+        // When & Then
+        mockMvc.perform(get("/api/paises/buscar/yy-mexico"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].nombre").value("YY-MÉXICO"));
+        mockMvc.perform(get("/api/paises/autocompletar/yy-mex"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].nombre").value("YY-MÉXICO"));
+    }
+
+    @Test
+    void testImportarCsvInsertaYLuegoActualiza() throws Exception {
+        // Given: el país 1 debe seguir sin reglas (ver testRegistraMetricasDeEndpointYServicio)
+        int idPais = Math.max(paisRepositorio.save(new Pais(0, "XX-A")).getId(),
+                paisRepositorio.save(new Pais(0, "XX-B")).getId());
+        // El id de tipo decide la regla (1 = fecha fija); otras pruebas pueden haber creado tipos antes
+        int idTipo = tipoRepositorio.findById(1).orElseGet(() -> {
+            Tipo tipo = new Tipo();
+            tipo.setNombre("Fijo");
+            return tipoRepositorio.save(tipo);
+        }).getId();
+        StringBuilder csv = new StringBuilder("nombre,dia,mes,idPais,idTipo\n");
+        for (int i = 0; i < 2000; i++)
+            csv.append("XX-").append(i).append(',').append(i % 28 + 1).append(",2,").append(idPais).append(',')
+                    .append(idTipo).append('\n');
+
+        // When
+        mockMvc.perform(post("/api/festivos/importar").contentType("text/csv").content(csv.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.insertadas").value(2000))
+                .andExpect(jsonPath("$.rechazadas").value(0));
+        String segunda = "nombre,dia,mes,idPais,idTipo\n"
+                + "XX-7,15,3," + idPais + "," + idTipo + "\n"
+                + "XX-nuevo,30,2," + idPais + "," + idTipo + "\n"
+                + "XX-otro,1,1,-1," + idTipo + "\n";
+
+        // Then
+        mockMvc.perform(post("/api/festivos/importar").contentType("text/csv").content(segunda))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.insertadas").value(0))
+                .andExpect(jsonPath("$.actualizadas").value(1))
+                .andExpect(jsonPath("$.rechazadas").value(2))
+                .andExpect(jsonPath("$.errores[0].fila").value(3))
+                .andExpect(jsonPath("$.errores[1].error").value("País inexistente: -1"));
+        assertEquals(2000, festivoRepositorio.listarPorPais(idPais).size());
+        assertTrue(festivoRepositorio.listarReglasPorPais(idPais).stream()
+                .anyMatch(r -> r.getNombre().equals("XX-7") && r.getDia() == 15 && r.getMes() == 3));
+    }
+
+    @Test
+    void testImportarVeintinueveDeFebreroNoRompeLosAñosComunes() throws Exception {
+        // Given
+        int idPais = paisRepositorio.save(new Pais(0, "BI-A")).getId();
+        int idTipo = tipoRepositorio.findById(1).orElseGet(() -> {
+            Tipo tipo = new Tipo();
+            tipo.setNombre("Fijo");
+            return tipoRepositorio.save(tipo);
+        }).getId();
+        String csv = "nombre,dia,mes,idPais,idTipo\n"
+                + "BI-Bisiesto,29,2," + idPais + "," + idTipo + "\n"
+                + "BI-Navidad,25,12," + idPais + "," + idTipo + "\n";
+        mockMvc.perform(post("/api/festivos/importar").contentType("text/csv").content(csv))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.insertadas").value(2));
+
+        // When & Then
+        mockMvc.perform(get("/api/festivos/verificar/" + idPais + "/2025/12/25"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("true"));
+        mockMvc.perform(get("/api/festivos/verificar/" + idPais + "/2025/2/28"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("false"));
+        mockMvc.perform(get("/api/festivos/verificar/" + idPais + "/2024/2/29"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("true"));
+        mockMvc.perform(get("/api/festivos/listar/" + idPais + "/2025"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1));
+    }
+
+    @Test
+    void testDiasHabilesFueraDeRangoEsSolicitudInvalida() throws Exception {
+        mockMvc.perform(get("/api/festivos/habiles/agregar/1").param("fecha", "2024-01-01")
+                .param("dias", String.valueOf(Integer.MAX_VALUE)))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/festivos/habiles/contar/1").param("desde", "2024-01-01")
+                .param("hasta", "+999999999-12-31"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testModificarConVersionViejaEsConflicto() throws Exception {
+        // Given
+        int id = paisRepositorio.save(new Pais(0, "WW-A")).getId();
+        String cuerpo = "{\"id\":" + id + ",\"nombre\":\"WW-B\",\"version\":0}";
+        mockMvc.perform(put("/api/paises/modificar").contentType("application/json").content(cuerpo))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.version").value(1));
+
+        // When & Then
+        mockMvc.perform(put("/api/paises/modificar").contentType("application/json").content(cuerpo))
+                .andExpect(status().isConflict());
+        assertEquals("WW-B", paisRepositorio.findById(id).get().getNombre());
+    }
+
+    @Test
+    void testModificarFestivoParcialmente() throws Exception {
+        // Given
+        Pais pais = paisRepositorio.save(new Pais(0, "VV-A"));
+        Pais otro = paisRepositorio.save(new Pais(0, "VV-B"));
+        Tipo tipo = new Tipo();
+        tipo.setNombre("VV-Fijo");
+        tipo = tipoRepositorio.save(tipo);
+        int id = festivoRepositorio.save(new Festivo(0, "VV-Fiesta", 1, 5, 0, pais, tipo)).getId();
+
+        // When
+        mockMvc.perform(patch("/api/festivos/modificar/" + id).contentType("application/json")
+                .content("{\"version\":0,\"dia\":2}"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("1"));
+        mockMvc.perform(patch("/api/festivos/modificar/" + id).contentType("application/json")
+                .content("{\"version\":1,\"idPais\":" + otro.getId() + "}"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("2"));
+
+        // Then
+        Festivo festivo = festivoRepositorio.obtener(id).get();
+        assertEquals(2, festivo.getDia());
+        assertEquals(5, festivo.getMes());
+        assertEquals("VV-Fiesta", festivo.getNombre());
+        assertEquals(otro.getId(), festivo.getPais().getId());
+        assertEquals(2, festivo.getVersion());
+    }
+
+    @Test
+    void testNegociaCborYMantieneJsonPorDefecto() throws Exception {
+        // Given
+        paisRepositorio.save(new Pais(0, "UU-Cbor"));
+
+        // When
+        byte[] cbor = mockMvc.perform(get("/api/paises/listar").accept("application/cbor"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/cbor"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        // Then
+        assertTrue(new CBORMapper().readTree(cbor).findValuesAsText("nombre").contains("UU-Cbor"));
+        mockMvc.perform(get("/api/paises/listar").accept("*/*"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("application/json"));
+    }
+
+    @Test
+    void testListarEnFlujoPorPais() throws Exception {
+        // Given
+        Pais pais = paisRepositorio.save(new Pais(0, "TT-Flujo"));
+        Tipo tipo = tipoRepositorio.findAll().stream().findFirst().orElseGet(() -> {
+            Tipo nuevo = new Tipo();
+            nuevo.setNombre("TT-Fijo");
+            return tipoRepositorio.save(nuevo);
+        });
+        for (int i = 0; i < 1200; i++)
+            festivoRepositorio.save(new Festivo(0, String.format("TT-%04d", i), 1 + i % 28, 1 + i % 12, 0, pais, tipo));
+
+        // When
+        var resultado = mockMvc.perform(get("/api/festivos/listar/flujo/" + pais.getId()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        String json = mockMvc.perform(asyncDispatch(resultado))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+        assertEquals(1200, (Integer) JsonPath.read(json, "$.length()"));
+        assertEquals("TT-0000", JsonPath.read(json, "$[0].nombre"));
+        assertEquals("TT-Flujo", JsonPath.read(json, "$[1199].pais.nombre"));
+    }
+
+    @Test
+    void testCacheDeSegundoNivelSirvePaisesYSeInvalidaAlModificar() throws Exception {
+        // Given
+        int id = paisRepositorio.save(new Pais(0, "SS-A")).getId();
+        double aciertos = aciertos("hibernate.second.level.cache.requests", "region", "paises");
+        double aciertosConsultas = aciertos("hibernate.cache.query.requests", null, null);
+
+        // When
+        paisRepositorio.findById(id);
+        paisRepositorio.findById(id);
+        mockMvc.perform(get("/api/paises/listar")).andExpect(status().isOk());
+        mockMvc.perform(get("/api/paises/listar")).andExpect(status().isOk());
+
+        // Then
+        assertTrue(aciertos("hibernate.second.level.cache.requests", "region", "paises") >= aciertos + 2);
+        assertTrue(aciertos("hibernate.cache.query.requests", null, null) >= aciertosConsultas + 1);
+        mockMvc.perform(put("/api/paises/modificar").contentType("application/json")
+                .content("{\"id\":" + id + ",\"nombre\":\"SS-B\",\"version\":0}"))
+                .andExpect(status().isOk());
+        assertEquals("SS-B", paisRepositorio.findById(id).get().getNombre());
+        mockMvc.perform(get("/api/paises/listar"))
+                .andExpect(jsonPath("$[?(@.id == " + id + ")].nombre").value("SS-B"));
+    }
+
+    @Test
+    void testInvalidacionDeOtraInstanciaDescartaElCalendarioDelPais() throws Exception {
+        // Given
+        Pais pais = paisRepositorio.save(new Pais(0, "II-Remoto"));
+        Tipo fijo = tipoRepositorio.findById(1).orElseGet(() -> {
+            Tipo nuevo = new Tipo();
+            nuevo.setNombre("Fijo");
+            return tipoRepositorio.save(nuevo);
+        });
+        Festivo festivo = festivoServicio.agregar(new Festivo(0, "II-Fiesta", 1, 3, 0, pais, fijo));
+        assertTrue(cambioDatosRepositorio.findAll().stream()
+                .anyMatch(c -> c.getCatalogo().equals("FESTIVOS") && Integer.valueOf(festivo.getId()).equals(c.getIdRegistro())));
+        LocalDate antes = LocalDate.of(2024, 3, 1);
+        assertTrue(festivoServicio.verificar(pais.getId(), antes));
+        // Otra instancia mueve el festivo en la base compartida y publica su aviso
+        festivo.setDia(2);
+        festivoRepositorio.save(festivo);
+        assertTrue(festivoServicio.verificar(pais.getId(), antes)); // aún en la cache de calendarios
+        cambioDatosRepositorio.save(new CambioDatos("FESTIVOS", festivo.getId(), pais.getId(), "otra-instancia", Instant.now()));
+
+        // When
+        long limite = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (festivoServicio.verificar(pais.getId(), antes) && System.nanoTime() < limite)
+            Thread.sleep(20);
+
+        // Then
+        assertFalse(festivoServicio.verificar(pais.getId(), antes));
+        assertTrue(festivoServicio.verificar(pais.getId(), LocalDate.of(2024, 3, 2)));
+    }
+
+    @Test
+    void testVersionDeDatosSaleDeLaTablaCompartida() throws Exception {
+        // Given: otra instancia registra un cambio de tipos en la base compartida
+        CambioDatos cambio = cambioDatosRepositorio.save(
+                new CambioDatos("TIPOS", 1, null, "otra-instancia", Instant.now()));
+        long esperada = cambio.getId() << 16;
+
+        // When
+        long limite = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (tipoServicio.getVersion() < esperada && System.nanoTime() < limite)
+            Thread.sleep(20);
+
+        // Then: la misma versión que calcula cualquier instancia que lea esa fila
+        assertEquals(esperada, tipoServicio.getVersion());
+        String etag = mockMvc.perform(get("/api/tipos/listar"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        assertTrue(etag.contains(Long.toHexString(esperada)));
+    }
+
+    @Test
+    void testEscriturasMaterializanFechasDelPais() {
+        // Given
+        int año = LocalDate.now().getYear();
+        Pais pais = paisRepositorio.save(new Pais(0, "FF-Fechas"));
+        Tipo fijo = tipoRepositorio.findById(1).orElseGet(() -> {
+            Tipo nuevo = new Tipo();
+            nuevo.setNombre("Fijo");
+            return tipoRepositorio.save(nuevo);
+        });
+
+        // When
+        Festivo festivo = festivoServicio.agregar(new Festivo(0, "FF-Fiesta", 10, 4, 0, pais, fijo));
+
+        // Then
+        var fila = festivoFechaRepositorio.findById(new FestivoFechaId(pais.getId(), LocalDate.of(año, 4, 10)));
+        assertTrue(fila.isPresent());
+        assertEquals(festivo.getId(), fila.get().getIdFestivo());
+        assertEquals(11, festivoFechaRepositorio.listarPorPais(pais.getId()).size()); // cinco años a cada lado
+
+        festivo.setDia(11);
+        festivoServicio.modificar(festivo);
+        assertFalse(festivoFechaRepositorio.existsById(new FestivoFechaId(pais.getId(), LocalDate.of(año, 4, 10))));
+        assertTrue(festivoFechaRepositorio.existsById(new FestivoFechaId(pais.getId(), LocalDate.of(año, 4, 11))));
+        festivoServicio.eliminar(festivo.getId());
+        assertTrue(festivoFechaRepositorio.listarPorPais(pais.getId()).isEmpty());
+    }
+
+    @Test
+    void testSondasDeDisponibilidadSeparadas() throws Exception {
+        // El calentamiento ya terminó al cargar el contexto
+        mockMvc.perform(get("/actuator/health/liveness"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("UP"));
+        mockMvc.perform(get("/actuator/health/readiness"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("UP"));
+    }
+
+    private double aciertos(String metrica, String etiqueta, String valor) {
+        var busqueda = registry.find(metrica).tag("result", "hit");
+        if (etiqueta != null)
+            busqueda = busqueda.tag(etiqueta, valor);
+        return busqueda.functionCounters().stream().mapToDouble(c -> c.count()).sum();
+    }
 }
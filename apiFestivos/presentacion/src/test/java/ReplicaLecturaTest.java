@@ -0,0 +1,93 @@
+package festivos.api.presentacion;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+import festivos.api.core.servicios.IPaisServicio;
+import festivos.api.dominio.entidades.Pais;
+import festivos.api.infraestructura.repositorios.IPaisRepositorio;
+
+/**
+ * Dos bases H2 en memoria: la primaria la crea Hibernate y la "réplica" se
+ * llena a mano con filas distintas, así se ve de cuál leyó cada operación.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:primaria",
+        "festivos.datasource.replica.jdbc-url=" + ReplicaLecturaTest.URL_REPLICA,
+        "festivos.datasource.replica.username=sa",
+        "festivos.datasource.replica.maximum-pool-size=3",
+        // Las dos bases tienen ids que chocan: sin cache compartida entre contextos
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=false" })
+@AutoConfigureObservability(tracing = false)
+@ActiveProfiles("test")
+class ReplicaLecturaTest {
+
+    static final String URL_REPLICA = "jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private IPaisServicio paisServicio;
+
+    @Autowired
+    private IPaisRepositorio paisRepositorio;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @BeforeAll
+    static void crearReplica() throws SQLException {
+        try (Connection conexion = DriverManager.getConnection(URL_REPLICA, "sa", "")) {
+            conexion.createStatement().execute("CREATE TABLE pais (id INT PRIMARY KEY, nombre VARCHAR(100), version INT NOT NULL)");
+            conexion.createStatement().execute("INSERT INTO pais VALUES (9001, 'RR-Replica', 0)");
+        }
+    }
+
+    @Test
+    void testLecturasDeSoloLecturaVanALaReplica() {
+        // When
+        Pais pais = paisServicio.obtener(9001);
+
+        // Then
+        assertNotNull(pais);
+        assertEquals("RR-Replica", pais.getNombre());
+        assertFalse(paisRepositorio.existsById(9001)); // en la primaria no existe
+    }
+
+    @Test
+    void testEscriturasVanALaPrimaria() throws SQLException {
+        // When
+        int id = paisServicio.agregar(new Pais(0, "RR-Primaria")).getId();
+
+        // Then
+        assertTrue(paisRepositorio.existsById(id));
+        try (Connection conexion = DriverManager.getConnection(URL_REPLICA, "sa", "");
+                ResultSet filas = conexion.createStatement().executeQuery("SELECT COUNT(*) FROM pais WHERE id = " + id)) {
+            filas.next();
+            assertEquals(0, filas.getInt(1));
+        }
+    }
+
+    @Test
+    void testCadaPoolTieneSusMetricas() {
+        // When
+        paisServicio.obtener(9001);
+        paisServicio.agregar(new Pais(0, "RR-Metricas"));
+
+        // Then
+        assertEquals(3.0, registry.get("hikaricp.connections.max").tag("pool", "replica").gauge().value());
+        assertNotNull(registry.get("hikaricp.connections.max").tag("pool", "primaria").gauge());
+    }
+}
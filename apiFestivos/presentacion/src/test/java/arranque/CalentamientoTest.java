@@ -0,0 +1,96 @@
+package festivos.api.presentacion.arranque;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import festivos.api.core.servicios.IFestivoServicio;
+import festivos.api.core.servicios.IPaisServicio;
+import festivos.api.core.servicios.ITipoServicio;
+import festivos.api.dominio.entidades.Pais;
+
+@ExtendWith(MockitoExtension.class)
+class CalentamientoTest {
+
+    @Mock
+    private IFestivoServicio festivoServicio;
+
+    @Mock
+    private IPaisServicio paisServicio;
+
+    @Mock
+    private ITipoServicio tipoServicio;
+
+    private Calentamiento calentamiento;
+
+    @BeforeEach
+    void setUp() {
+        var reloj = Clock.fixed(Instant.parse("2025-06-01T00:00:00Z"), ZoneOffset.UTC);
+        calentamiento = new Calentamiento(festivoServicio, paisServicio, tipoServicio,
+                new ObjectMapper().findAndRegisterModules(), 1, 2, Duration.ZERO, reloj);
+    }
+
+    private static Pais pais(int id) {
+        var pais = new Pais();
+        pais.setId(id);
+        return pais;
+    }
+
+    @Test
+    void testCalculaLaVentanaDeCadaPaisYEjercitaVerificarYListar() {
+        // Given
+        when(paisServicio.listar()).thenReturn(List.of(pais(1), pais(7)));
+
+        // When
+        calentamiento.calentar();
+
+        // Then
+        verify(tipoServicio).listar();
+        verify(festivoServicio).autocompletar(anyString(), anyInt());
+        for (int año = 2024; año <= 2027; año++) {
+            verify(festivoServicio).listar(7, año);
+            verify(festivoServicio, atLeastOnce()).listar(1, año);
+        }
+        verify(festivoServicio).verificar(eq(1), any());
+        verify(festivoServicio).verificar(argThat(lote -> lote.size() > 1 && lote.get(0).getIdPais() == 1));
+    }
+
+    @Test
+    void testSinPaisesNoEjercitaNada() {
+        // Given
+        when(paisServicio.listar()).thenReturn(List.of());
+
+        // When
+        calentamiento.calentar();
+
+        // Then
+        verify(festivoServicio, never()).verificar(anyInt(), any());
+        verify(festivoServicio, never()).listar(anyInt(), anyInt());
+    }
+
+    @Test
+    void testUnFalloNoImpideQueLaInstanciaQuedeLista() {
+        // Given
+        when(paisServicio.listar()).thenThrow(new IllegalStateException("sin base"));
+
+        // When
+        calentamiento.calentar();
+
+        // Then
+        verify(festivoServicio, never()).listar(anyInt(), anyInt());
+    }
+
+}
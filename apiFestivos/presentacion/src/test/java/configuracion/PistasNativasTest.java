@@ -0,0 +1,37 @@
+package festivos.api.presentacion.configuracion;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import festivos.api.dominio.entidades.Festivo;
+import festivos.api.dominio.entidades.Pais;
+
+class PistasNativasTest {
+
+    @Test
+    void testRegistraLaConfiguracionDeCacheYLosTiposCargadosPorNombre() {
+        // Given
+        RuntimeHints pistas = new RuntimeHints();
+
+        // When
+        new PistasNativas().registerHints(pistas, getClass().getClassLoader());
+
+        // Then
+        assertTrue(RuntimeHintsPredicates.resource().forResource("cache-hibernate.conf").test(pistas));
+        assertTrue(RuntimeHintsPredicates.reflection().onType(TypeReference.of(PistasNativas.PROVEEDOR_CACHE))
+                .withMemberCategory(MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS).test(pistas));
+        assertTrue(RuntimeHintsPredicates.reflection().onMethod(Festivo.class, "getNombre").test(pistas));
+        assertTrue(RuntimeHintsPredicates.reflection().onMethod(Pais.class, "getNombre").test(pistas));
+    }
+
+    @Test
+    void testElProveedorDeCacheExiste() throws Exception {
+        // Then
+        assertNotNull(Class.forName(PistasNativas.PROVEEDOR_CACHE).getConstructor());
+    }
+}
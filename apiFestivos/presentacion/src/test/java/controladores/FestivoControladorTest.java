@@ -6,9 +6,15 @@ import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
+import java.nio.charset.StandardCharsets;
+import java.time.DayOfWeek;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.ObjIntConsumer;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -17,17 +23,30 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
 
 import festivos.api.core.servicios.IFestivoServicio;
+import festivos.api.dominio.DTOs.CambiosFestivoDto;
 import festivos.api.dominio.DTOs.FestivoDto;
+import festivos.api.dominio.DTOs.ImportacionFestivoDto;
+import festivos.api.dominio.DTOs.PaginaDto;
+import festivos.api.dominio.DTOs.PaginacionDto;
+import festivos.api.dominio.DTOs.ResultadoImportacionDto;
+import festivos.api.dominio.DTOs.SugerenciaDto;
+import festivos.api.dominio.DTOs.VerificacionDto;
 import festivos.api.dominio.entidades.Festivo;
 import festivos.api.dominio.entidades.Pais;
 import festivos.api.dominio.entidades.Tipo;
+import festivos.api.presentacion.configuracion.ConfiguracionFormatos;
 
 @ExtendWith(MockitoExtension.class)
 class FestivoControladorTest {
@@ -137,6 +156,45 @@ class FestivoControladorTest {
         verify(festivoServicio).modificar(any(Festivo.class));
     }
 
+    @Test
+    void testModificarConflicto() throws Exception {
+        // Given
+        when(festivoServicio.modificar(any(Festivo.class)))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Festivo.class, 1));
+
+        // When & Then
+        mockMvc.perform(put("/api/festivos/modificar")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(festivo)))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    void testModificarParcial() throws Exception {
+        // Given
+        when(festivoServicio.modificar(eq(1), any(CambiosFestivoDto.class))).thenReturn(4);
+
+        // When & Then
+        mockMvc.perform(patch("/api/festivos/modificar/1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"version\":3,\"dia\":2}"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("4"));
+        verify(festivoServicio).modificar(eq(1), argThat((CambiosFestivoDto c) -> c.getDia() == 2 && c.getMes() == null));
+    }
+
+    @Test
+    void testModificarParcialNoExistente() throws Exception {
+        // Given
+        when(festivoServicio.modificar(eq(99), any(CambiosFestivoDto.class))).thenReturn(null);
+
+        // When & Then
+        mockMvc.perform(patch("/api/festivos/modificar/99")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"version\":0,\"dia\":2}"))
+                .andExpect(status().isNotFound());
+    }
+
     @Test
     void testEliminar() throws Exception {
         // Given
@@ -174,6 +232,46 @@ class FestivoControladorTest {
         assertTrue(response.getBody().toString().contains("Fecha inválida"));
     }
 
+    @Test
+    void testListarEnFlujoEscribeUnArregloJson() throws Exception {
+        // Given
+        Festivo navidad = new Festivo(2, "Navidad", 25, 12, 0, festivo.getPais(), festivo.getTipo());
+        doAnswer(invocacion -> {
+            Consumer<Festivo> visitante = invocacion.getArgument(1);
+            visitante.accept(festivo);
+            visitante.accept(navidad);
+            return null;
+        }).when(festivoServicio).recorrer(eq(1), any());
+
+        // When
+        var resultado = mockMvc.perform(get("/api/festivos/listar/flujo/1"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        mockMvc.perform(asyncDispatch(resultado))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].nombre").value("Año Nuevo"))
+                .andExpect(jsonPath("$[1].nombre").value("Navidad"))
+                .andExpect(jsonPath("$[1].pais.nombre").value("Colombia"));
+    }
+
+    @Test
+    void testListarEnFlujoSinFestivosEsArregloVacio() throws Exception {
+        // When
+        var resultado = mockMvc.perform(get("/api/festivos/listar/flujo"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        mockMvc.perform(asyncDispatch(resultado))
+                .andExpect(status().isOk())
+                .andExpect(content().string("[]"));
+        verify(festivoServicio).recorrer(isNull(), any());
+    }
+
     @Test
     void testListarPorPaisYAno() throws Exception {
         // Given
@@ -189,4 +287,369 @@ class FestivoControladorTest {
 
         verify(festivoServicio).listar(1, 2024);
     }
+
+    @Test
+    void testAñosFueraDelRangoAdmitidoSonSolicitudInvalida() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/api/festivos/listar/1/" + (IFestivoServicio.AÑO_MAX + 1)))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/festivos/listar/1/0"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/api/festivos/verificar")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[{\"idPais\":1,\"fecha\":\"+214748-01-01\"}]"))
+                .andExpect(status().isBadRequest());
+
+        verify(festivoServicio, never()).listar(anyInt(), anyInt());
+        verify(festivoServicio, never()).verificar(anyList());
+    }
+
+    @Test
+    void testListarPorPaisYAnoNoModificado() throws Exception {
+        // Given
+        when(festivoServicio.getVersion()).thenReturn(7L);
+        String etag = mockMvc.perform(get("/api/festivos/listar/1/2024"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", "no-cache"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        // When & Then
+        mockMvc.perform(get("/api/festivos/listar/1/2024").header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        mockMvc.perform(get("/api/festivos/listar/1/2025").header("If-None-Match", etag))
+                .andExpect(status().isOk());
+
+        verify(festivoServicio, times(1)).listar(1, 2024);
+    }
+
+    @Test
+    void testListarPorPaisYAnoEnCborConFechasComoDiasEpoca() throws Exception {
+        // Given
+        List<HttpMessageConverter<?>> convertidores = new ArrayList<>(List.of(new MappingJackson2HttpMessageConverter()));
+        new ConfiguracionFormatos(new Jackson2ObjectMapperBuilder()).extendMessageConverters(convertidores);
+        mockMvc = MockMvcBuilders.standaloneSetup(festivoControlador)
+                .setMessageConverters(convertidores.toArray(new HttpMessageConverter<?>[0]))
+                .build();
+        when(festivoServicio.listar(1, 2024)).thenReturn(List.of(new FestivoDto("Año Nuevo", LocalDate.of(2024, 1, 1))));
+
+        // When
+        var json = mockMvc.perform(get("/api/festivos/listar/1/2024"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$[0].pais").value("Año Nuevo"))
+                .andReturn().getResponse();
+        var cbor = mockMvc.perform(get("/api/festivos/listar/1/2024").accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andExpect(header().string("Vary", "Accept"))
+                .andReturn().getResponse();
+
+        // Then
+        var arbol = new CBORMapper().readTree(cbor.getContentAsByteArray());
+        assertEquals(LocalDate.of(2024, 1, 1).toEpochDay(), arbol.get(0).get("fecha").longValue());
+        assertEquals("Año Nuevo", arbol.get(0).get("pais").textValue());
+        assertNotEquals(json.getHeader("ETag"), cbor.getHeader("ETag"));
+    }
+
+    @Test
+    void testListarPorPaisYAnoCambiaEtagConLaVersion() throws Exception {
+        // Given
+        when(festivoServicio.getVersion()).thenReturn(7L, 8L);
+        String etag = mockMvc.perform(get("/api/festivos/listar/1/2024"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        // When & Then
+        mockMvc.perform(get("/api/festivos/listar/1/2024").header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"));
+
+        verify(festivoServicio, times(2)).listar(1, 2024);
+    }
+
+    @Test
+    void testVerificarLote() throws Exception {
+        // Given
+        List<VerificacionDto> resultados = Arrays.asList(
+                new VerificacionDto(1, LocalDate.of(2024, 1, 1), true),
+                new VerificacionDto(1, LocalDate.of(2024, 1, 2), false));
+        when(festivoServicio.verificar(anyList())).thenReturn(resultados);
+
+        // When & Then
+        mockMvc.perform(post("/api/festivos/verificar")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[{\"idPais\":1,\"fecha\":\"2024-01-01\"},{\"idPais\":1,\"fecha\":\"2024-01-02\"}]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].esFestivo").value(true))
+                .andExpect(jsonPath("$[1].esFestivo").value(false));
+
+        verify(festivoServicio).verificar(anyList());
+    }
+
+    @Test
+    void testVerificarLoteSinFecha() throws Exception {
+        // When & Then
+        mockMvc.perform(post("/api/festivos/verificar")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[{\"idPais\":1}]"))
+                .andExpect(status().isBadRequest());
+
+        verify(festivoServicio, never()).verificar(anyList());
+    }
+
+    @Test
+    void testVerificarLoteConElementosNulos() throws Exception {
+        // When & Then
+        for (String cuerpo : List.of("[null]", "[{\"idPais\":1,\"fecha\":\"2024-01-01\"}, null]"))
+            mockMvc.perform(post("/api/festivos/verificar")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(cuerpo))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(content().string("Consulta inválida"));
+
+        verify(festivoServicio, never()).verificar(anyList());
+    }
+
+    @Test
+    void testVerificarFlujoNdjson() throws Exception {
+        // Given
+        when(festivoServicio.verificar(anyList())).thenAnswer(invocacion -> {
+            List<VerificacionDto> lote = invocacion.getArgument(0);
+            return lote.stream()
+                    .map(c -> new VerificacionDto(c.getIdPais(), c.getFecha(), c.getFecha().getDayOfMonth() == 1))
+                    .toList();
+        });
+
+        // When
+        String cuerpo = mockMvc.perform(post("/api/festivos/verificar")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .content("{\"idPais\":1,\"fecha\":\"2024-01-01\"}\nbasura\n\n{\"idPais\":1,\"fecha\":\"2024-01-02\"}\n"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        // Then
+        String[] lineas = cuerpo.split("\n");
+        assertEquals(3, lineas.length);
+        assertTrue(lineas[0].contains("\"esFestivo\":true"));
+        assertTrue(lineas[1].contains("\"linea\":2"));
+        assertTrue(lineas[2].contains("\"esFestivo\":false"));
+    }
+
+    @Test
+    void testAgregarDiasHabiles() throws Exception {
+        // Given
+        when(festivoServicio.agregarDiasHabiles(eq(1), eq(LocalDate.of(2024, 1, 5)), eq(3), anyList()))
+                .thenReturn(LocalDate.of(2024, 1, 11));
+
+        // When & Then
+        mockMvc.perform(get("/api/festivos/habiles/agregar/1")
+                .param("fecha", "2024-01-05")
+                .param("dias", "3"))
+                .andExpect(status().isOk());
+
+        verify(festivoServicio).agregarDiasHabiles(1, LocalDate.of(2024, 1, 5), 3,
+                Arrays.asList(DayOfWeek.SATURDAY, DayOfWeek.SUNDAY));
+    }
+
+    @Test
+    void testContarDiasHabilesRangoInvalido() throws Exception {
+        // Given
+        when(festivoServicio.contarDiasHabiles(eq(1), any(), any(), anyList()))
+                .thenThrow(new IllegalArgumentException("La fecha final es anterior a la inicial"));
+
+        // When & Then
+        mockMvc.perform(get("/api/festivos/habiles/contar/1")
+                .param("desde", "2024-02-01")
+                .param("hasta", "2024-01-01")
+                .param("finesDeSemana", "SUNDAY"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testListarPorRangoDeAños() throws Exception {
+        // Given
+        List<FestivoDto> festivos = Arrays.asList(new FestivoDto("Año Nuevo", LocalDate.of(2024, 1, 1)),
+                new FestivoDto("Año Nuevo", LocalDate.of(2025, 1, 1)));
+        when(festivoServicio.listar(1, LocalDate.of(2024, 1, 1), LocalDate.of(2025, 12, 31))).thenReturn(festivos);
+
+        // When & Then
+        mockMvc.perform(get("/api/festivos/listar/1/2024/2025"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2));
+
+        verify(festivoServicio).listar(1, LocalDate.of(2024, 1, 1), LocalDate.of(2025, 12, 31));
+    }
+
+    @Test
+    void testListarPorRangoDeFechas() throws Exception {
+        // Given
+        when(festivoServicio.listar(1, LocalDate.of(2024, 3, 1), LocalDate.of(2024, 4, 30)))
+                .thenReturn(Arrays.asList());
+
+        // When & Then
+        mockMvc.perform(get("/api/festivos/listar/1")
+                .param("desde", "2024-03-01")
+                .param("hasta", "2024-04-30"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$").isArray());
+
+        verify(festivoServicio).listar(1, LocalDate.of(2024, 3, 1), LocalDate.of(2024, 4, 30));
+    }
+
+    @Test
+    void testListarPorLlave() throws Exception {
+        // Given
+        when(festivoServicio.listar(any(PaginacionDto.class)))
+                .thenReturn(new PaginaDto<>(List.of(festivo), false, "Año Nuevo", 1));
+
+        // When & Then
+        mockMvc.perform(get("/api/festivos/listar").param("despuesNombre", "A").param("despuesId", "0"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.contenido[0].nombre").value("Año Nuevo"))
+                .andExpect(jsonPath("$.hayMas").value(false));
+
+        verify(festivoServicio).listar(argThat((PaginacionDto p) -> p.esPorLlave() && p.getDespuesId() == 0));
+    }
+
+    @Test
+    void testAutocompletarLimitePorDefecto() throws Exception {
+        // Given
+        when(festivoServicio.autocompletar("nav", 10)).thenReturn(List.of(new SugerenciaDto(19, "Navidad")));
+
+        // When & Then
+        mockMvc.perform(get("/api/festivos/autocompletar/nav"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].nombre").value("Navidad"));
+    }
+
+    @Test
+    void testImportarCsvNumeraLineasYReportaNumerosInvalidos() throws Exception {
+        // Given
+        List<ImportacionFestivoDto> filas = new ArrayList<>();
+        when(festivoServicio.importar(any())).thenAnswer(invocacion -> {
+            Iterator<ImportacionFestivoDto> recibidas = invocacion.getArgument(0);
+            recibidas.forEachRemaining(filas::add);
+            return new ResultadoImportacionDto();
+        });
+
+        // When
+        mockMvc.perform(post("/api/festivos/importar")
+                .contentType("text/csv")
+                .content("idPais,idTipo,Nombre,dia,mes\n1,1,\"Día de la Raza, hispanidad\",12,10\n\n1,1,Navidad,x,12\n"))
+                .andExpect(status().isOk());
+
+        // Then
+        assertEquals(2, filas.size());
+        assertEquals(2, filas.get(0).getFila());
+        assertEquals("Día de la Raza, hispanidad", filas.get(0).getNombre());
+        assertEquals(12, filas.get(0).getDia());
+        assertNull(filas.get(0).getDiasPascua());
+        assertEquals(4, filas.get(1).getFila());
+        assertEquals("Número inválido en dia: x", filas.get(1).getError());
+    }
+
+    @Test
+    void testImportarCsvSinColumnaObligatoria() throws Exception {
+        mockMvc.perform(post("/api/festivos/importar")
+                .contentType("text/csv")
+                .content("nombre,dia,mes\nNavidad,25,12\n"))
+                .andExpect(status().isBadRequest());
+        verify(festivoServicio, never()).importar(any());
+    }
+
+    @Test
+    void testImportarJsonNumeraElementos() throws Exception {
+        // Given
+        List<ImportacionFestivoDto> filas = new ArrayList<>();
+        when(festivoServicio.importar(any())).thenAnswer(invocacion -> {
+            Iterator<ImportacionFestivoDto> recibidas = invocacion.getArgument(0);
+            recibidas.forEachRemaining(filas::add);
+            return new ResultadoImportacionDto();
+        });
+
+        // When
+        mockMvc.perform(post("/api/festivos/importar")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[{\"nombre\":\"Navidad\",\"dia\":25,\"mes\":12,\"idPais\":1,\"idTipo\":1},"
+                        + "{\"nombre\":\"Jueves Santo\",\"diasPascua\":-3,\"idPais\":1,\"idTipo\":3}]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.insertadas").value(0));
+
+        // Then
+        assertEquals(List.of(1, 2), filas.stream().map(ImportacionFestivoDto::getFila).toList());
+        assertEquals(-3, filas.get(1).getDiasPascua());
+    }
+
+    @Test
+    void testImportarJsonMalFormado() throws Exception {
+        // Given
+        when(festivoServicio.importar(any())).thenAnswer(invocacion -> {
+            Iterator<ImportacionFestivoDto> recibidas = invocacion.getArgument(0);
+            recibidas.forEachRemaining(fila -> {
+            });
+            return new ResultadoImportacionDto();
+        });
+
+        // When & Then
+        mockMvc.perform(post("/api/festivos/importar")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[{\"nombre\":\"Navidad\",\"idPais\":1,\"idTipo\":1}, {\"nombre\": "))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testIcsEscribeEventosConUidEstable() throws Exception {
+        // Given
+        when(festivoServicio.getVersion()).thenReturn(7L);
+        when(festivoServicio.getUltimaModificacion()).thenReturn(1704067200000L);
+        doAnswer(invocacion -> {
+            ObjIntConsumer<String> visitante = invocacion.getArgument(3);
+            visitante.accept("Año Nuevo", (int) LocalDate.of(2024, 1, 1).toEpochDay());
+            visitante.accept("Día de la Raza, hispanidad", (int) LocalDate.of(2024, 10, 14).toEpochDay());
+            return null;
+        }).when(festivoServicio).recorrer(eq(1), eq(LocalDate.of(2024, 1, 1)), eq(LocalDate.of(2024, 12, 31)), any());
+
+        // When
+        var respuesta = mockMvc.perform(get("/api/festivos/ics/1").param("desde", "2024-01-01").param("hasta", "2024-12-31"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andReturn().getResponse();
+        String ics = respuesta.getContentAsString(StandardCharsets.UTF_8);
+
+        // Then
+        assertTrue(respuesta.getContentType().startsWith("text/calendar"));
+        assertTrue(ics.startsWith("BEGIN:VCALENDAR\r\nVERSION:2.0\r\n"));
+        assertTrue(ics.endsWith("END:VCALENDAR\r\n"));
+        assertTrue(ics.contains("UID:1-20240101-" + Integer.toHexString("Año Nuevo".hashCode()) + "@api-festivos\r\n"));
+        assertTrue(ics.contains("DTSTAMP:20240101T000000Z\r\n"));
+        assertTrue(ics.contains("DTSTART;VALUE=DATE:20241014\r\nDTEND;VALUE=DATE:20241015\r\n"));
+        assertTrue(ics.contains("SUMMARY:Día de la Raza\\, hispanidad\r\n"));
+        assertEquals(2, ics.split("BEGIN:VEVENT", -1).length - 1);
+    }
+
+    @Test
+    void testIcsNoModificadoNoRecorre() throws Exception {
+        // Given
+        String etag = mockMvc.perform(get("/api/festivos/ics/1").param("desde", "2024-01-01").param("hasta", "2024-12-31"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        // When & Then
+        mockMvc.perform(get("/api/festivos/ics/1").param("desde", "2024-01-01").param("hasta", "2024-12-31")
+                .header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+        verify(festivoServicio, times(1)).recorrer(anyInt(), any(), any(), any());
+    }
+
+    @Test
+    void testIcsRangoInvalido() throws Exception {
+        // Given
+        doThrow(new IllegalArgumentException("La fecha final es anterior a la inicial"))
+                .when(festivoServicio).recorrer(anyInt(), any(), any(), any());
+
+        // When & Then
+        mockMvc.perform(get("/api/festivos/ics/1").param("desde", "2024-02-01").param("hasta", "2024-01-01"))
+                .andExpect(status().isBadRequest());
+    }
 }
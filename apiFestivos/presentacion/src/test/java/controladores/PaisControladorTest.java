@@ -22,6 +22,9 @@ import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import festivos.api.core.servicios.IPaisServicio;
+import festivos.api.dominio.DTOs.PaginaDto;
+import festivos.api.dominio.DTOs.PaginacionDto;
+import festivos.api.dominio.DTOs.SugerenciaDto;
 import festivos.api.dominio.entidades.Pais;
 
 @ExtendWith(MockitoExtension.class)
@@ -62,6 +65,23 @@ class PaisControladorTest {
         verify(paisServicio).listar();
     }
 
+    @Test
+    void testListarNoModificado() throws Exception {
+        // Given
+        when(paisServicio.getVersion()).thenReturn(3L);
+        when(paisServicio.getUltimaModificacion()).thenReturn(1_700_000_000_000L);
+        String etag = mockMvc.perform(get("/api/paises/listar"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("Last-Modified"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        // When & Then
+        mockMvc.perform(get("/api/paises/listar").header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+
+        verify(paisServicio, times(1)).listar();
+    }
+
     @Test
     void testObtener() throws Exception {
         // Given
@@ -132,4 +152,42 @@ class PaisControladorTest {
 
         verify(paisServicio).eliminar(1);
     }
+
+    @Test
+    void testListarPaginado() throws Exception {
+        // Given
+        when(paisServicio.listar(any(PaginacionDto.class)))
+                .thenReturn(new PaginaDto<>(List.of(pais), true, "Colombia", 1));
+
+        // When & Then
+        mockMvc.perform(get("/api/paises/listar").param("limite", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.contenido[0].nombre").value("Colombia"))
+                .andExpect(jsonPath("$.hayMas").value(true))
+                .andExpect(jsonPath("$.despuesId").value(1));
+
+        verify(paisServicio, never()).listar();
+    }
+
+    @Test
+    void testBuscarPaginacionInvalida() throws Exception {
+        // Given
+        when(paisServicio.buscar(eq("x"), any(PaginacionDto.class))).thenThrow(new IllegalArgumentException("límite"));
+
+        // When & Then
+        mockMvc.perform(get("/api/paises/buscar/x").param("limite", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testAutocompletar() throws Exception {
+        // Given
+        when(paisServicio.autocompletar("col", 5)).thenReturn(List.of(new SugerenciaDto(1, "COLOMBIA")));
+
+        // When & Then
+        mockMvc.perform(get("/api/paises/autocompletar/col").param("limite", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(1))
+                .andExpect(jsonPath("$[0].nombre").value("COLOMBIA"));
+    }
 }
@@ -22,6 +22,8 @@ import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import festivos.api.core.servicios.ITipoServicio;
+import festivos.api.dominio.DTOs.PaginaDto;
+import festivos.api.dominio.DTOs.PaginacionDto;
 import festivos.api.dominio.entidades.Tipo;
 
 @ExtendWith(MockitoExtension.class)
@@ -62,6 +64,23 @@ class TipoControladorTest {
         verify(tipoServicio).listar();
     }
 
+    @Test
+    void testListarNoModificado() throws Exception {
+        // Given
+        when(tipoServicio.getVersion()).thenReturn(3L);
+        when(tipoServicio.getUltimaModificacion()).thenReturn(1_700_000_000_000L);
+        String etag = mockMvc.perform(get("/api/tipos/listar"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("Last-Modified"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        // When & Then
+        mockMvc.perform(get("/api/tipos/listar").header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+
+        verify(tipoServicio, times(1)).listar();
+    }
+
     @Test
     void testObtener() throws Exception {
         // Given
@@ -132,4 +151,30 @@ class TipoControladorTest {
 
         verify(tipoServicio).eliminar(1);
     }
+
+    @Test
+    void testListarPaginado() throws Exception {
+        // Given
+        when(tipoServicio.listar(any(PaginacionDto.class)))
+                .thenReturn(new PaginaDto<>(List.of(tipo), true, "Fijo", 1));
+
+        // When & Then
+        mockMvc.perform(get("/api/tipos/listar").param("limite", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.contenido[0].nombre").value("Fijo"))
+                .andExpect(jsonPath("$.hayMas").value(true))
+                .andExpect(jsonPath("$.despuesId").value(1));
+
+        verify(tipoServicio, never()).listar();
+    }
+
+    @Test
+    void testBuscarPaginacionInvalida() throws Exception {
+        // Given
+        when(tipoServicio.buscar(eq("x"), any(PaginacionDto.class))).thenThrow(new IllegalArgumentException("límite"));
+
+        // When & Then
+        mockMvc.perform(get("/api/tipos/buscar/x").param("limite", "0"))
+                .andExpect(status().isBadRequest());
+    }
 }
@@ -0,0 +1,72 @@
+package festivos.api.presentacion.observabilidad;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.common.KeyValues;
+
+import festivos.api.aplicacion.calendario.CacheCalendarios;
+
+@ExtendWith(MockitoExtension.class)
+class ConvencionObservacionHttpTest {
+
+    @Mock
+    private CacheCalendarios cache;
+
+    private ConvencionObservacionHttp convencion;
+    private MockHttpServletRequest request;
+
+    @BeforeEach
+    void setUp() {
+        convencion = new ConvencionObservacionHttp(cache);
+        request = new MockHttpServletRequest("GET", "/api/festivos/listar/1/2024");
+    }
+
+    private String pais() {
+        var contexto = new ServerRequestObservationContext(request, new MockHttpServletResponse());
+        KeyValues valores = convencion.getLowCardinalityKeyValues(contexto);
+        return valores.stream().filter(v -> v.getKey().equals("pais")).findFirst().orElseThrow().getValue();
+    }
+
+    @Test
+    void testEtiquetaPaisDesdeVariableDeRuta() {
+        // Given
+        request.setAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE, Map.of("idPais", "1", "año", "2024"));
+        when(cache.etiquetaPais(1)).thenReturn("1");
+
+        // When / Then
+        assertEquals("1", pais());
+    }
+
+    @Test
+    void testEtiquetaPaisSinVariable() {
+        // Given
+        request.setAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE, Map.of("id", "7"));
+
+        // When / Then
+        assertEquals("ninguno", pais());
+        verifyNoInteractions(cache);
+    }
+
+    @Test
+    void testEtiquetaPaisNoNumerico() {
+        // Given
+        request.setAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE, Map.of("idPais", "abc"));
+        when(cache.etiquetaPais(-1)).thenReturn("otro");
+
+        // When / Then
+        assertEquals("otro", pais());
+    }
+}
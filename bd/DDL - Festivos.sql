@@ -8,13 +8,15 @@ CREATE DATABASE Festivos;
 --Crear la tabla TIPO
 CREATE TABLE Tipo(
 	Id SERIAL PRIMARY KEY,
-	Tipo VARCHAR(100) NOT NULL
+	Tipo VARCHAR(100) NOT NULL,
+	Version INT NOT NULL DEFAULT 0
 	);
 
 --Crear la tabla PAIS
 CREATE TABLE Pais(
 	Id SERIAL PRIMARY KEY,
-	Nombre VARCHAR(100) NOT NULL
+	Nombre VARCHAR(100) NOT NULL,
+	Version INT NOT NULL DEFAULT 0
 	);
 
 --Crear la tabla FESTIVO
@@ -27,5 +29,47 @@ CREATE TABLE Festivo(
 	Mes INT NOT NULL,
 	DiasPascua INT NOT NULL,
 	IdTipo INT NOT NULL,
-	CONSTRAINT fkFestivo_Tipo FOREIGN KEY (IdTipo) REFERENCES Tipo(Id)
-	);
\ No newline at end of file
+	Version INT NOT NULL DEFAULT 0,
+	CONSTRAINT fkFestivo_Tipo FOREIGN KEY (IdTipo) REFERENCES Tipo(Id),
+	CONSTRAINT ukFestivo_Pais_Nombre UNIQUE (IdPais, Nombre)
+	);
+
+--Ids que asigna la aplicación: optimizador pooled con bloques de 50 (allocationSize = 50)
+CREATE SEQUENCE secuencia_festivo START 1 INCREMENT 50;
+
+--Índices para la paginación por (nombre, id)
+CREATE INDEX ixTipo_Tipo ON Tipo(Tipo, Id);
+CREATE INDEX ixPais_Nombre ON Pais(Nombre, Id);
+CREATE INDEX ixFestivo_Nombre ON Festivo(Nombre, Id);
+
+--Fechas concretas de cada festivo, calculadas por la aplicación para una ventana de años
+--(festivos.fechas.ventana-atras/ventana-adelante, en años). Para reportes, p. ej.:
+--  SELECT v.* FROM Venta v JOIN Festivo_Fecha ff ON ff.IdPais = v.IdPais AND ff.Fecha = v.Fecha
+CREATE TABLE Festivo_Fecha(
+	IdPais INT NOT NULL,
+	Fecha DATE NOT NULL,
+	IdFestivo INT NOT NULL,
+	CONSTRAINT pkFestivo_Fecha PRIMARY KEY (IdPais, Fecha)
+	);
+
+--Registro de escrituras para invalidar la cache de las demás instancias de la API
+CREATE TABLE CambioDatos(
+	Id BIGSERIAL PRIMARY KEY,
+	Catalogo VARCHAR(10) NOT NULL,
+	IdRegistro INT,
+	IdPais INT,
+	Origen VARCHAR(36) NOT NULL,
+	Creado TIMESTAMP WITH TIME ZONE NOT NULL
+	);
+CREATE INDEX ixCambioDatos_Creado ON CambioDatos(Creado);
+
+--Despierta a las instancias que hacen LISTEN festivos_invalidacion; sin esto revisan la tabla por intervalo
+CREATE FUNCTION notificar_cambio_datos() RETURNS trigger AS $$
+BEGIN
+	PERFORM pg_notify('festivos_invalidacion', NEW.Id::text);
+	RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trCambioDatos_Notificar AFTER INSERT ON CambioDatos
+	FOR EACH ROW EXECUTE FUNCTION notificar_cambio_datos();
@@ -59,4 +59,7 @@ INSERT INTO Festivo (IdPais, Dia, Mes, Nombre, IdTipo, DiasPascua) VALUES(10, 10
 INSERT INTO Festivo (IdPais, Dia, Mes, Nombre, IdTipo, DiasPascua) VALUES(10, 9, 10, 'Independencia de Guayaquil', 5, 0);
 INSERT INTO Festivo (IdPais, Dia, Mes, Nombre, IdTipo, DiasPascua) VALUES(10, 2, 11, 'Día de los Difuntos', 5, 0);
 INSERT INTO Festivo (IdPais, Dia, Mes, Nombre, IdTipo, DiasPascua) VALUES(10, 3, 11, 'Independencia de Cuenca', 5, 0);
-INSERT INTO Festivo (IdPais, Dia, Mes, Nombre, IdTipo, DiasPascua) VALUES(10, 25, 12, 'Navidad', 5, 0);
\ No newline at end of file
+INSERT INTO Festivo (IdPais, Dia, Mes, Nombre, IdTipo, DiasPascua) VALUES(10, 25, 12, 'Navidad', 5, 0);
+
+--Los ids que asigne la aplicación continúan después de los sembrados
+SELECT setval('secuencia_festivo', (SELECT MAX(Id) FROM Festivo));
@@ -0,0 +1,61 @@
+-- Lleva una base existente (creada con una versión anterior de "DDL - Festivos.sql"
+-- o de init.sql) a la estructura actual. Con ddl-auto=validate (perfiles docker y aws)
+-- la API no arranca sin estos cambios. Se puede ejecutar más de una vez.
+
+--Control de concurrencia optimista: columna Version en los tres catálogos
+ALTER TABLE Tipo ADD COLUMN IF NOT EXISTS Version INT NOT NULL DEFAULT 0;
+ALTER TABLE Pais ADD COLUMN IF NOT EXISTS Version INT NOT NULL DEFAULT 0;
+ALTER TABLE Festivo ADD COLUMN IF NOT EXISTS Version INT NOT NULL DEFAULT 0;
+
+--(país, nombre) es la llave de la importación en lote; si falla, hay festivos
+--repetidos por país que se deben depurar antes
+DO $$
+BEGIN
+	IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'ukfestivo_pais_nombre') THEN
+		ALTER TABLE Festivo ADD CONSTRAINT ukFestivo_Pais_Nombre UNIQUE (IdPais, Nombre);
+	END IF;
+END;
+$$;
+
+--secuencia_festivo avanza de a 50: la aplicación usa el optimizador pooled (allocationSize = 50).
+--Se deja después del mayor id asignado para no repetir ids ya usados
+CREATE SEQUENCE IF NOT EXISTS secuencia_festivo START 1 INCREMENT 50;
+ALTER SEQUENCE secuencia_festivo INCREMENT 50;
+SELECT setval('secuencia_festivo', GREATEST(
+	(SELECT COALESCE(MAX(Id), 1) FROM Festivo),
+	(SELECT last_value FROM secuencia_festivo)));
+
+--Índices para la paginación por (nombre, id)
+CREATE INDEX IF NOT EXISTS ixTipo_Tipo ON Tipo(Tipo, Id);
+CREATE INDEX IF NOT EXISTS ixPais_Nombre ON Pais(Nombre, Id);
+CREATE INDEX IF NOT EXISTS ixFestivo_Nombre ON Festivo(Nombre, Id);
+
+--Fechas concretas de cada festivo; la aplicación la llena al arrancar
+CREATE TABLE IF NOT EXISTS Festivo_Fecha(
+	IdPais INT NOT NULL,
+	Fecha DATE NOT NULL,
+	IdFestivo INT NOT NULL,
+	CONSTRAINT pkFestivo_Fecha PRIMARY KEY (IdPais, Fecha)
+	);
+
+--Registro de escrituras para invalidar la cache de las demás instancias de la API
+CREATE TABLE IF NOT EXISTS CambioDatos(
+	Id BIGSERIAL PRIMARY KEY,
+	Catalogo VARCHAR(10) NOT NULL,
+	IdRegistro INT,
+	IdPais INT,
+	Origen VARCHAR(36) NOT NULL,
+	Creado TIMESTAMP WITH TIME ZONE NOT NULL
+	);
+CREATE INDEX IF NOT EXISTS ixCambioDatos_Creado ON CambioDatos(Creado);
+
+CREATE OR REPLACE FUNCTION notificar_cambio_datos() RETURNS trigger AS $$
+BEGIN
+	PERFORM pg_notify('festivos_invalidacion', NEW.Id::text);
+	RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS trCambioDatos_Notificar ON CambioDatos;
+CREATE TRIGGER trCambioDatos_Notificar AFTER INSERT ON CambioDatos
+	FOR EACH ROW EXECUTE FUNCTION notificar_cambio_datos();